@@ -0,0 +1,36 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.balance.Balance.newBalance;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Throughput, AverageTime})
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceBenchmark {
+
+    private final Balance balance = newBalance()
+            .accountId(randomAccountId())
+            .amount(eur(1_000))
+            .build();
+    private final Money amount = eur(20);
+
+    @Benchmark
+    public Balance withdraw() {
+        return balance.withdraw(amount);
+    }
+
+    @Benchmark
+    public Balance deposit() {
+        return balance.deposit(amount);
+    }
+}
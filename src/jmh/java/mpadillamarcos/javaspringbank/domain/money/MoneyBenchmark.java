@@ -0,0 +1,46 @@
+package mpadillamarcos.javaspringbank.domain.money;
+
+import org.openjdk.jmh.annotations.*;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Throughput, AverageTime})
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private final Money balance = eur(1_520.75);
+    private final Money amount = eur(20.5);
+    private final Money wholeAmount = eur(300);
+
+    @Benchmark
+    public Money add() {
+        return balance.add(amount);
+    }
+
+    @Benchmark
+    public Money subtract() {
+        return balance.subtract(amount);
+    }
+
+    @Benchmark
+    public boolean isLessThan() {
+        return balance.isLessThan(amount);
+    }
+
+    @Benchmark
+    public String toStringWithDecimals() {
+        return balance.toString();
+    }
+
+    @Benchmark
+    public String toStringWhole() {
+        return wholeAmount.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import mpadillamarcos.javaspringbank.domain.account.Account;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static mpadillamarcos.javaspringbank.domain.account.Account.newAccount;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.Transaction.newTransaction;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.OUTGOING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId.randomTransactionGroupId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+/**
+ * State transitions of a transaction and the Lombok builders every domain change goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Throughput, AverageTime})
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBenchmark {
+
+    private final TransactionGroupId groupId = randomTransactionGroupId();
+    private final UserId userId = randomUserId();
+    private final AccountId accountId = randomAccountId();
+    private final Instant now = Instant.now();
+    private final Transaction pending = newTransfer();
+
+    @Benchmark
+    public Transaction confirm() {
+        return pending.confirm();
+    }
+
+    @Benchmark
+    public Transaction reject() {
+        return pending.reject();
+    }
+
+    @Benchmark
+    public Transaction buildTransaction() {
+        return newTransfer();
+    }
+
+    @Benchmark
+    public Transaction toBuilderTransaction() {
+        return pending.toBuilder()
+                .concept("rent")
+                .build();
+    }
+
+    @Benchmark
+    public Account buildAccount() {
+        return newAccount()
+                .userId(userId)
+                .createdDate(now)
+                .build();
+    }
+
+    @Benchmark
+    public Balance buildBalance() {
+        return Balance.builder()
+                .accountId(accountId)
+                .amount(eur(100))
+                .version(1)
+                .build();
+    }
+
+    private Transaction newTransfer() {
+        return newTransaction()
+                .groupId(groupId)
+                .userId(userId)
+                .accountId(accountId)
+                .amount(eur(100))
+                .createdDate(now)
+                .type(TRANSFER)
+                .direction(OUTGOING)
+                .concept("transfer")
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessCache;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.account.AccountCache;
+import mpadillamarcos.javaspringbank.domain.account.AccountService;
+import mpadillamarcos.javaspringbank.domain.account.AccountView;
+import mpadillamarcos.javaspringbank.domain.balance.AtomicBalanceLedger;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceService;
+import mpadillamarcos.javaspringbank.domain.balance.CreditCoalescer;
+import mpadillamarcos.javaspringbank.domain.balance.HotAccountBalances;
+import mpadillamarcos.javaspringbank.infra.InMemoryRepositoriesConfiguration;
+import mpadillamarcos.javaspringbank.infra.time.UtcClock;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferRequest.transferRequest;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+/**
+ * A transfer through the transactional proxy of {@link TransactionService}, with the services wired
+ * to the in-memory repositories so that the numbers do not depend on a database. The context is
+ * rebuilt every iteration, so that the transactions piling up do not skew later iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Throughput, AverageTime})
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+
+    private AnnotationConfigApplicationContext context;
+    private TransactionService transactionService;
+    private List<AccountView> accounts;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("in-memory");
+        context.register(
+                TransactionManagement.class,
+                InMemoryRepositoriesConfiguration.class,
+                TransactionService.class,
+                AccountService.class,
+                AccountCache.class,
+                AccountAccessService.class,
+                AccountAccessCache.class,
+                BalanceService.class,
+                AtomicBalanceLedger.class,
+                HotAccountBalances.class,
+                CreditCoalescer.class,
+                UtcClock.class
+        );
+        context.refresh();
+        transactionService = context.getBean(TransactionService.class);
+
+        var accountService = context.getBean(AccountService.class);
+        var balanceService = context.getBean(BalanceService.class);
+        accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            var account = accountService.openAccount(randomUserId());
+            balanceService.deposit(account.getAccountId(), eur(1_000_000_000));
+            accounts.add(account);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionId transfer() {
+        var random = ThreadLocalRandom.current();
+        var origin = accounts.get(random.nextInt(ACCOUNTS));
+        var destination = accounts.get(random.nextInt(ACCOUNTS));
+
+        return transactionService.transfer(transferRequest()
+                .userId(origin.getUserId())
+                .originAccountId(origin.getAccountId())
+                .destinationAccountId(destination.getAccountId())
+                .amount(eur(1))
+                .concept("benchmark")
+                .build());
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionManagement {
+
+        @Bean
+        public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.lang.String.join;
+import static java.util.Collections.nCopies;
+
+/**
+ * Fills the compact columns added by V10 from the text and numeric ones, walking each table in
+ * primary key order and committing every {@link #BATCH_SIZE} rows, so that no statement holds its
+ * row locks for long and an interrupted run resumes by skipping the rows already filled. The codes
+ * are spelled out here rather than taken from the type handlers, so that the migration keeps doing
+ * what it did when it was applied whatever later happens to the enums. A value without a code, or
+ * an amount that is not a whole number of minor units, is left empty, and V12 then fails instead
+ * of dropping it. Such amounts are counted up front, and the migration fails before writing
+ * anything when there are any.
+ */
+@Slf4j
+public class V11__Backfill_compact_columns extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 10_000;
+
+    private static final String MINOR_UNITS = "amount * CASE currency WHEN 'EUR' THEN 100 WHEN 'JPY' THEN 1 END";
+    private static final String MONEY = "amount_minor = CASE WHEN " + MINOR_UNITS + " = trunc(" + MINOR_UNITS + ") THEN ("
+            + MINOR_UNITS + ")::bigint END, currency_code = CASE currency WHEN 'EUR' THEN 978 WHEN 'JPY' THEN 392 END";
+    private static final String ACCOUNT_STATE = "CASE state WHEN 'OPEN' THEN 1 WHEN 'BLOCKED' THEN 2 WHEN 'CLOSED' THEN 3 END";
+    private static final String ACCESS_TYPE = "CASE type WHEN 'OWNER' THEN 1 WHEN 'OPERATOR' THEN 2 WHEN 'VIEWER' THEN 3 END";
+    private static final String ACCESS_STATE = "CASE state WHEN 'GRANTED' THEN 1 WHEN 'REVOKED' THEN 2 END";
+    private static final String TRANSACTION_STATE =
+            "CASE state WHEN 'PENDING' THEN 1 WHEN 'CONFIRMED' THEN 2 WHEN 'REJECTED' THEN 3 WHEN 'REVERTED' THEN 4 END";
+    private static final String TRANSACTION_DIRECTION = "CASE direction WHEN 'INCOMING' THEN 1 WHEN 'OUTGOING' THEN 2 END";
+    private static final String TRANSACTION_TYPE = "CASE type WHEN 'WITHDRAW' THEN 1 WHEN 'DEPOSIT' THEN 2 WHEN 'TRANSFER' THEN 3 END";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var connection = context.getConnection();
+        var inexact = 0L;
+        for (var table : List.of("balances", "balance_slots", "transactions")) {
+            inexact += countFractionalMinorUnits(connection, table);
+        }
+        if (inexact > 0) {
+            throw new IllegalStateException(inexact + " amounts are not a whole number of minor units of their currency,"
+                    + " correct them before migrating");
+        }
+
+        backfill(connection, "accounts", List.of("id"), "state_code", "state_code = " + ACCOUNT_STATE);
+        backfill(connection, "accesses", List.of("account_id", "user_id"), "state_code",
+                "type_code = " + ACCESS_TYPE + ", state_code = " + ACCESS_STATE);
+        backfill(connection, "balances", List.of("account_id"), "amount_minor", MONEY);
+        backfill(connection, "balance_slots", List.of("account_id", "slot"), "amount_minor", MONEY);
+        backfill(connection, "transactions", List.of("id"), "amount_minor", MONEY
+                + ", state_code = " + TRANSACTION_STATE
+                + ", direction_code = " + TRANSACTION_DIRECTION
+                + ", type_code = " + TRANSACTION_TYPE);
+        backfill(connection, "idempotent_requests", List.of("user_id", "key"), "type_code", "type_code = " + TRANSACTION_TYPE);
+    }
+
+    private long countFractionalMinorUnits(Connection connection, String table) throws SQLException {
+        var sql = "SELECT count(*) FROM " + table + " WHERE " + MINOR_UNITS + " <> trunc(" + MINOR_UNITS + ")";
+        try (var statement = connection.createStatement(); var rows = statement.executeQuery(sql)) {
+            rows.next();
+            var count = rows.getLong(1);
+            if (count > 0) {
+                log.error("{} rows of {} hold an amount that is not a whole number of minor units", count, table);
+            }
+            return count;
+        }
+    }
+
+    private void backfill(Connection connection, String table, List<String> keys, String pending, String assignments) throws SQLException {
+        var start = System.nanoTime();
+        var columns = join(", ", keys);
+        var sql = """
+                WITH batch AS (
+                    SELECT %1$s FROM %2$s %3$s ORDER BY %1$s LIMIT %4$d
+                ), updated AS (
+                    UPDATE %2$s SET %5$s
+                    FROM batch
+                    WHERE (%6$s) = (%7$s) AND %2$s.%8$s IS NULL
+                    RETURNING 1
+                )
+                SELECT %1$s, (SELECT count(*) FROM updated) FROM batch ORDER BY %9$s LIMIT 1
+                """;
+        var qualified = keys.stream().map(key -> table + "." + key).collect(Collectors.joining(", "));
+        var fromBatch = keys.stream().map(key -> "batch." + key).collect(Collectors.joining(", "));
+        var descending = keys.stream().map(key -> key + " DESC").collect(Collectors.joining(", "));
+        var first = sql.formatted(columns, table, "", BATCH_SIZE, assignments, qualified, fromBatch, pending, descending);
+        var next = sql.formatted(columns, table, "WHERE (" + columns + ") > (" + join(", ", nCopies(keys.size(), "?")) + ")",
+                BATCH_SIZE, assignments, qualified, fromBatch, pending, descending);
+
+        long updated = 0;
+        Object[] last = null;
+        while (true) {
+            try (var statement = connection.prepareStatement(last == null ? first : next)) {
+                for (int i = 0; last != null && i < last.length; i++) {
+                    statement.setObject(i + 1, last[i]);
+                }
+                try (var rows = statement.executeQuery()) {
+                    if (!rows.next()) {
+                        break;
+                    }
+                    last = new Object[keys.size()];
+                    for (int i = 0; i < keys.size(); i++) {
+                        last[i] = rows.getObject(i + 1);
+                    }
+                    updated += rows.getLong(keys.size() + 1);
+                }
+            }
+        }
+        log.info("Backfilled {} rows of {} in {} ms", updated, table, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,79 @@
+package mpadillamarcos.javaspringbank.domain.access;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.utils.Caches;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static java.time.Duration.ofMillis;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+/**
+ * Keeps the granted access of recently seen (account, user) pairs in memory, including the pairs
+ * that have none, so that the permission check done on every operation does not query the
+ * accesses table each time. Hit and miss counts are published as the {@code cache.gets} metric
+ * tagged {@code cache=account-accesses}.
+ */
+@Component
+public class AccountAccessCache implements MeterBinder {
+
+    private final AsyncCache<Key, Optional<AccountAccess>> accesses;
+
+    public AccountAccessCache(
+            @Value("${bank.access.cache.max-size:100000}") long maxSize,
+            @Value("${bank.access.cache.ttl-ms:30000}") long ttlMillis) {
+        this.accesses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ofMillis(ttlMillis))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<AccountAccess> get(
+            AccountId accountId,
+            UserId userId,
+            BiFunction<AccountId, UserId, Optional<AccountAccess>> loader) {
+        return Caches.get(accesses, new Key(accountId, userId), key -> loader.apply(key.accountId(), key.userId()));
+    }
+
+    /**
+     * Evicts the pair now and, when called inside a transaction, once more after it completes, so
+     * that neither a read racing with the change nor a rolled back change leaves a stale entry.
+     */
+    public void invalidate(AccountId accountId, UserId userId) {
+        var key = new Key(accountId, userId);
+        accesses.synchronous().invalidate(key);
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    accesses.synchronous().invalidate(key);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return accesses.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accesses.synchronous(), "account-accesses");
+    }
+
+    private record Key(AccountId accountId, UserId userId) {
+    }
+}
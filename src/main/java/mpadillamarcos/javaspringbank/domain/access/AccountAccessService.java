@@ -17,10 +17,12 @@ import static mpadillamarcos.javaspringbank.domain.access.AccountAccess.newAccou
 public class AccountAccessService {
 
     private final AccountAccessRepository repository;
+    private final AccountAccessCache cache;
     private final Clock clock;
 
     public AccountAccess grantAccess(AccountId accountId, UserId userId, AccessType type) {
-        var existingAccess = repository.findGrantedAccountAccess(accountId, userId);
+        // a user has one access per account, so a revoked one is granted again
+        var existingAccess = repository.findAccountAccess(accountId, userId);
         AccountAccess access;
 
         if (existingAccess.isPresent()) {
@@ -36,6 +38,7 @@ public class AccountAccessService {
 
             repository.insert(access);
         }
+        cache.invalidate(accountId, userId);
         return access;
     }
 
@@ -44,6 +47,7 @@ public class AccountAccessService {
                 .orElseThrow(() -> new NotFoundException("account access not found"));
 
         repository.update(accountAccess.revoke());
+        cache.invalidate(accountId, userId);
     }
 
     public List<AccountAccess> listAllAccountAccesses(UserId userId) {
@@ -51,6 +55,6 @@ public class AccountAccessService {
     }
 
     public Optional<AccountAccess> findAccountAccess(AccountId accountId, UserId userId) {
-        return repository.findGrantedAccountAccess(accountId, userId);
+        return cache.get(accountId, userId, repository::findGrantedAccountAccess);
     }
 }
@@ -6,7 +6,7 @@ import mpadillamarcos.javaspringbank.domain.user.UserId;
 
 import java.time.Instant;
 
-import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.newAccountId;
 import static mpadillamarcos.javaspringbank.domain.account.AccountState.*;
 import static mpadillamarcos.javaspringbank.utils.Checks.require;
 import static mpadillamarcos.javaspringbank.utils.Checks.requireState;
@@ -29,7 +29,7 @@ public class Account {
 
     public static AccountBuilder newAccount() {
         return builder()
-                .id(randomAccountId())
+                .id(newAccountId())
                 .state(OPEN);
     }
 
@@ -0,0 +1,71 @@
+package mpadillamarcos.javaspringbank.domain.account;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mpadillamarcos.javaspringbank.utils.Caches;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.time.Duration.ofMillis;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+/**
+ * Keeps recently read accounts in memory so that the state checks done on every transaction do
+ * not query the accounts table each time. Entries expire after a short time, which bounds how long
+ * a change made by another node can go unnoticed; changes made on this node evict the entry.
+ * Hit and miss counts are published as the {@code cache.gets} metric tagged {@code cache=accounts}.
+ */
+@Component
+public class AccountCache implements MeterBinder {
+
+    private final AsyncCache<AccountId, Account> accounts;
+
+    public AccountCache(
+            @Value("${bank.account.cache.max-size:10000}") long maxSize,
+            @Value("${bank.account.cache.ttl-ms:30000}") long ttlMillis) {
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ofMillis(ttlMillis))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<Account> get(AccountId accountId, Function<AccountId, Optional<Account>> loader) {
+        return Optional.ofNullable(Caches.get(accounts, accountId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Evicts the account now and, when called inside a transaction, once more after it completes,
+     * so that a read racing with the update cannot leave the old state cached after the commit,
+     * and a rolled back update does not leave the new one.
+     */
+    public void invalidate(AccountId accountId) {
+        accounts.synchronous().invalidate(accountId);
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    accounts.synchronous().invalidate(accountId);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return accounts.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accounts.synchronous(), "accounts");
+    }
+}
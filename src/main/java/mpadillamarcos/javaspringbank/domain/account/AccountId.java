@@ -7,6 +7,7 @@ import mpadillamarcos.javaspringbank.domain.Id;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
+import static mpadillamarcos.javaspringbank.utils.Uuids.timeOrderedUuid;
 
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
@@ -16,6 +17,10 @@ public class AccountId extends Id<UUID> {
         super(value);
     }
 
+    public static AccountId newAccountId() {
+        return accountId(timeOrderedUuid());
+    }
+
     public static AccountId randomAccountId() {
         return accountId(randomUUID());
     }
@@ -1,5 +1,7 @@
 package mpadillamarcos.javaspringbank.domain.account;
 
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -13,4 +15,12 @@ public interface AccountRepository {
     Optional<Account> findById(AccountId accountId);
 
     List<Account> getAccounts(Set<AccountId> accountIds);
+
+    /**
+     * Reads every account the user has a granted access to, with that access and the balance of
+     * the account including its slots, in a single query. Oldest account first.
+     */
+    List<AccountView> findAccountViews(UserId userId);
+
+    Optional<AccountView> findAccountView(UserId userId, AccountId accountId);
 }
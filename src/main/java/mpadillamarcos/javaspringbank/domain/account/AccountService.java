@@ -1,6 +1,5 @@
 package mpadillamarcos.javaspringbank.domain.account;
 
-import lombok.RequiredArgsConstructor;
 import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
 import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
 import mpadillamarcos.javaspringbank.domain.balance.Balance;
@@ -8,11 +7,14 @@ import mpadillamarcos.javaspringbank.domain.balance.BalanceService;
 import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
 import mpadillamarcos.javaspringbank.domain.time.Clock;
 import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.utils.FanOut;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Comparator.comparing;
 import static java.util.function.Function.identity;
@@ -21,13 +23,32 @@ import static mpadillamarcos.javaspringbank.domain.access.AccessType.OWNER;
 import static mpadillamarcos.javaspringbank.domain.account.Account.newAccount;
 
 @Service
-@RequiredArgsConstructor
 public class AccountService {
 
     private final BalanceService balanceService;
     private final AccountAccessService accessService;
     private final AccountRepository repository;
+    private final AccountCache cache;
     private final Clock clock;
+    private final boolean parallelReads;
+    private final boolean joinedViews;
+
+    public AccountService(
+            BalanceService balanceService,
+            AccountAccessService accessService,
+            AccountRepository repository,
+            AccountCache cache,
+            Clock clock,
+            @Value("${bank.account.parallel-reads:true}") boolean parallelReads,
+            @Value("${bank.account.joined-views:true}") boolean joinedViews) {
+        this.balanceService = balanceService;
+        this.accessService = accessService;
+        this.repository = repository;
+        this.cache = cache;
+        this.clock = clock;
+        this.parallelReads = parallelReads;
+        this.joinedViews = joinedViews;
+    }
 
     @Transactional
     public AccountView openAccount(UserId userId) {
@@ -45,51 +66,83 @@ public class AccountService {
     }
 
     public List<AccountView> listUserAccounts(UserId userId) {
+        if (readsJoinedViews()) {
+            return repository.findAccountViews(userId);
+        }
+
         var accesses = accessService.listAllAccountAccesses(userId).stream()
                 .collect(toMap(AccountAccess::getAccountId, identity()));
         var accountIds = accesses.keySet();
-        var balances = balanceService.getBalances(accountIds).stream()
-                .collect(toMap(Balance::getAccountId, identity()));
-        var accounts = repository.getAccounts(accountIds);
-
-        return accounts.stream()
-                .map(account -> new AccountView(account, accesses.get(account.getId()), balances.get(account.getId())))
-                .sorted(comparing(AccountView::getCreatedDate))
-                .toList();
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+
+        try (var scope = FanOut.open(parallelReads)) {
+            var balances = scope.fork(() -> balanceService.getBalances(accountIds));
+            var accounts = scope.fork(() -> repository.getAccounts(accountIds));
+            scope.join();
+
+            var balancesById = balances.get().stream()
+                    .collect(toMap(Balance::getAccountId, identity()));
+            return accounts.get().stream()
+                    .map(account -> new AccountView(account, accesses.get(account.getId()), balancesById.get(account.getId())))
+                    .sorted(comparing(AccountView::getCreatedDate))
+                    .toList();
+        }
     }
 
     public Optional<AccountView> findAccountView(UserId userId, AccountId accountId) {
-        var access = accessService.findAccountAccess(accountId, userId).orElseThrow(this::accountNotFound);
-        var account = repository.findById(accountId).orElseThrow(this::accountNotFound);
-        var balance = balanceService.getBalance(accountId);
-
-        return Optional.of(new AccountView(account, access, balance));
+        if (readsJoinedViews()) {
+            return Optional.of(repository.findAccountView(userId, accountId).orElseThrow(this::accountNotFound));
+        }
+
+        try (var scope = FanOut.open(parallelReads)) {
+            var access = scope.fork(() -> accessService.findAccountAccess(accountId, userId).orElseThrow(this::accountNotFound));
+            var account = scope.fork(() -> repository.findById(accountId).orElseThrow(this::accountNotFound));
+            var balance = scope.fork(() -> balanceService.getBalance(accountId));
+            scope.join();
+
+            return Optional.of(new AccountView(account.get(), access.get(), balance.get()));
+        }
     }
 
     public Account getById(AccountId accountId) {
-        return repository.findById(accountId)
+        return cache.get(accountId, repository::findById)
                 .orElseThrow(this::accountNotFound);
     }
 
+    public List<Account> getAccounts(Set<AccountId> accountIds) {
+        return repository.getAccounts(accountIds);
+    }
+
     @Transactional
     public void blockAccount(AccountId accountId) {
-        var account = getById(accountId);
+        var account = repository.findById(accountId).orElseThrow(this::accountNotFound);
 
-        repository.update(account.block());
+        update(account.block());
     }
 
     @Transactional
     public void unblockAccount(AccountId accountId) {
-        var account = getById(accountId);
+        var account = repository.findById(accountId).orElseThrow(this::accountNotFound);
 
-        repository.update(account.unblock());
+        update(account.unblock());
     }
 
     @Transactional
     public void closeAccount(AccountId accountId) {
-        var account = getById(accountId);
+        var account = repository.findById(accountId).orElseThrow(this::accountNotFound);
+
+        update(account.close());
+    }
+
+    private boolean readsJoinedViews() {
+        return joinedViews && balanceService.readsFromRepository();
+    }
 
-        repository.update(account.close());
+    private void update(Account account) {
+        repository.update(account);
+        cache.invalidate(account.getId());
     }
 
     private NotFoundException accountNotFound() {
@@ -0,0 +1,68 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.RequiredArgsConstructor;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Debits and credits balances with a single conditional statement each, so the balance is never
+ * read before it is written. The balance is only read when a statement is refused, to tell a
+ * missing balance apart from one in another currency or an insufficient one.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.balance.ledger", havingValue = "atomic", matchIfMissing = true)
+public class AtomicBalanceLedger implements BalanceLedger {
+
+    private final BalanceRepository repository;
+
+    @Override
+    public Optional<Balance> findBalance(AccountId accountId) {
+        return repository.findBalance(accountId);
+    }
+
+    @Override
+    public List<Balance> findBalances(Set<AccountId> accountIds) {
+        return repository.findBalances(accountIds);
+    }
+
+    @Override
+    public void withdraw(AccountId accountId, Money amount) {
+        if (!repository.debit(accountId, amount)) {
+            var balance = getBalanceIn(accountId, amount);
+            throw new InsufficientBalanceException(
+                    "The amount to withdraw (" + amount.getAmount() + ") exceeds the current balance " + balance.getAmount()
+            );
+        }
+    }
+
+    @Override
+    public void deposit(AccountId accountId, Money amount) {
+        if (!repository.credit(accountId, amount)) {
+            getBalanceIn(accountId, amount);
+            throw new IllegalStateException("balance was not credited");
+        }
+    }
+
+    @Override
+    public boolean persistsImmediately() {
+        return true;
+    }
+
+    private Balance getBalanceIn(AccountId accountId, Money amount) {
+        var balance = repository.findBalance(accountId)
+                .orElseThrow(() -> new NotFoundException("balance not found"));
+        if (balance.getAmount().getCurrency() != amount.getCurrency()) {
+            throw new IllegalArgumentException("The currencies are different");
+        }
+        return balance;
+    }
+}
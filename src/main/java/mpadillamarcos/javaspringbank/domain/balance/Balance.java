@@ -16,10 +16,12 @@ public class Balance {
 
     AccountId accountId;
     Money amount;
+    long version;
 
-    public Balance(AccountId accountId, Money amount) {
+    public Balance(AccountId accountId, Money amount, long version) {
         this.accountId = require("accountId", accountId);
         this.amount = require("amount", amount);
+        this.version = version;
     }
 
     public static BalanceBuilder newBalance() {
@@ -34,15 +36,11 @@ public class Balance {
             );
         }
 
-        return toBuilder()
-                .amount(this.amount.subtract(amount))
-                .build();
+        return new Balance(accountId, this.amount.subtract(amount), version + 1);
     }
 
     public Balance deposit(Money amount) {
-        return toBuilder()
-                .amount(this.amount.add(amount))
-                .build();
+        return new Balance(accountId, this.amount.add(amount), version + 1);
     }
 
 }
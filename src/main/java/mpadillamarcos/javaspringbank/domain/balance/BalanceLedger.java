@@ -0,0 +1,25 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface BalanceLedger {
+
+    Optional<Balance> findBalance(AccountId accountId);
+
+    List<Balance> findBalances(Set<AccountId> accountIds);
+
+    void withdraw(AccountId accountId, Money amount);
+
+    void deposit(AccountId accountId, Money amount);
+
+    /**
+     * Whether every movement is written to the balances table within the transaction that applies
+     * it, so that the table can be read and written directly instead of through this ledger.
+     */
+    boolean persistsImmediately();
+}
@@ -1,6 +1,7 @@
 package mpadillamarcos.javaspringbank.domain.balance;
 
 import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.money.Money;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,5 +17,11 @@ public interface BalanceRepository {
 
     void update(Balance updatedBalance);
 
+    boolean compareAndSet(long expectedVersion, Balance updatedBalance);
+
+    boolean debit(AccountId accountId, Money amount);
+
+    boolean credit(AccountId accountId, Money amount);
+
     Optional<Balance> findBalanceForUpdate(AccountId accountId);
 }
@@ -16,6 +16,9 @@ import static mpadillamarcos.javaspringbank.domain.balance.Balance.newBalance;
 public class BalanceService {
 
     private final BalanceRepository repository;
+    private final BalanceLedger ledger;
+    private final HotAccountBalances hotAccounts;
+    private final CreditCoalescer creditCoalescer;
 
     public Balance createBalance(AccountId accountId) {
         var balance = newBalance().accountId(accountId).build();
@@ -24,29 +27,39 @@ public class BalanceService {
     }
 
     public Balance getBalance(AccountId accountId) {
-        return repository.findBalance(accountId)
+        return ledger.findBalance(accountId)
+                .map(hotAccounts::withSlots)
                 .orElseThrow(() -> new NotFoundException("balance not found"));
     }
 
     public List<Balance> getBalances(Set<AccountId> accountIds) {
-        return repository.findBalances(accountIds);
+        return hotAccounts.withSlots(ledger.findBalances(accountIds));
     }
 
-    public void withdraw(AccountId accountId, Money amount) {
-        var currentBalance = getBalanceForUpdate(accountId);
-        var updatedBalance = currentBalance.withdraw(amount);
-        repository.update(updatedBalance);
+    /**
+     * Whether the balances table is up to date with every applied movement, so that it can be
+     * read directly.
+     */
+    public boolean readsFromRepository() {
+        return ledger.persistsImmediately();
     }
 
-    public void deposit(AccountId accountId, Money amount) {
-        var currentBalance = getBalanceForUpdate(accountId);
-        var updatedBalance = currentBalance.deposit(amount);
-        repository.update(updatedBalance);
+    public void withdraw(AccountId accountId, Money amount) {
+        if (hotAccounts.isHot(accountId)) {
+            hotAccounts.withdraw(accountId, amount);
+        } else {
+            ledger.withdraw(accountId, amount);
+        }
     }
 
-    private Balance getBalanceForUpdate(AccountId accountId) {
-        return repository.findBalanceForUpdate(accountId)
-                .orElseThrow(() -> new NotFoundException("balance not found"));
+    public void deposit(AccountId accountId, Money amount) {
+        if (creditCoalescer.coalesces(accountId)) {
+            creditCoalescer.deposit(accountId, amount);
+        } else if (hotAccounts.isHot(accountId)) {
+            hotAccounts.deposit(accountId, amount);
+        } else {
+            ledger.deposit(accountId, amount);
+        }
     }
 
 }
@@ -0,0 +1,30 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.Builder;
+import lombok.Value;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+
+import static mpadillamarcos.javaspringbank.utils.Checks.require;
+
+/**
+ * Part of the balance of a hot account, kept in its own row so that credits to the account do
+ * not all queue on the same one. Slot 0 is the account's {@link Balance} itself.
+ */
+@Builder(toBuilder = true)
+@Value
+public class BalanceSlot {
+
+    AccountId accountId;
+    int slot;
+    Money amount;
+
+    public BalanceSlot(AccountId accountId, int slot, Money amount) {
+        if (slot < 1) {
+            throw new IllegalArgumentException("slot must be positive");
+        }
+        this.accountId = require("accountId", accountId);
+        this.slot = slot;
+        this.amount = require("amount", amount);
+    }
+}
@@ -0,0 +1,20 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+
+import java.util.List;
+import java.util.Set;
+
+public interface BalanceSlotRepository {
+
+    void insertIfAbsent(BalanceSlot slot);
+
+    List<BalanceSlot> findSlots(Set<AccountId> accountIds);
+
+    List<AccountId> findAccountIdsWithFundedSlots();
+
+    boolean debit(AccountId accountId, int slot, Money amount);
+
+    boolean credit(AccountId accountId, int slot, Money amount);
+}
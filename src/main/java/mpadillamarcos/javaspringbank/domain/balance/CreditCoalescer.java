@@ -0,0 +1,113 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Batches the credits to hot accounts, enabled with {@code bank.balance.coalesce-credits.enabled}.
+ * A credit is checked against its account's balance when it is made, so that a missing balance or
+ * another currency fails the caller rather than the flush, and is then stored as a
+ * {@link PendingCredit} in the caller's transaction. Pending credits are only inserted, so
+ * concurrent credits to the same account do not wait on each other, and they commit or roll back
+ * with the transaction behind them. A background thread takes the pending credits of each account
+ * each flush interval and applies their sum as a single credit in the same transaction, so a
+ * credit is either pending or in the balance, also across a crash. Balances lag the committed
+ * credits by up to one flush.
+ * <p>
+ * Credits left pending by a previous run are applied on startup, also when coalescing has been
+ * disabled since.
+ */
+@Slf4j
+@Component
+public class CreditCoalescer implements ApplicationRunner, DisposableBean {
+
+    private final PendingCreditRepository repository;
+    private final BalanceLedger ledger;
+    private final HotAccountBalances hotAccounts;
+    private final TransactionOperations transactionOperations;
+    private final ScheduledExecutorService flusher;
+
+    public CreditCoalescer(
+            PendingCreditRepository repository,
+            BalanceLedger ledger,
+            HotAccountBalances hotAccounts,
+            TransactionOperations transactionOperations,
+            @Value("${bank.balance.coalesce-credits.enabled:false}") boolean enabled,
+            @Value("${bank.balance.coalesce-credits.flush-interval-ms:5}") long flushIntervalMillis) {
+        this.repository = repository;
+        this.ledger = ledger;
+        this.hotAccounts = hotAccounts;
+        this.transactionOperations = transactionOperations;
+        this.flusher = enabled
+                ? newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "credit-coalescer"))
+                : null;
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Whether the credits to the account are coalesced, which only pays off for the hot accounts.
+     */
+    public boolean coalesces(AccountId accountId) {
+        return flusher != null && hotAccounts.isHot(accountId);
+    }
+
+    public void deposit(AccountId accountId, Money amount) {
+        var balance = ledger.findBalance(accountId)
+                .orElseThrow(() -> new NotFoundException("balance not found"));
+        if (balance.getAmount().getCurrency() != amount.getCurrency()) {
+            throw new IllegalArgumentException("The currencies are different");
+        }
+
+        repository.insert(new PendingCredit(accountId, amount));
+    }
+
+    public void flush() {
+        repository.findAccountIdsWithPendingCredits().forEach(this::apply);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        flush();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(10, SECONDS);
+        }
+        flush();
+    }
+
+    private void apply(AccountId accountId) {
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                for (var credit : repository.takePendingCredits(accountId)) {
+                    if (hotAccounts.isHot(accountId)) {
+                        hotAccounts.deposit(accountId, credit.getAmount());
+                    } else {
+                        ledger.deposit(accountId, credit.getAmount());
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not apply the pending credits of account {}, retrying on next flush", accountId.value(), e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Arrays.stream;
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toSet;
+import static mpadillamarcos.javaspringbank.domain.money.Money.zero;
+
+/**
+ * Spreads the balance of the accounts listed in {@code bank.balance.hot-accounts} over several
+ * rows, so that concurrent credits do not all queue on the same one. Slot 0 is the account's
+ * balance, handled by the {@link BalanceLedger}, and the other slots are {@link BalanceSlot}s
+ * created on the first credit that lands on them. Credits go to a random slot. Debits are taken
+ * from the first slot that covers them, or split across the slots when none does.
+ * <p>
+ * Accounts that are no longer listed have their slots moved back into their balance on startup.
+ */
+@Slf4j
+@Component
+public class HotAccountBalances implements ApplicationRunner {
+
+    private final BalanceSlotRepository repository;
+    private final BalanceLedger ledger;
+    private final TransactionOperations transactionOperations;
+    private final Set<AccountId> hotAccounts;
+    private final int slots;
+
+    public HotAccountBalances(
+            BalanceSlotRepository repository,
+            BalanceLedger ledger,
+            TransactionOperations transactionOperations,
+            @Value("${bank.balance.hot-accounts:}") String[] hotAccounts,
+            @Value("${bank.balance.hot-account-slots:8}") int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("hot accounts need at least one slot");
+        }
+        this.repository = repository;
+        this.ledger = ledger;
+        this.transactionOperations = transactionOperations;
+        this.hotAccounts = stream(hotAccounts)
+                .map(id -> new AccountId(UUID.fromString(id.trim())))
+                .collect(toSet());
+        this.slots = slots;
+    }
+
+    public boolean isHot(AccountId accountId) {
+        return hotAccounts.contains(accountId);
+    }
+
+    public Balance withSlots(Balance balance) {
+        if (!isHot(balance.getAccountId())) {
+            return balance;
+        }
+        return withSlots(balance, repository.findSlots(Set.of(balance.getAccountId())));
+    }
+
+    public List<Balance> withSlots(List<Balance> balances) {
+        var hot = balances.stream()
+                .map(Balance::getAccountId)
+                .filter(this::isHot)
+                .collect(toSet());
+        if (hot.isEmpty()) {
+            return balances;
+        }
+
+        var slotsByAccount = repository.findSlots(hot).stream()
+                .collect(groupingBy(BalanceSlot::getAccountId));
+        return balances.stream()
+                .map(balance -> withSlots(balance, slotsByAccount.getOrDefault(balance.getAccountId(), List.of())))
+                .toList();
+    }
+
+    public void deposit(AccountId accountId, Money amount) {
+        var slot = ThreadLocalRandom.current().nextInt(slots);
+        if (slot == 0) {
+            ledger.deposit(accountId, amount);
+            return;
+        }
+        if (!repository.credit(accountId, slot, amount)) {
+            createSlots(accountId, amount);
+            if (!repository.credit(accountId, slot, amount)) {
+                throw new IllegalStateException("balance slot " + slot + " of account " + accountId.value() + " was not credited");
+            }
+        }
+    }
+
+    public void withdraw(AccountId accountId, Money amount) {
+        if (tryWithdrawFromBalance(accountId, amount)) {
+            return;
+        }
+
+        var funded = repository.findSlots(Set.of(accountId)).stream()
+                .filter(slot -> slot.getAmount().signum() > 0)
+                .sorted(comparingLong((BalanceSlot slot) -> slot.getAmount().minorUnits()).reversed())
+                .toList();
+        for (var slot : funded) {
+            if (!slot.getAmount().isLessThan(amount) && repository.debit(accountId, slot.getSlot(), amount)) {
+                return;
+            }
+        }
+
+        var taken = new ArrayList<BalanceSlot>();
+        var remaining = amount;
+        for (var slot : funded) {
+            var part = slot.getAmount().isLessThan(remaining) ? slot.getAmount() : remaining;
+            if (repository.debit(accountId, slot.getSlot(), part)) {
+                taken.add(slot.toBuilder().amount(part).build());
+                remaining = remaining.subtract(part);
+            }
+            if (remaining.signum() == 0) {
+                return;
+            }
+        }
+        if (tryWithdrawFromBalance(accountId, remaining)) {
+            return;
+        }
+
+        // the surrounding transaction may not roll back, so the partial debits are given back here
+        taken.forEach(slot -> repository.credit(accountId, slot.getSlot(), slot.getAmount()));
+        throw new InsufficientBalanceException(
+                "The amount to withdraw (" + amount.getAmount() + ") exceeds the current balance " + getBalance(accountId).getAmount()
+        );
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (var accountId : repository.findAccountIdsWithFundedSlots()) {
+            if (isHot(accountId)) {
+                continue;
+            }
+            try {
+                transactionOperations.executeWithoutResult(status -> consolidate(accountId));
+            } catch (RuntimeException e) {
+                log.warn("Could not move the balance slots of account {} back into its balance", accountId.value(), e);
+            }
+        }
+    }
+
+    void consolidate(AccountId accountId) {
+        var moved = 0;
+        for (var slot : repository.findSlots(Set.of(accountId))) {
+            if (slot.getAmount().signum() > 0 && repository.debit(accountId, slot.getSlot(), slot.getAmount())) {
+                ledger.deposit(accountId, slot.getAmount());
+                moved++;
+            }
+        }
+        log.info("Moved {} balance slots of account {} back into its balance", moved, accountId.value());
+    }
+
+    private boolean tryWithdrawFromBalance(AccountId accountId, Money amount) {
+        try {
+            ledger.withdraw(accountId, amount);
+            return true;
+        } catch (InsufficientBalanceException e) {
+            return false;
+        }
+    }
+
+    private void createSlots(AccountId accountId, Money amount) {
+        var currency = getBalance(accountId).getAmount().getCurrency();
+        if (currency != amount.getCurrency()) {
+            throw new IllegalArgumentException("The currencies are different");
+        }
+        for (int slot = 1; slot < slots; slot++) {
+            repository.insertIfAbsent(new BalanceSlot(accountId, slot, zero(currency)));
+        }
+    }
+
+    private Balance getBalance(AccountId accountId) {
+        return ledger.findBalance(accountId)
+                .map(this::withSlots)
+                .orElseThrow(() -> new NotFoundException("balance not found"));
+    }
+
+    private static Balance withSlots(Balance balance, List<BalanceSlot> slots) {
+        var amount = balance.getAmount();
+        for (var slot : slots) {
+            amount = amount.add(slot.getAmount());
+        }
+        return balance.toBuilder().amount(amount).build();
+    }
+}
@@ -0,0 +1,54 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.RequiredArgsConstructor;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.balance.ledger", havingValue = "locking")
+public class LockingBalanceLedger implements BalanceLedger {
+
+    private final BalanceRepository repository;
+
+    @Override
+    public Optional<Balance> findBalance(AccountId accountId) {
+        return repository.findBalance(accountId);
+    }
+
+    @Override
+    public List<Balance> findBalances(Set<AccountId> accountIds) {
+        return repository.findBalances(accountIds);
+    }
+
+    @Override
+    public void withdraw(AccountId accountId, Money amount) {
+        var currentBalance = getBalanceForUpdate(accountId);
+        var updatedBalance = currentBalance.withdraw(amount);
+        repository.update(updatedBalance);
+    }
+
+    @Override
+    public void deposit(AccountId accountId, Money amount) {
+        var currentBalance = getBalanceForUpdate(accountId);
+        var updatedBalance = currentBalance.deposit(amount);
+        repository.update(updatedBalance);
+    }
+
+    @Override
+    public boolean persistsImmediately() {
+        return true;
+    }
+
+    private Balance getBalanceForUpdate(AccountId accountId) {
+        return repository.findBalanceForUpdate(accountId)
+                .orElseThrow(() -> new NotFoundException("balance not found"));
+    }
+}
@@ -0,0 +1,91 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+import static java.lang.Math.min;
+
+/**
+ * Reads balances without locking them and writes them back only if their version has not changed
+ * in the meantime, retrying with a random backoff otherwise. The row is only locked from the write
+ * until the end of the transaction, instead of from the read.
+ */
+@Component
+@ConditionalOnProperty(name = "bank.balance.ledger", havingValue = "optimistic")
+public class OptimisticBalanceLedger implements BalanceLedger {
+
+    private final BalanceRepository repository;
+    private final int maxAttempts;
+    private final long maxBackoffMillis;
+
+    public OptimisticBalanceLedger(
+            BalanceRepository repository,
+            @Value("${bank.balance.optimistic.max-attempts:10}") int maxAttempts,
+            @Value("${bank.balance.optimistic.max-backoff-ms:5}") long maxBackoffMillis) {
+        this.repository = repository;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public Optional<Balance> findBalance(AccountId accountId) {
+        return repository.findBalance(accountId);
+    }
+
+    @Override
+    public List<Balance> findBalances(Set<AccountId> accountIds) {
+        return repository.findBalances(accountIds);
+    }
+
+    @Override
+    public void withdraw(AccountId accountId, Money amount) {
+        update(accountId, balance -> balance.withdraw(amount));
+    }
+
+    @Override
+    public void deposit(AccountId accountId, Money amount) {
+        update(accountId, balance -> balance.deposit(amount));
+    }
+
+    @Override
+    public boolean persistsImmediately() {
+        return true;
+    }
+
+    private void update(AccountId accountId, UnaryOperator<Balance> operation) {
+        for (int attempt = 1; ; attempt++) {
+            var currentBalance = repository.findBalance(accountId)
+                    .orElseThrow(() -> new NotFoundException("balance not found"));
+
+            if (repository.compareAndSet(currentBalance.getVersion(), operation.apply(currentBalance))) {
+                return;
+            }
+            if (attempt == maxAttempts) {
+                throw new OptimisticLockingFailureException(
+                        "The balance of account " + accountId.value() + " was modified concurrently " + attempt + " times"
+                );
+            }
+            backOff(attempt);
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(min(attempt, maxBackoffMillis) + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted while retrying a balance update", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.Builder;
+import lombok.Value;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+
+import static mpadillamarcos.javaspringbank.utils.Checks.require;
+
+/**
+ * A credit committed with its transaction but not yet applied to the balance of its account,
+ * see {@link CreditCoalescer}.
+ */
+@Builder
+@Value
+public class PendingCredit {
+
+    AccountId accountId;
+    Money amount;
+
+    public PendingCredit(AccountId accountId, Money amount) {
+        this.accountId = require("accountId", accountId);
+        this.amount = require("amount", amount);
+    }
+}
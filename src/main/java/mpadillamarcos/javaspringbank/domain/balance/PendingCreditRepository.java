@@ -0,0 +1,17 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+
+import java.util.List;
+
+public interface PendingCreditRepository {
+
+    void insert(PendingCredit credit);
+
+    List<AccountId> findAccountIdsWithPendingCredits();
+
+    /**
+     * Removes the pending credits of the account and returns their sum, one per currency.
+     */
+    List<PendingCredit> takePendingCredits(AccountId accountId);
+}
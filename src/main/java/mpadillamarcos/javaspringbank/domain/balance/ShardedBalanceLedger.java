@@ -0,0 +1,216 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.UnaryOperator;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.IntStream.range;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+/**
+ * Routes every account to one single-threaded shard that owns its balance in memory and writes
+ * the changes back to the repository in batches. Withdrawals are applied immediately and undone
+ * if the surrounding transaction rolls back; deposits are applied once it commits, so a balance
+ * never goes negative because of a credit that did not happen. Assumes this node is the only
+ * writer of the balances table.
+ * <p>
+ * Balances are written behind their transactions: a change is committed together with its
+ * transaction rows but reaches the balances table only on the next flush, every
+ * {@code bank.balance.flush-interval-ms}, or later if that write fails and is retried. A crash
+ * loses every change committed since the last successful flush, so the ledger refuses to start
+ * unless {@code bank.balance.write-behind} is set to accept that.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.balance.ledger", havingValue = "sharded")
+public class ShardedBalanceLedger implements BalanceLedger, DisposableBean {
+
+    private final BalanceRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final List<Shard> shards;
+
+    public ShardedBalanceLedger(
+            BalanceRepository repository,
+            TransactionOperations transactionOperations,
+            @Value("${bank.balance.shards:8}") int shards,
+            @Value("${bank.balance.flush-interval-ms:10}") long flushIntervalMillis,
+            @Value("${bank.balance.write-behind:false}") boolean writeBehind) {
+        if (!writeBehind) {
+            throw new IllegalStateException("The sharded ledger loses balance changes not yet flushed on a crash, "
+                    + "set bank.balance.write-behind=true to accept it");
+        }
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.shards = range(0, shards)
+                .mapToObj(index -> new Shard(index, flushIntervalMillis))
+                .toList();
+    }
+
+    @Override
+    public Optional<Balance> findBalance(AccountId accountId) {
+        var balance = shardOf(accountId).balances.get(accountId);
+        if (balance != null) {
+            return Optional.of(balance);
+        }
+        return repository.findBalance(accountId);
+    }
+
+    @Override
+    public List<Balance> findBalances(Set<AccountId> accountIds) {
+        return repository.findBalances(accountIds).stream()
+                .map(balance -> shardOf(balance.getAccountId()).balances.getOrDefault(balance.getAccountId(), balance))
+                .toList();
+    }
+
+    @Override
+    public void withdraw(AccountId accountId, Money amount) {
+        var shard = shardOf(accountId);
+        shard.apply(accountId, balance -> balance.withdraw(amount));
+
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        shard.apply(accountId, balance -> balance.deposit(amount));
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void deposit(AccountId accountId, Money amount) {
+        var shard = shardOf(accountId);
+        if (!isSynchronizationActive()) {
+            shard.apply(accountId, balance -> balance.deposit(amount));
+            return;
+        }
+
+        registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shard.apply(accountId, balance -> balance.deposit(amount));
+            }
+        });
+    }
+
+    @Override
+    public boolean persistsImmediately() {
+        return false;
+    }
+
+    public void flush() {
+        shards.forEach(Shard::flush);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        flush();
+        for (var shard : shards) {
+            shard.executor.shutdown();
+            shard.writer.shutdown();
+            shard.executor.awaitTermination(10, SECONDS);
+            shard.writer.awaitTermination(10, SECONDS);
+        }
+    }
+
+    private Shard shardOf(AccountId accountId) {
+        return shards.get(Math.floorMod(accountId.hashCode(), shards.size()));
+    }
+
+    private class Shard {
+
+        private final ScheduledExecutorService executor;
+        private final ExecutorService writer;
+        private final Map<AccountId, Balance> balances = new ConcurrentHashMap<>();
+        private Map<AccountId, Balance> dirty = new HashMap<>();
+
+        private Shard(int index, long flushIntervalMillis) {
+            this.executor = newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "balance-shard-" + index));
+            this.writer = newSingleThreadExecutor(runnable -> new Thread(runnable, "balance-writer-" + index));
+            this.executor.scheduleWithFixedDelay(() -> {
+                var batch = drain();
+                if (!batch.isEmpty()) {
+                    writer.execute(() -> write(batch));
+                }
+            }, flushIntervalMillis, flushIntervalMillis, MILLISECONDS);
+        }
+
+        private void apply(AccountId accountId, UnaryOperator<Balance> operation) {
+            var storedBalance = fetch(accountId);
+            call(() -> {
+                var updatedBalance = operation.apply(balances.computeIfAbsent(accountId, id -> storedBalance));
+                balances.put(accountId, updatedBalance);
+                dirty.put(accountId, updatedBalance);
+                return updatedBalance;
+            });
+        }
+
+        private void flush() {
+            var batch = call(this::drain);
+            await(writer.submit(() -> write(batch)));
+        }
+
+        private <T> T call(Callable<T> task) {
+            return await(executor.submit(task));
+        }
+
+        private <T> T await(Future<T> future) {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Balance fetch(AccountId accountId) {
+            var balance = balances.get(accountId);
+            if (balance != null) {
+                return balance;
+            }
+            return repository.findBalance(accountId)
+                    .orElseThrow(() -> new NotFoundException("balance not found"));
+        }
+
+        private Map<AccountId, Balance> drain() {
+            var batch = dirty;
+            dirty = new HashMap<>();
+            return batch;
+        }
+
+        private void write(Map<AccountId, Balance> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionOperations.executeWithoutResult(status -> batch.values().forEach(repository::update));
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} balances, retrying on next flush", batch.size(), e);
+                executor.execute(() -> batch.keySet().forEach(accountId -> dirty.put(accountId, balances.get(accountId))));
+            }
+        }
+    }
+}
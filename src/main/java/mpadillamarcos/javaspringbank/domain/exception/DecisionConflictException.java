@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.domain.exception;
+
+public class DecisionConflictException extends RuntimeException {
+
+    public DecisionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.domain.exception;
+
+public class DecisionQueueFullException extends RuntimeException {
+
+    public DecisionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.domain.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
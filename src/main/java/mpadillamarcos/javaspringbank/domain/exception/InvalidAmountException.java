@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.domain.exception;
+
+public class InvalidAmountException extends RuntimeException {
+
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+}
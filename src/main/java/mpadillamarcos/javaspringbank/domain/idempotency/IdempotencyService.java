@@ -0,0 +1,133 @@
+package mpadillamarcos.javaspringbank.domain.idempotency;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.IdempotencyKeyConflictException;
+import mpadillamarcos.javaspringbank.domain.time.Clock;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionId;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionType;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Runs each operation at most once per user and idempotency key. The result of every operation is
+ * stored in the same transaction as the operation itself, and the most recent ones are also kept in
+ * memory so that a replay of a recent request does not hit the database at all. A key is stored with
+ * a fingerprint of the request body, and reusing it for a request with another body is a conflict
+ * rather than a replay.
+ */
+@Service
+public class IdempotencyService {
+
+    private final IdempotentRequestRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final Clock clock;
+    private final Map<CacheKey, IdempotentRequest> recentRequests;
+
+    public IdempotencyService(
+            IdempotentRequestRepository repository,
+            TransactionOperations transactionOperations,
+            Clock clock,
+            @Value("${bank.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+        this.recentRequests = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, IdempotentRequest> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public TransactionId execute(
+            String key,
+            UserId userId,
+            AccountId accountId,
+            TransactionType type,
+            String fingerprint,
+            Supplier<TransactionId> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+
+        var cacheKey = new CacheKey(userId, key);
+        var request = recentRequests.get(cacheKey);
+        if (request == null) {
+            request = repository.findRequest(userId, key)
+                    .orElseGet(() -> executeOnce(userId, key, accountId, type, fingerprint, operation));
+            recentRequests.put(cacheKey, request);
+        }
+
+        if (!request.isFor(accountId, type, fingerprint)) {
+            throw new IdempotencyKeyConflictException("Idempotency key " + key + " was already used for another request");
+        }
+        return request.getTransactionId();
+    }
+
+    private IdempotentRequest executeOnce(
+            UserId userId,
+            String key,
+            AccountId accountId,
+            TransactionType type,
+            String fingerprint,
+            Supplier<TransactionId> operation) {
+        try {
+            return transactionOperations.execute(status -> {
+                var request = IdempotentRequest.builder()
+                        .userId(userId)
+                        .key(key)
+                        .accountId(accountId)
+                        .type(type)
+                        .transactionId(operation.get())
+                        .createdDate(clock.now())
+                        .fingerprint(fingerprint)
+                        .build();
+
+                if (!repository.insert(request)) {
+                    throw new AlreadyExecutedException();
+                }
+                return request;
+            });
+        } catch (AlreadyExecutedException e) {
+            // a concurrent request with the same key committed first, so ours has been rolled back
+            return repository.findRequest(userId, key)
+                    .orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    /**
+     * Hashes the fields of a request body, each prefixed with its length so that no two
+     * different bodies join into the same text.
+     */
+    public static String fingerprint(Object... fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (var field : fields) {
+            var text = field == null ? "-" : field.toString().length() + ":" + field;
+            digest.update(text.getBytes(UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record CacheKey(UserId userId, String key) {
+    }
+
+    private static class AlreadyExecutedException extends RuntimeException {
+    }
+}
@@ -0,0 +1,52 @@
+package mpadillamarcos.javaspringbank.domain.idempotency;
+
+import lombok.Builder;
+import lombok.Value;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionId;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionType;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+
+import java.time.Instant;
+
+import static mpadillamarcos.javaspringbank.utils.Checks.require;
+
+@Builder(toBuilder = true)
+@Value
+public class IdempotentRequest {
+
+    UserId userId;
+    String key;
+    AccountId accountId;
+    TransactionType type;
+    TransactionId transactionId;
+    Instant createdDate;
+    /**
+     * Hash of the request body, missing on requests stored before it was recorded.
+     */
+    String fingerprint;
+
+    public IdempotentRequest(
+            UserId userId,
+            String key,
+            AccountId accountId,
+            TransactionType type,
+            TransactionId transactionId,
+            Instant createdDate,
+            String fingerprint
+    ) {
+        this.userId = require("userId", userId);
+        this.key = require("key", key);
+        this.accountId = require("accountId", accountId);
+        this.type = require("type", type);
+        this.transactionId = require("transactionId", transactionId);
+        this.createdDate = require("createdDate", createdDate);
+        this.fingerprint = fingerprint;
+    }
+
+    public boolean isFor(AccountId accountId, TransactionType type, String fingerprint) {
+        return this.accountId.equals(accountId)
+                && this.type == type
+                && (this.fingerprint == null || this.fingerprint.equals(fingerprint));
+    }
+}
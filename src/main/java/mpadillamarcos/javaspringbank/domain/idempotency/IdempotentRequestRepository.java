@@ -0,0 +1,12 @@
+package mpadillamarcos.javaspringbank.domain.idempotency;
+
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+
+import java.util.Optional;
+
+public interface IdempotentRequestRepository {
+
+    boolean insert(IdempotentRequest request);
+
+    Optional<IdempotentRequest> findRequest(UserId userId, String key);
+}
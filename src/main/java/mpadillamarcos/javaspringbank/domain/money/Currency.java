@@ -1,15 +1,24 @@
 package mpadillamarcos.javaspringbank.domain.money;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 @Getter
-@RequiredArgsConstructor
 public enum Currency {
 
-    EUR("€"), JPY("¥");
+    EUR("€", 2), JPY("¥", 0);
 
     private final String symbol;
+    /**
+     * Number of decimals of the currency's minor unit: cents for EUR, none for JPY.
+     */
+    private final int scale;
+    private final long minorUnitsPerUnit;
+
+    Currency(String symbol, int scale) {
+        this.symbol = symbol;
+        this.scale = scale;
+        this.minorUnitsPerUnit = (long) Math.pow(10, scale);
+    }
 
     public String iso3() {
         return name();
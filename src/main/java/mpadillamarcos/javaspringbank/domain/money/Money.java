@@ -1,71 +1,131 @@
 package mpadillamarcos.javaspringbank.domain.money;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.Value;
+import mpadillamarcos.javaspringbank.domain.exception.InvalidAmountException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.text.DecimalFormat;
 
-import static java.math.BigDecimal.ZERO;
+import static java.math.RoundingMode.HALF_UP;
+import static java.math.RoundingMode.UNNECESSARY;
+import static lombok.AccessLevel.NONE;
 import static mpadillamarcos.javaspringbank.domain.money.Currency.EUR;
 import static mpadillamarcos.javaspringbank.utils.Checks.require;
 
+/**
+ * An amount held as a whole number of the currency's minor units, so that arithmetic is checked
+ * {@code long} arithmetic and allocates nothing but the result. Amounts enter and leave as
+ * {@link BigDecimal}s at the API and database boundaries, and an amount with more decimals than
+ * the currency has, or too large to count in minor units, is refused rather than rounded.
+ * Overflowing arithmetic on amounts already held still throws {@link ArithmeticException}.
+ */
 @Value
-@Builder(toBuilder = true)
 public class Money {
 
-    BigDecimal amount;
+    @Getter(NONE)
+    long minorUnits;
     Currency currency;
 
+    @Builder
+    @JsonCreator
     public Money(BigDecimal amount, Currency currency) {
-        this.amount = require("amount", amount);
+        require("amount", amount);
         this.currency = require("currency", currency);
+        this.minorUnits = toMinorUnits(amount, currency);
     }
 
+    /**
+     * Also used by the MyBatis result maps, which read the amount in minor units.
+     */
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    /**
+     * Rounds half up to cents, since a {@code double} rarely holds a decimal amount exactly.
+     */
     public static Money eur(double amount) {
-        return new Money(BigDecimal.valueOf(amount), EUR);
+        return new Money(BigDecimal.valueOf(amount).setScale(EUR.getScale(), HALF_UP), EUR);
     }
 
     public static Money zero(Currency currency) {
-        return new Money(ZERO, currency);
+        return ofMinorUnits(0, currency);
+    }
+
+    public static Money ofMinorUnits(long minorUnits, Currency currency) {
+        return new Money(minorUnits, require("currency", currency));
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(minorUnits, currency.getScale());
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
     }
 
     public Money subtract(Money amount) {
         checkCurrency(amount);
 
-        return toBuilder()
-                .amount(this.amount.subtract(amount.getAmount()))
-                .build();
+        return new Money(Math.subtractExact(minorUnits, amount.minorUnits), currency);
     }
 
     public Money add(Money amount) {
         checkCurrency(amount);
 
-        return toBuilder()
-                .amount(this.amount.add(amount.getAmount()))
-                .build();
+        return new Money(Math.addExact(minorUnits, amount.minorUnits), currency);
     }
 
-    public Boolean isLessThan(Money amount) {
-        return this.amount.compareTo(amount.getAmount()) == -1;
+    public boolean isLessThan(Money amount) {
+        checkCurrency(amount);
+
+        return minorUnits < amount.minorUnits;
     }
 
     @Override
     public String toString() {
-        String amount;
-        if (this.amount.doubleValue() % 1 == 0) {
-            DecimalFormat df = new DecimalFormat("#");
-            amount = df.format(this.amount);
-        } else {
-            amount = this.amount.setScale(2, RoundingMode.HALF_UP).toString();
+        var perUnit = currency.getMinorUnitsPerUnit();
+        var whole = minorUnits / perUnit;
+        var fraction = Math.abs(minorUnits % perUnit);
+        var text = new StringBuilder(currency.getSymbol());
+        if (minorUnits < 0 && whole == 0) {
+            text.append('-');
+        }
+        text.append(whole);
+        if (fraction != 0) {
+            text.append('.');
+            for (var digit = perUnit / 10; digit > fraction && digit > 1; digit /= 10) {
+                text.append('0');
+            }
+            text.append(fraction);
         }
-        return this.currency.getSymbol().concat(amount);
+        return text.toString();
     }
 
     private void checkCurrency(Money amount) {
-        if (!this.currency.equals(amount.currency)) {
+        if (this.currency != amount.currency) {
             throw new IllegalArgumentException("The currencies are different");
         }
     }
+
+    private static long toMinorUnits(BigDecimal amount, Currency currency) {
+        BigDecimal scaled;
+        try {
+            scaled = amount.setScale(currency.getScale(), UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("amount " + amount.toPlainString() + " has more decimals than " + currency.iso3() + " allows");
+        }
+        try {
+            return scaled.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException("amount " + amount.toPlainString() + " does not fit in " + currency.iso3() + " minor units");
+        }
+    }
 }
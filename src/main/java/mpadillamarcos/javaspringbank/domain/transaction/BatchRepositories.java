@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+
+/**
+ * Repositories whose writes are queued and sent to the database together when {@link #flush()} is
+ * called or the surrounding transaction commits. Reads flush any pending write first.
+ */
+public interface BatchRepositories {
+
+    BalanceRepository balances();
+
+    TransactionRepository transactions();
+
+    void flush();
+}
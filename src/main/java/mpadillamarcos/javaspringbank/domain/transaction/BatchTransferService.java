@@ -0,0 +1,202 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import lombok.RequiredArgsConstructor;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.account.Account;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.account.AccountService;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceLedger;
+import mpadillamarcos.javaspringbank.domain.balance.HotAccountBalances;
+import mpadillamarcos.javaspringbank.domain.exception.AccessDeniedException;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.exception.TransactionNotAllowedException;
+import mpadillamarcos.javaspringbank.domain.time.Clock;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+
+import static java.util.Comparator.comparing;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static mpadillamarcos.javaspringbank.domain.account.AccountState.OPEN;
+import static mpadillamarcos.javaspringbank.domain.transaction.Transaction.newTransaction;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.INCOMING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.OUTGOING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId.newTransactionGroupId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.newTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferResult.failed;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferResult.transferred;
+
+/**
+ * Places many transfers at once. Accounts and accesses are checked once per distinct account, and
+ * the balance updates and transaction rows of all the valid transfers are written in a single JDBC
+ * batch. A transfer that cannot be placed is reported in its result without failing the others.
+ * <p>
+ * Transfers out of hot accounts, and all of them when the ledger does not keep the balances table
+ * up to date, are placed one by one through {@link TransactionService}, since their balances are
+ * not only rows that the batch can write.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchTransferService {
+
+    private final BatchRepositories batchRepositories;
+    private final AccountService accountService;
+    private final AccountAccessService accessService;
+    private final TransactionService transactionService;
+    private final BalanceLedger ledger;
+    private final HotAccountBalances hotAccounts;
+    private final TransactionOperations transactionOperations;
+    private final Clock clock;
+
+    public List<TransferResult> transfer(List<TransferRequest> requests) {
+        if (!ledger.persistsImmediately()) {
+            // balances are owned by the ledger, so they cannot be written in the batch
+            return requests.stream()
+                    .map(this::transferOneByOne)
+                    .toList();
+        }
+
+        var results = new TransferResult[requests.size()];
+        var batched = new ArrayList<Integer>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (hotAccounts.isHot(requests.get(i).getOriginAccountId())) {
+                // the balance of hot accounts is spread over slots, which only the balance service debits
+                results[i] = transferOneByOne(requests.get(i));
+            } else {
+                batched.add(i);
+            }
+        }
+        var accepted = validate(requests, batched, results);
+        if (!accepted.isEmpty()) {
+            transactionOperations.executeWithoutResult(status -> write(requests, accepted, results));
+        }
+        return List.of(results);
+    }
+
+    private TransferResult transferOneByOne(TransferRequest request) {
+        try {
+            return transferred(transactionService.transfer(request));
+        } catch (NotFoundException | AccessDeniedException | TransactionNotAllowedException |
+                 InsufficientBalanceException | IllegalArgumentException | ArithmeticException e) {
+            return failed(e.getMessage());
+        }
+    }
+
+    private List<Integer> validate(List<TransferRequest> requests, List<Integer> batched, TransferResult[] results) {
+        var accountIds = new HashSet<AccountId>();
+        batched.forEach(i -> {
+            accountIds.add(requests.get(i).getOriginAccountId());
+            accountIds.add(requests.get(i).getDestinationAccountId());
+        });
+        var accounts = accountService.getAccounts(accountIds).stream()
+                .collect(toMap(Account::getId, identity()));
+        var accountErrors = new HashMap<AccountId, Optional<String>>();
+        var operatorErrors = new HashMap<Operator, Optional<String>>();
+
+        var accepted = new ArrayList<Integer>();
+        for (int i : batched) {
+            var request = requests.get(i);
+            var originAccountId = request.getOriginAccountId();
+            var destinationAccountId = request.getDestinationAccountId();
+
+            var error = accountErrors.computeIfAbsent(originAccountId, id -> checkAccountIsOpen(id, accounts.get(id)))
+                    .or(() -> operatorErrors.computeIfAbsent(new Operator(originAccountId, request.getUserId()), this::checkCanOperate))
+                    .or(() -> accountErrors.computeIfAbsent(destinationAccountId, id -> checkAccountIsOpen(id, accounts.get(id))));
+
+            if (error.isPresent()) {
+                results[i] = failed(error.get());
+            } else {
+                accepted.add(i);
+            }
+        }
+        return accepted;
+    }
+
+    private Optional<String> checkAccountIsOpen(AccountId accountId, Account account) {
+        if (account == null) {
+            return Optional.of("account not found");
+        }
+        if (!account.is(OPEN)) {
+            return Optional.of("The account with ID " + accountId.value() + " is " + account.getState());
+        }
+        return Optional.empty();
+    }
+
+    private Optional<String> checkCanOperate(Operator operator) {
+        var userId = operator.userId().value();
+        var access = accessService.findAccountAccess(operator.accountId(), operator.userId());
+        if (access.isEmpty()) {
+            return Optional.of("User with ID " + userId + " has no access to that account");
+        }
+        if (!access.get().canOperate()) {
+            return Optional.of("User with ID " + userId + " has no operation permits");
+        }
+        return Optional.empty();
+    }
+
+    private void write(List<TransferRequest> requests, List<Integer> accepted, TransferResult[] results) {
+        var balanceRepository = batchRepositories.balances();
+        var transactionRepository = batchRepositories.transactions();
+
+        // lock in a fixed order so that concurrent batches cannot deadlock each other
+        var lockedBalances = new HashMap<AccountId, Balance>();
+        accepted.stream()
+                .map(i -> requests.get(i).getOriginAccountId())
+                .distinct()
+                .sorted(comparing(AccountId::value))
+                .forEach(accountId -> balanceRepository.findBalanceForUpdate(accountId)
+                        .ifPresent(balance -> lockedBalances.put(accountId, balance)));
+
+        var balances = new HashMap<>(lockedBalances);
+        for (int i : accepted) {
+            var request = requests.get(i);
+            var originAccountId = request.getOriginAccountId();
+            var balance = balances.get(originAccountId);
+            if (balance == null) {
+                results[i] = failed("balance not found");
+                continue;
+            }
+            if (balance.getAmount().getCurrency() != request.getAmount().getCurrency()) {
+                results[i] = failed("The currencies are different");
+                continue;
+            }
+            try {
+                balances.put(originAccountId, balance.withdraw(request.getAmount()));
+            } catch (InsufficientBalanceException | ArithmeticException e) {
+                results[i] = failed(e.getMessage());
+                continue;
+            }
+
+            var transaction = newTransaction()
+                    .groupId(newTransactionGroupId())
+                    .userId(request.getUserId())
+                    .amount(request.getAmount())
+                    .createdDate(clock.now())
+                    .type(TRANSFER)
+                    .concept(request.getConcept());
+            var outgoingTransaction = transaction.accountId(originAccountId).direction(OUTGOING).build();
+            var incomingTransaction = transaction.id(newTransactionId())
+                    .accountId(request.getDestinationAccountId())
+                    .direction(INCOMING)
+                    .build();
+
+            transactionRepository.insert(outgoingTransaction);
+            transactionRepository.insert(incomingTransaction);
+            results[i] = transferred(outgoingTransaction.getId());
+        }
+
+        balances.values().stream()
+                .filter(balance -> !balance.equals(lockedBalances.get(balance.getAccountId())))
+                .forEach(balanceRepository::update);
+        batchRepositories.flush();
+    }
+
+    private record Operator(AccountId accountId, UserId userId) {
+    }
+}
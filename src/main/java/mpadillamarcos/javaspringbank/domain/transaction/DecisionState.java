@@ -0,0 +1,5 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+public enum DecisionState {
+    PENDING, APPLIED, FAILED
+}
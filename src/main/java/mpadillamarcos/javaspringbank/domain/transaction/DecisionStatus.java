@@ -0,0 +1,29 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import lombok.Value;
+
+import static mpadillamarcos.javaspringbank.domain.transaction.DecisionState.*;
+
+@Value
+public class DecisionStatus {
+
+    TransactionDecision decision;
+    DecisionState state;
+    String error;
+
+    public static DecisionStatus pending(TransactionDecision decision) {
+        return new DecisionStatus(decision, PENDING, null);
+    }
+
+    public static DecisionStatus applied(TransactionDecision decision) {
+        return new DecisionStatus(decision, APPLIED, null);
+    }
+
+    public static DecisionStatus failed(TransactionDecision decision, String error) {
+        return new DecisionStatus(decision, FAILED, error);
+    }
+
+    public boolean is(DecisionState state) {
+        return this.state == state;
+    }
+}
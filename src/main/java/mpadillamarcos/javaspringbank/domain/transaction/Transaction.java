@@ -8,7 +8,7 @@ import mpadillamarcos.javaspringbank.domain.user.UserId;
 
 import java.time.Instant;
 
-import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.newTransactionId;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionState.*;
 import static mpadillamarcos.javaspringbank.utils.Checks.require;
 import static mpadillamarcos.javaspringbank.utils.Checks.requireState;
@@ -54,7 +54,7 @@ public class Transaction {
 
     public static TransactionBuilder newTransaction() {
         return builder()
-                .id(randomTransactionId())
+                .id(newTransactionId())
                 .state(PENDING);
     }
 
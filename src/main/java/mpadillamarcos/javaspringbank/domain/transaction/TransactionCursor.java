@@ -0,0 +1,23 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+import static mpadillamarcos.javaspringbank.utils.Checks.require;
+
+@Value
+public class TransactionCursor {
+
+    Instant createdDate;
+    TransactionId id;
+
+    public TransactionCursor(Instant createdDate, TransactionId id) {
+        this.createdDate = require("createdDate", createdDate);
+        this.id = require("id", id);
+    }
+
+    public static TransactionCursor cursorOf(Transaction transaction) {
+        return new TransactionCursor(transaction.getCreatedDate(), transaction.getId());
+    }
+}
@@ -0,0 +1,5 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+public enum TransactionDecision {
+    CONFIRM, REJECT
+}
@@ -0,0 +1,208 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionConflictException;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionQueueFullException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static mpadillamarcos.javaspringbank.domain.transaction.DecisionStatus.*;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.CONFIRM;
+
+/**
+ * Applies confirmations and rejections in the background, enabled with
+ * {@code bank.transaction.decisions.async}. Submitted decisions are queued and a fixed number of
+ * virtual-thread workers take up to a batch of them at a time, applying the whole batch in one
+ * database transaction. When the batch fails, its decisions are retried one transaction each, so
+ * a single invalid decision only fails itself. The queue holds at most
+ * {@code bank.transaction.decisions.capacity} decisions and refuses new ones when it is full.
+ * Pending decisions are tracked until they are applied, and the outcome of each decision is then
+ * kept for a while so that callers can poll it; like the queue itself, neither survives a restart.
+ */
+@Slf4j
+@Component
+public class TransactionDecisionQueue implements MeterBinder, DisposableBean {
+
+    private final TransactionService transactionService;
+    private final TransactionRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<QueuedDecision> queue;
+    private final Map<TransactionId, DecisionStatus> pending = new ConcurrentHashMap<>();
+    private final Cache<TransactionId, DecisionStatus> statuses;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean closed;
+
+    public TransactionDecisionQueue(
+            TransactionService transactionService,
+            TransactionRepository repository,
+            TransactionOperations transactionOperations,
+            @Value("${bank.transaction.decisions.async:false}") boolean enabled,
+            @Value("${bank.transaction.decisions.workers:4}") int workers,
+            @Value("${bank.transaction.decisions.batch-size:50}") int batchSize,
+            @Value("${bank.transaction.decisions.capacity:10000}") int capacity,
+            @Value("${bank.transaction.decisions.status.max-size:100000}") long maxStatuses,
+            @Value("${bank.transaction.decisions.status.ttl-ms:600000}") long statusTtlMillis) {
+        this.transactionService = transactionService;
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxStatuses)
+                .expireAfterWrite(ofMillis(statusTtlMillis))
+                .build();
+        if (enabled) {
+            var factory = Thread.ofVirtual().name("transaction-decisions-", 0).factory();
+            for (int i = 0; i < workers; i++) {
+                var worker = factory.newThread(this::work);
+                this.workers.add(worker);
+                worker.start();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the decision unless the same transaction already has it pending, in which case the
+     * pending one is returned. Unknown transactions are rejected right away, and so is the opposite
+     * decision while one is pending, or any decision while the queue is full.
+     */
+    public DecisionStatus submit(TransactionId transactionId, TransactionDecision decision) {
+        if (repository.findTransactionById(transactionId).isEmpty()) {
+            throw new NotFoundException("Transaction ID " + transactionId.value() + " not found");
+        }
+        var status = pending(decision);
+        var current = pending.putIfAbsent(transactionId, status);
+        if (current != null) {
+            if (current.getDecision() != decision) {
+                throw new DecisionConflictException(
+                        "Transaction ID " + transactionId.value() + " has a pending " + current.getDecision());
+            }
+            return current;
+        }
+        if (!queue.offer(new QueuedDecision(transactionId, decision))) {
+            pending.remove(transactionId, status);
+            throw new DecisionQueueFullException("Too many transaction decisions are waiting, try again later");
+        }
+        return status;
+    }
+
+    public Optional<DecisionStatus> findStatus(TransactionId transactionId) {
+        return Optional.ofNullable(pending.get(transactionId))
+                .or(() -> Optional.ofNullable(statuses.getIfPresent(transactionId)));
+    }
+
+    /**
+     * Applies every queued decision on the calling thread.
+     */
+    public void flush() {
+        var batch = new ArrayList<QueuedDecision>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bank.transaction.decisions.queued", queue, BlockingQueue::size)
+                .description("Confirmations and rejections waiting to be applied")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        closed = true;
+        for (var worker : workers) {
+            worker.join();
+        }
+        flush();
+    }
+
+    private void work() {
+        var batch = new ArrayList<QueuedDecision>(batchSize);
+        while (!closed) {
+            try {
+                var first = queue.poll(100, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                apply(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not apply {} transaction decisions", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<QueuedDecision> batch) {
+        try {
+            transactionOperations.executeWithoutResult(status -> batch.forEach(this::decide));
+            batch.forEach(queued -> complete(queued, applied(queued.decision())));
+        } catch (RuntimeException batchFailure) {
+            if (batch.size() == 1) {
+                fail(batch.getFirst(), batchFailure);
+                return;
+            }
+            for (var queued : batch) {
+                try {
+                    transactionOperations.executeWithoutResult(status -> decide(queued));
+                    complete(queued, applied(queued.decision()));
+                } catch (RuntimeException e) {
+                    fail(queued, e);
+                }
+            }
+        }
+    }
+
+    private void decide(QueuedDecision queued) {
+        if (queued.decision() == CONFIRM) {
+            transactionService.confirm(queued.transactionId());
+        } else {
+            transactionService.reject(queued.transactionId());
+        }
+    }
+
+    private void fail(QueuedDecision queued, RuntimeException e) {
+        log.warn("Could not {} transaction {}", queued.decision(), queued.transactionId().value(), e);
+        complete(queued, failed(queued.decision(), e.getMessage()));
+    }
+
+    private void complete(QueuedDecision queued, DecisionStatus outcome) {
+        // stored before the pending status is dropped, so that polling always finds one of them
+        statuses.put(queued.transactionId(), outcome);
+        pending.remove(queued.transactionId());
+    }
+
+    private record QueuedDecision(TransactionId transactionId, TransactionDecision decision) {
+    }
+}
@@ -7,6 +7,7 @@ import mpadillamarcos.javaspringbank.domain.Id;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
+import static mpadillamarcos.javaspringbank.utils.Uuids.timeOrderedUuid;
 
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
@@ -16,6 +17,10 @@ public class TransactionGroupId extends Id<UUID> {
         super(value);
     }
 
+    public static TransactionGroupId newTransactionGroupId() {
+        return transactionGroupId(timeOrderedUuid());
+    }
+
     public static TransactionGroupId randomTransactionGroupId() {
         return transactionGroupId(randomUUID());
     }
@@ -7,6 +7,7 @@ import mpadillamarcos.javaspringbank.domain.Id;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
+import static mpadillamarcos.javaspringbank.utils.Uuids.unguessableTimeOrderedUuid;
 
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
@@ -16,6 +17,10 @@ public class TransactionId extends Id<UUID> {
         super(value);
     }
 
+    public static TransactionId newTransactionId() {
+        return transactionId(unguessableTimeOrderedUuid());
+    }
+
     public static TransactionId randomTransactionId() {
         return transactionId(randomUUID());
     }
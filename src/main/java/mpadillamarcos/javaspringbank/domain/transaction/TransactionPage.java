@@ -0,0 +1,17 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+@Value
+public class TransactionPage {
+
+    List<Transaction> transactions;
+    TransactionCursor next;
+
+    public Optional<TransactionCursor> getNext() {
+        return Optional.ofNullable(next);
+    }
+}
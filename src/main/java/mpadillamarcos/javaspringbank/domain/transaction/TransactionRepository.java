@@ -4,6 +4,7 @@ import mpadillamarcos.javaspringbank.domain.account.AccountId;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository {
 
@@ -17,5 +18,13 @@ public interface TransactionRepository {
 
     List<Transaction> findTransactionsByAccountId(AccountId accountId);
 
+    List<Transaction> findTransactionPage(AccountId accountId, TransactionCursor after, int limit);
+
+    /**
+     * Streams every transaction of the account, oldest first, reading rows lazily. The stream holds
+     * a database cursor, so it must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<Transaction> streamTransactionsByAccountId(AccountId accountId);
+
     List<Transaction> findTransactionsByGroupIdForUpdate(TransactionGroupId groupId);
 }
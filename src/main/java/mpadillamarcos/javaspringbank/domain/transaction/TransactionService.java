@@ -14,13 +14,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static mpadillamarcos.javaspringbank.domain.account.AccountState.OPEN;
 import static mpadillamarcos.javaspringbank.domain.transaction.Transaction.newTransaction;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor.cursorOf;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.INCOMING;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.OUTGOING;
-import static mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId.randomTransactionGroupId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId.newTransactionGroupId;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.*;
 
 @Service
@@ -39,7 +41,7 @@ public class TransactionService {
         var originAccountId = transferRequest.getOriginAccountId();
         var destinationAccountId = transferRequest.getDestinationAccountId();
         var amount = transferRequest.getAmount();
-        var groupId = randomTransactionGroupId();
+        var groupId = newTransactionGroupId();
 
         canOperate(originAccountId, userId);
         canPlaceTransactionOnAccount(destinationAccountId);
@@ -74,14 +76,14 @@ public class TransactionService {
     }
 
     @Transactional
-    public void withdraw(WithdrawRequest withdrawRequest) {
+    public TransactionId withdraw(WithdrawRequest withdrawRequest) {
         var userId = withdrawRequest.getUserId();
         var accountId = withdrawRequest.getAccountId();
 
         canOperate(accountId, userId);
 
         var withdrawTransaction = newTransaction()
-                .groupId(randomTransactionGroupId())
+                .groupId(newTransactionGroupId())
                 .userId(userId)
                 .accountId(accountId)
                 .amount(withdrawRequest.getAmount())
@@ -93,17 +95,19 @@ public class TransactionService {
 
         repository.insert(withdrawTransaction);
         confirm(withdrawTransaction);
+
+        return withdrawTransaction.getId();
     }
 
     @Transactional
-    public void deposit(DepositRequest depositRequest) {
+    public TransactionId deposit(DepositRequest depositRequest) {
         var userId = depositRequest.getUserId();
         var accountId = depositRequest.getAccountId();
 
         canOperate(accountId, userId);
 
         var depositTransaction = newTransaction()
-                .groupId(randomTransactionGroupId())
+                .groupId(newTransactionGroupId())
                 .userId(userId)
                 .accountId(accountId)
                 .amount(depositRequest.getAmount())
@@ -115,12 +119,31 @@ public class TransactionService {
 
         repository.insert(depositTransaction);
         confirm(depositTransaction);
+
+        return depositTransaction.getId();
     }
 
     public List<Transaction> listTransactionsByAccountId(AccountId accountId) {
         return repository.findTransactionsByAccountId(accountId);
     }
 
+    public TransactionPage listTransactionsByAccountId(AccountId accountId, TransactionCursor after, int limit) {
+        var transactions = repository.findTransactionPage(accountId, after, limit + 1);
+        if (transactions.size() <= limit) {
+            return new TransactionPage(transactions, null);
+        }
+
+        var page = transactions.subList(0, limit);
+        return new TransactionPage(page, cursorOf(page.getLast()));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTransactionsByAccountId(AccountId accountId, Consumer<Transaction> consumer) {
+        try (var transactions = repository.streamTransactionsByAccountId(accountId)) {
+            transactions.forEach(consumer);
+        }
+    }
+
     @Transactional
     public void confirm(TransactionId transactionId) {
         var transaction = getTransactionById(transactionId);
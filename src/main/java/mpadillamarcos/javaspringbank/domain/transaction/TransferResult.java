@@ -0,0 +1,22 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import lombok.Value;
+
+@Value
+public class TransferResult {
+
+    TransactionId transactionId;
+    String error;
+
+    public static TransferResult transferred(TransactionId transactionId) {
+        return new TransferResult(transactionId, null);
+    }
+
+    public static TransferResult failed(String error) {
+        return new TransferResult(null, error);
+    }
+
+    public boolean isTransferred() {
+        return transactionId != null;
+    }
+}
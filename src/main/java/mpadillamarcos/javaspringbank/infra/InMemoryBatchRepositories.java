@@ -0,0 +1,27 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import lombok.RequiredArgsConstructor;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+import mpadillamarcos.javaspringbank.domain.transaction.BatchRepositories;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionRepository;
+
+@RequiredArgsConstructor
+public class InMemoryBatchRepositories implements BatchRepositories {
+
+    private final BalanceRepository balances;
+    private final TransactionRepository transactions;
+
+    @Override
+    public BalanceRepository balances() {
+        return balances;
+    }
+
+    @Override
+    public TransactionRepository transactions() {
+        return transactions;
+    }
+
+    @Override
+    public void flush() {
+    }
+}
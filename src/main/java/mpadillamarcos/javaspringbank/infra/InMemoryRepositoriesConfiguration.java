@@ -0,0 +1,130 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionRepository;
+import mpadillamarcos.javaspringbank.infra.access.InMemoryAccountAccessRepository;
+import mpadillamarcos.javaspringbank.infra.account.InMemoryAccountRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
+import mpadillamarcos.javaspringbank.infra.idempotency.InMemoryIdempotentRequestRepository;
+import mpadillamarcos.javaspringbank.infra.journal.*;
+import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the service without a database. Every repository keeps its data in concurrent maps with the
+ * same lookups the database indexes provide. When {@code bank.journal.path} is set, committed
+ * writes are appended to a {@link MappedJournal} and the state is restored on startup from the
+ * latest snapshot and the journal written since; otherwise nothing survives a restart. The
+ * profile's configuration file turns off the datasource, Flyway and MyBatis.
+ */
+@Configuration
+@Profile("in-memory")
+public class InMemoryRepositoriesConfiguration {
+
+    @Bean
+    public InMemoryTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+
+    @Bean
+    public InMemoryAccountRepository accountRepository(
+            ObjectProvider<Journal> journal,
+            InMemoryAccountAccessRepository accesses,
+            InMemoryBalanceRepository balances,
+            InMemoryBalanceSlotRepository balanceSlots) {
+        return new InMemoryAccountRepository(journal.getIfAvailable(() -> Journal.DISABLED), accesses, balances, balanceSlots);
+    }
+
+    @Bean
+    public InMemoryAccountAccessRepository accountAccessRepository(ObjectProvider<Journal> journal) {
+        return new InMemoryAccountAccessRepository(journal.getIfAvailable(() -> Journal.DISABLED));
+    }
+
+    @Bean
+    public InMemoryBalanceRepository balanceRepository(ObjectProvider<Journal> journal) {
+        return new InMemoryBalanceRepository(journal.getIfAvailable(() -> Journal.DISABLED));
+    }
+
+    @Bean
+    public InMemoryBalanceSlotRepository balanceSlotRepository(ObjectProvider<Journal> journal) {
+        return new InMemoryBalanceSlotRepository(journal.getIfAvailable(() -> Journal.DISABLED));
+    }
+
+    @Bean
+    public InMemoryPendingCreditRepository pendingCreditRepository(ObjectProvider<Journal> journal) {
+        return new InMemoryPendingCreditRepository(journal.getIfAvailable(() -> Journal.DISABLED));
+    }
+
+    @Bean
+    public InMemoryTransactionRepository transactionRepository(ObjectProvider<Journal> journal) {
+        return new InMemoryTransactionRepository(journal.getIfAvailable(() -> Journal.DISABLED));
+    }
+
+    @Bean
+    public InMemoryIdempotentRequestRepository idempotentRequestRepository(ObjectProvider<Journal> journal) {
+        return new InMemoryIdempotentRequestRepository(journal.getIfAvailable(() -> Journal.DISABLED));
+    }
+
+    @Bean
+    public InMemoryBatchRepositories batchRepositories(BalanceRepository balances, TransactionRepository transactions) {
+        return new InMemoryBatchRepositories(balances, transactions);
+    }
+
+    @Configuration
+    @ConditionalOnProperty("bank.journal.path")
+    static class JournalConfiguration {
+
+        @Bean
+        public MappedJournal journal(
+                @Value("${bank.journal.path}") String path,
+                @Value("${bank.journal.durability:batched}") JournalDurability durability,
+                @Value("${bank.journal.region-size-mb:64}") int regionSizeMegabytes,
+                @Value("${bank.journal.flush-interval-ms:10}") long flushIntervalMillis) throws IOException {
+            var file = Path.of(path).toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            return new MappedJournal(file, durability, regionSizeMegabytes << 20, flushIntervalMillis);
+        }
+
+        @Bean
+        public SnapshotFile snapshotFile(@Value("${bank.journal.snapshot.path:${bank.journal.path}.snapshot}") String path) {
+            return new SnapshotFile(Path.of(path).toAbsolutePath());
+        }
+
+        @Bean
+        public JournalRecovery journalRecovery(
+                MappedJournal journal,
+                SnapshotFile snapshotFile,
+                MeterRegistry meterRegistry,
+                InMemoryAccountRepository accounts,
+                InMemoryAccountAccessRepository accountAccesses,
+                InMemoryBalanceRepository balances,
+                InMemoryBalanceSlotRepository balanceSlots,
+                InMemoryPendingCreditRepository pendingCredits,
+                InMemoryTransactionRepository transactions,
+                InMemoryIdempotentRequestRepository idempotentRequests) throws IOException {
+            var recovery = new JournalRecovery(journal, snapshotFile, meterRegistry);
+            recovery.recover(new JournalReplayer(accounts, accountAccesses, balances, balanceSlots, pendingCredits, transactions, idempotentRequests));
+            return recovery;
+        }
+
+        @Bean
+        public JournalSnapshotter journalSnapshotter(
+                MappedJournal journal,
+                SnapshotFile snapshotFile,
+                @Value("${bank.journal.snapshot.interval-ms:600000}") long intervalMillis) {
+            return new JournalSnapshotter(journal, snapshotFile, intervalMillis);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.*;
+
+/**
+ * Transaction manager for the in-memory repositories. It holds no resources; it only drives the
+ * transaction synchronizations through which {@link UndoLog} reverts rolled back writes and
+ * {@link StripedLocks} releases locks.
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        var transaction = (InMemoryTransaction) getResource(this);
+        return transaction != null ? transaction : new InMemoryTransaction();
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((InMemoryTransaction) transaction).active;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        var inMemoryTransaction = (InMemoryTransaction) transaction;
+        inMemoryTransaction.active = true;
+        bindResource(this, inMemoryTransaction);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return unbindResource(this);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        bindResource(this, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((InMemoryTransaction) status.getTransaction()).rollbackOnly = true;
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        unbindResource(this);
+    }
+
+    private static class InMemoryTransaction implements SmartTransactionObject {
+
+        private boolean active;
+        private boolean rollbackOnly;
+
+        @Override
+        public boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
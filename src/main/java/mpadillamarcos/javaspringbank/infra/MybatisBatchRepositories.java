@@ -0,0 +1,39 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+import mpadillamarcos.javaspringbank.domain.transaction.BatchRepositories;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionRepository;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceMapper;
+import mpadillamarcos.javaspringbank.infra.transaction.TransactionMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import static org.apache.ibatis.session.ExecutorType.BATCH;
+
+@Component
+@Profile("!in-memory")
+public class MybatisBatchRepositories implements BatchRepositories {
+
+    private final SqlSessionTemplate sqlSession;
+
+    public MybatisBatchRepositories(SqlSessionFactory sqlSessionFactory) {
+        this.sqlSession = new SqlSessionTemplate(sqlSessionFactory, BATCH);
+    }
+
+    @Override
+    public BalanceRepository balances() {
+        return sqlSession.getMapper(BalanceMapper.class);
+    }
+
+    @Override
+    public TransactionRepository transactions() {
+        return sqlSession.getMapper(TransactionMapper.class);
+    }
+
+    @Override
+    public void flush() {
+        sqlSession.flushStatements();
+    }
+}
@@ -0,0 +1,63 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static mpadillamarcos.javaspringbank.infra.metrics.LockMetrics.lockWait;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+/**
+ * Row locks for the in-memory repositories. A key is hashed to one of a fixed number of locks,
+ * which is held until the current transaction completes, the way {@code SELECT ... FOR UPDATE}
+ * holds a row lock. Unrelated keys may share a lock, so waits are bounded by a timeout instead of
+ * relying on deadlock detection. Waits are recorded in the {@code bank.lock.wait} histogram of the
+ * global registry, which Spring Boot feeds into the application registry.
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final long timeoutMillis;
+    private final Timer waits;
+
+    public StripedLocks(String name, int stripes, long timeoutMillis) {
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.waits = lockWait(Metrics.globalRegistry, name);
+    }
+
+    public void lockUntilTransactionCompletes(Object key) {
+        if (!isSynchronizationActive()) {
+            return;
+        }
+
+        var lock = locks[Math.floorMod(key.hashCode(), locks.length)];
+        var start = System.nanoTime();
+        try {
+            var acquired = lock.tryLock(timeoutMillis, MILLISECONDS);
+            waits.record(System.nanoTime() - start, NANOSECONDS);
+            if (!acquired) {
+                throw new CannotAcquireLockException("Timed out waiting for the lock on " + key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for the lock on " + key, e);
+        }
+
+        registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.*;
+
+/**
+ * Lets the in-memory repositories take part in Spring transactions: every write records how to
+ * revert itself, and if the transaction does not commit the recorded actions run newest first.
+ * Outside a transaction writes are final. This gives atomicity only; concurrent transactions see
+ * each other's writes as soon as they are made, and only the {@code ForUpdate} locks isolate them.
+ * The undo log runs before any other synchronization, so those locks are still held while the
+ * writes they guard are reverted.
+ */
+public class UndoLog implements TransactionSynchronization {
+
+    private final Deque<Runnable> actions = new ArrayDeque<>();
+
+    public static void record(Runnable undo) {
+        if (!isSynchronizationActive()) {
+            return;
+        }
+        var log = getSynchronizations().stream()
+                .filter(UndoLog.class::isInstance)
+                .map(UndoLog.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    var newLog = new UndoLog();
+                    registerSynchronization(newLog);
+                    return newLog;
+                });
+        log.actions.push(undo);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+            actions.forEach(Runnable::run);
+        }
+    }
+}
@@ -4,25 +4,48 @@ import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
 import mpadillamarcos.javaspringbank.domain.access.AccountAccessRepository;
 import mpadillamarcos.javaspringbank.domain.account.AccountId;
 import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.AccountAccessStored;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import static mpadillamarcos.javaspringbank.domain.access.AccessState.GRANTED;
 
 public class InMemoryAccountAccessRepository implements AccountAccessRepository {
 
-    private final Map<AccountAccessKey, AccountAccess> accountAccesses = new HashMap<>();
+    private final Map<AccountAccessKey, AccountAccess> accountAccesses = new ConcurrentHashMap<>();
+    private final Map<UserId, Set<AccountId>> accountIdsByUser = new ConcurrentHashMap<>();
+    private final Journal journal;
+
+    public InMemoryAccountAccessRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryAccountAccessRepository(Journal journal) {
+        this.journal = journal;
+    }
 
     @Override
     public void insert(AccountAccess accountAccess) {
-        var key = new AccountAccessKey(accountAccess.getAccountId(), accountAccess.getUserId());
-        if (accountAccesses.containsKey(key)) {
+        var key = keyOf(accountAccess);
+        if (accountAccesses.putIfAbsent(key, accountAccess) != null) {
             throw new IllegalStateException("account access already exists");
         }
-        accountAccesses.put(key, accountAccess);
+        accountIdsOf(accountAccess.getUserId()).add(accountAccess.getAccountId());
+
+        UndoLog.record(() -> {
+            accountIdsOf(accountAccess.getUserId()).remove(accountAccess.getAccountId());
+            accountAccesses.remove(key, accountAccess);
+        });
+        JournalBuffer.record(journal, new AccountAccessStored(accountAccess));
     }
 
     @Override
@@ -40,19 +63,39 @@ public class InMemoryAccountAccessRepository implements AccountAccessRepository
 
     @Override
     public List<AccountAccess> listGrantedAccountAccesses(UserId userId) {
-        return accountAccesses.values().stream()
-                .filter(access -> access.getUserId().equals(userId))
+        return accountIdsByUser.getOrDefault(userId, Set.of()).stream()
+                .map(accountId -> accountAccesses.get(new AccountAccessKey(accountId, userId)))
+                .filter(Objects::nonNull)
                 .filter(access -> access.getState().equals(GRANTED))
                 .toList();
     }
 
     @Override
     public void update(AccountAccess accountAccess) {
-        var key = new AccountAccessKey(accountAccess.getAccountId(), accountAccess.getUserId());
-        if (!accountAccesses.containsKey(key)) {
+        var key = keyOf(accountAccess);
+        var previous = accountAccesses.replace(key, accountAccess);
+        if (previous == null) {
             throw new IllegalStateException("account access does not exist");
         }
-        accountAccesses.put(key, accountAccess);
+        UndoLog.record(() -> accountAccesses.put(key, previous));
+        JournalBuffer.record(journal, new AccountAccessStored(accountAccess));
+    }
+
+    public Stream<AccountAccess> findAll() {
+        return accountAccesses.values().stream();
+    }
+
+    public void restore(AccountAccess accountAccess) {
+        accountAccesses.put(keyOf(accountAccess), accountAccess);
+        accountIdsOf(accountAccess.getUserId()).add(accountAccess.getAccountId());
+    }
+
+    private Set<AccountId> accountIdsOf(UserId userId) {
+        return accountIdsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private static AccountAccessKey keyOf(AccountAccess accountAccess) {
+        return new AccountAccessKey(accountAccess.getAccountId(), accountAccess.getUserId());
     }
 
     private record AccountAccessKey(AccountId accountId, UserId userId) {
@@ -1,29 +1,74 @@
 package mpadillamarcos.javaspringbank.infra.account;
 
+import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessRepository;
 import mpadillamarcos.javaspringbank.domain.account.Account;
 import mpadillamarcos.javaspringbank.domain.account.AccountId;
 import mpadillamarcos.javaspringbank.domain.account.AccountRepository;
+import mpadillamarcos.javaspringbank.domain.account.AccountView;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlotRepository;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.AccountStored;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.util.Comparator.comparing;
 
 public class InMemoryAccountRepository implements AccountRepository {
 
-    private final Map<AccountId, Account> accounts = new HashMap<>();
+    private final Map<AccountId, Account> accounts = new ConcurrentHashMap<>();
+    private final Journal journal;
+    private final AccountAccessRepository accesses;
+    private final BalanceRepository balances;
+    private final BalanceSlotRepository balanceSlots;
+
+    public InMemoryAccountRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryAccountRepository(Journal journal) {
+        this(journal, null, null, null);
+    }
+
+    /**
+     * The account views join the accesses and balances kept by the given repositories, the way
+     * the database query joins their tables.
+     */
+    public InMemoryAccountRepository(
+            Journal journal,
+            AccountAccessRepository accesses,
+            BalanceRepository balances,
+            BalanceSlotRepository balanceSlots) {
+        this.journal = journal;
+        this.accesses = accesses;
+        this.balances = balances;
+        this.balanceSlots = balanceSlots;
+    }
 
     @Override
     public void insert(Account account) {
-        if (accounts.containsKey(account.getId())) {
+        if (accounts.putIfAbsent(account.getId(), account) != null) {
             throw new IllegalStateException("account already exists");
         }
-        accounts.put(account.getId(), account);
+        UndoLog.record(() -> accounts.remove(account.getId(), account));
+        JournalBuffer.record(journal, new AccountStored(account));
     }
 
     @Override
     public void update(Account account) {
-        if (!accounts.containsKey(account.getId())) {
+        var previous = accounts.replace(account.getId(), account);
+        if (previous == null) {
             throw new IllegalStateException("account does not exist");
         }
-        accounts.put(account.getId(), account);
+        UndoLog.record(() -> accounts.put(account.getId(), previous));
+        JournalBuffer.record(journal, new AccountStored(account));
     }
 
     @Override
@@ -35,6 +80,55 @@ public class InMemoryAccountRepository implements AccountRepository {
     public List<Account> getAccounts(Set<AccountId> accountIds) {
         return accountIds.stream()
                 .map(accounts::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
+
+    @Override
+    public List<AccountView> findAccountViews(UserId userId) {
+        requireJoinedRepositories();
+        return accesses.listGrantedAccountAccesses(userId).stream()
+                .map(this::toView)
+                .flatMap(Optional::stream)
+                .sorted(comparing(AccountView::getCreatedDate))
+                .toList();
+    }
+
+    @Override
+    public Optional<AccountView> findAccountView(UserId userId, AccountId accountId) {
+        requireJoinedRepositories();
+        return accesses.findGrantedAccountAccess(accountId, userId)
+                .flatMap(this::toView);
+    }
+
+    private Optional<AccountView> toView(AccountAccess access) {
+        var account = accounts.get(access.getAccountId());
+        var balance = balances.findBalance(access.getAccountId());
+        if (account == null || balance.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new AccountView(account, access, withSlots(balance.get())));
+    }
+
+    private Balance withSlots(Balance balance) {
+        var amount = balance.getAmount();
+        for (var slot : balanceSlots.findSlots(Set.of(balance.getAccountId()))) {
+            amount = amount.add(slot.getAmount());
+        }
+        return balance.toBuilder().amount(amount).build();
+    }
+
+    private void requireJoinedRepositories() {
+        if (accesses == null || balances == null || balanceSlots == null) {
+            throw new IllegalStateException("account views need the access, balance and balance slot repositories");
+        }
+    }
+
+    public Stream<Account> findAll() {
+        return accounts.values().stream();
+    }
+
+    public void restore(Account account) {
+        accounts.put(account.getId(), account);
+    }
 }
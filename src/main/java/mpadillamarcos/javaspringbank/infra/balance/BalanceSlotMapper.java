@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.infra.balance;
+
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlotRepository;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface BalanceSlotMapper extends BalanceSlotRepository {
+}
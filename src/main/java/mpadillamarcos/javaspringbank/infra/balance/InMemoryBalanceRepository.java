@@ -3,16 +3,52 @@ package mpadillamarcos.javaspringbank.infra.balance;
 import mpadillamarcos.javaspringbank.domain.account.AccountId;
 import mpadillamarcos.javaspringbank.domain.balance.Balance;
 import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.StripedLocks;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceCredited;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceDebited;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceStored;
+
+import org.springframework.transaction.support.TransactionSynchronization;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static mpadillamarcos.javaspringbank.domain.money.Money.zero;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
 
+/**
+ * Balances kept in memory. Every write takes the account's lock until the transaction completes,
+ * as an {@code UPDATE} takes the row lock in Postgres, so that a balance read for update cannot
+ * change under its reader and is only reverted once no other write can have been made over it.
+ */
 public class InMemoryBalanceRepository implements BalanceRepository {
 
-    private final Map<AccountId, Balance> balances = new HashMap<>();
+    private final Map<AccountId, Balance> balances = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks("findBalanceForUpdate", 1024, 1_000);
+    private final Journal journal;
+
+    public InMemoryBalanceRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryBalanceRepository(Journal journal) {
+        this.journal = journal;
+    }
 
     @Override
     public void insert(Balance balance) {
-        balances.put(balance.getAccountId(), balance);
+        if (balances.putIfAbsent(balance.getAccountId(), balance) != null) {
+            throw new IllegalStateException("balance already exists");
+        }
+        UndoLog.record(() -> balances.remove(balance.getAccountId(), balance));
+        JournalBuffer.record(journal, new BalanceStored(balance));
     }
 
     @Override
@@ -22,20 +58,113 @@ public class InMemoryBalanceRepository implements BalanceRepository {
 
     @Override
     public List<Balance> findBalances(Set<AccountId> accountIds) {
-        List<Balance> balancesList = new ArrayList<>();
-        for (AccountId accountId : accountIds) {
-            balancesList.add(balances.get(accountId));
-        }
-        return balancesList;
+        return accountIds.stream()
+                .map(balances::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
     public void update(Balance updatedBalance) {
-        balances.put(updatedBalance.getAccountId(), updatedBalance);
+        locks.lockUntilTransactionCompletes(updatedBalance.getAccountId());
+        var previous = balances.replace(updatedBalance.getAccountId(), updatedBalance);
+        if (previous != null) {
+            UndoLog.record(() -> balances.put(updatedBalance.getAccountId(), previous));
+            journalChange(previous, updatedBalance);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(long expectedVersion, Balance updatedBalance) {
+        var accountId = updatedBalance.getAccountId();
+        locks.lockUntilTransactionCompletes(accountId);
+        var previous = balances.get(accountId);
+        if (previous == null || previous.getVersion() != expectedVersion
+                || !balances.replace(accountId, previous, updatedBalance)) {
+            return false;
+        }
+        UndoLog.record(() -> balances.replace(accountId, updatedBalance, previous));
+        journalChange(previous, updatedBalance);
+        return true;
+    }
+
+    @Override
+    public boolean debit(AccountId accountId, Money amount) {
+        locks.lockUntilTransactionCompletes(accountId);
+        var debited = new AtomicBoolean();
+        balances.computeIfPresent(accountId, (id, balance) -> {
+            if (!inCurrencyOf(balance, amount) || balance.getAmount().isLessThan(amount)) {
+                return balance;
+            }
+            debited.set(true);
+            return balance.withdraw(amount);
+        });
+        if (debited.get()) {
+            UndoLog.record(() -> balances.computeIfPresent(accountId, (id, balance) -> balance.deposit(amount)));
+            JournalBuffer.record(journal, new BalanceDebited(accountId, amount));
+        }
+        return debited.get();
+    }
+
+    @Override
+    public boolean credit(AccountId accountId, Money amount) {
+        locks.lockUntilTransactionCompletes(accountId);
+        var current = balances.get(accountId);
+        if (current == null || !inCurrencyOf(current, amount)) {
+            return false;
+        }
+        JournalBuffer.record(journal, new BalanceCredited(accountId, amount));
+        // applied on commit, so that no other transaction can spend money that may still be rolled back
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    balances.computeIfPresent(accountId, (id, balance) -> balance.deposit(amount));
+                }
+            });
+            return true;
+        }
+        balances.computeIfPresent(accountId, (id, balance) -> balance.deposit(amount));
+        return true;
     }
 
     @Override
     public Optional<Balance> findBalanceForUpdate(AccountId accountId) {
+        locks.lockUntilTransactionCompletes(accountId);
         return findBalance(accountId);
     }
+
+    // journaled as a delta: the record is appended on commit, which may come after that of a
+    // transaction that changed the balance later
+    private void journalChange(Balance previous, Balance updatedBalance) {
+        var accountId = updatedBalance.getAccountId();
+        var change = updatedBalance.getAmount().subtract(previous.getAmount());
+        JournalBuffer.record(journal, change.signum() < 0
+                ? new BalanceDebited(accountId, zero(change.getCurrency()).subtract(change))
+                : new BalanceCredited(accountId, change));
+    }
+
+    private static boolean inCurrencyOf(Balance balance, Money amount) {
+        return balance.getAmount().getCurrency() == amount.getCurrency();
+    }
+
+    public Stream<Balance> findAll() {
+        return balances.values().stream();
+    }
+
+    public void restore(Balance balance) {
+        balances.put(balance.getAccountId(), balance);
+    }
+
+    // the debit was checked when it was made, replaying it must not fail on an intermediate balance
+    public void restoreDebit(AccountId accountId, Money amount) {
+        balances.computeIfPresent(accountId, (id, balance) -> balance.toBuilder()
+                .amount(balance.getAmount().subtract(amount))
+                .version(balance.getVersion() + 1)
+                .build());
+    }
+
+    public void restoreCredit(AccountId accountId, Money amount) {
+        balances.computeIfPresent(accountId, (id, balance) -> balance.deposit(amount));
+    }
 }
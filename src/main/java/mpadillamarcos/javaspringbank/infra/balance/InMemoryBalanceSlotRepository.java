@@ -0,0 +1,132 @@
+package mpadillamarcos.javaspringbank.infra.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlotRepository;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceSlotCredited;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceSlotDebited;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceSlotStored;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+public class InMemoryBalanceSlotRepository implements BalanceSlotRepository {
+
+    private final Map<AccountId, Map<Integer, BalanceSlot>> slots = new ConcurrentHashMap<>();
+    private final Journal journal;
+
+    public InMemoryBalanceSlotRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryBalanceSlotRepository(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void insertIfAbsent(BalanceSlot slot) {
+        var accountSlots = slotsOf(slot.getAccountId());
+        if (accountSlots.putIfAbsent(slot.getSlot(), slot) == null) {
+            UndoLog.record(() -> accountSlots.remove(slot.getSlot(), slot));
+            JournalBuffer.record(journal, new BalanceSlotStored(slot));
+        }
+    }
+
+    @Override
+    public List<BalanceSlot> findSlots(Set<AccountId> accountIds) {
+        return accountIds.stream()
+                .map(slots::get)
+                .filter(Objects::nonNull)
+                .flatMap(accountSlots -> accountSlots.values().stream())
+                .toList();
+    }
+
+    @Override
+    public List<AccountId> findAccountIdsWithFundedSlots() {
+        return slots.entrySet().stream()
+                .filter(entry -> entry.getValue().values().stream().anyMatch(slot -> slot.getAmount().signum() > 0))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public boolean debit(AccountId accountId, int slot, Money amount) {
+        var accountSlots = slots.get(accountId);
+        if (accountSlots == null) {
+            return false;
+        }
+        var debited = new AtomicBoolean();
+        accountSlots.computeIfPresent(slot, (number, current) -> {
+            if (current.getAmount().getCurrency() != amount.getCurrency() || current.getAmount().isLessThan(amount)) {
+                return current;
+            }
+            debited.set(true);
+            return current.toBuilder().amount(current.getAmount().subtract(amount)).build();
+        });
+        if (debited.get()) {
+            UndoLog.record(() -> update(accountId, slot, current -> current.add(amount)));
+            JournalBuffer.record(journal, new BalanceSlotDebited(accountId, slot, amount));
+        }
+        return debited.get();
+    }
+
+    @Override
+    public boolean credit(AccountId accountId, int slot, Money amount) {
+        var accountSlots = slots.get(accountId);
+        var existing = accountSlots == null ? null : accountSlots.get(slot);
+        if (existing == null || existing.getAmount().getCurrency() != amount.getCurrency()) {
+            return false;
+        }
+        JournalBuffer.record(journal, new BalanceSlotCredited(accountId, slot, amount));
+        // applied on commit, like the balance credits
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(accountId, slot, current -> current.add(amount));
+                }
+            });
+            return true;
+        }
+        update(accountId, slot, current -> current.add(amount));
+        return true;
+    }
+
+    public Stream<BalanceSlot> findAll() {
+        return slots.values().stream().flatMap(accountSlots -> accountSlots.values().stream());
+    }
+
+    public void restore(BalanceSlot slot) {
+        slotsOf(slot.getAccountId()).put(slot.getSlot(), slot);
+    }
+
+    public void restoreDebit(AccountId accountId, int slot, Money amount) {
+        update(accountId, slot, current -> current.subtract(amount));
+    }
+
+    public void restoreCredit(AccountId accountId, int slot, Money amount) {
+        update(accountId, slot, current -> current.add(amount));
+    }
+
+    private void update(AccountId accountId, int slot, UnaryOperator<Money> operation) {
+        slotsOf(accountId).computeIfPresent(slot, (number, current) -> current.toBuilder()
+                .amount(operation.apply(current.getAmount()))
+                .build());
+    }
+
+    private Map<Integer, BalanceSlot> slotsOf(AccountId accountId) {
+        return slots.computeIfAbsent(accountId, id -> new ConcurrentSkipListMap<>());
+    }
+}
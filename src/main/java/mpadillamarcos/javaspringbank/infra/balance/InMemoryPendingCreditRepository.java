@@ -0,0 +1,90 @@
+package mpadillamarcos.javaspringbank.infra.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.balance.PendingCredit;
+import mpadillamarcos.javaspringbank.domain.balance.PendingCreditRepository;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.PendingCreditAdded;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.PendingCreditTaken;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+/**
+ * Keeps the sum of the pending credits of each account. Credits are added once their transaction
+ * commits, so that they are never taken before it does.
+ */
+public class InMemoryPendingCreditRepository implements PendingCreditRepository {
+
+    private final Map<AccountId, Money> pending = new ConcurrentHashMap<>();
+    private final Journal journal;
+
+    public InMemoryPendingCreditRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryPendingCreditRepository(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void insert(PendingCredit credit) {
+        JournalBuffer.record(journal, new PendingCreditAdded(credit));
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(credit);
+                }
+            });
+            return;
+        }
+        add(credit);
+    }
+
+    @Override
+    public List<AccountId> findAccountIdsWithPendingCredits() {
+        return List.copyOf(pending.keySet());
+    }
+
+    @Override
+    public List<PendingCredit> takePendingCredits(AccountId accountId) {
+        var amount = pending.remove(accountId);
+        if (amount == null) {
+            return List.of();
+        }
+        var credit = new PendingCredit(accountId, amount);
+        UndoLog.record(() -> add(credit));
+        JournalBuffer.record(journal, new PendingCreditTaken(credit));
+        return List.of(credit);
+    }
+
+    public Stream<PendingCredit> findAll() {
+        return pending.entrySet().stream()
+                .map(entry -> new PendingCredit(entry.getKey(), entry.getValue()));
+    }
+
+    public void restoreAdded(PendingCredit credit) {
+        add(credit);
+    }
+
+    public void restoreTaken(PendingCredit credit) {
+        pending.computeIfPresent(credit.getAccountId(), (accountId, amount) -> {
+            var remaining = amount.subtract(credit.getAmount());
+            return remaining.signum() == 0 ? null : remaining;
+        });
+    }
+
+    private void add(PendingCredit credit) {
+        pending.merge(credit.getAccountId(), credit.getAmount(), Money::add);
+    }
+}
@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.infra.balance;
+
+import mpadillamarcos.javaspringbank.domain.balance.PendingCreditRepository;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface PendingCreditMapper extends PendingCreditRepository {
+}
@@ -0,0 +1,8 @@
+package mpadillamarcos.javaspringbank.infra.idempotency;
+
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequestRepository;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface IdempotentRequestMapper extends IdempotentRequestRepository {
+}
@@ -0,0 +1,55 @@
+package mpadillamarcos.javaspringbank.infra.idempotency;
+
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequest;
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequestRepository;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.IdempotentRequestStored;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public class InMemoryIdempotentRequestRepository implements IdempotentRequestRepository {
+
+    private final Map<RequestKey, IdempotentRequest> requests = new ConcurrentHashMap<>();
+    private final Journal journal;
+
+    public InMemoryIdempotentRequestRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryIdempotentRequestRepository(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public boolean insert(IdempotentRequest request) {
+        var key = new RequestKey(request.getUserId(), request.getKey());
+        if (requests.putIfAbsent(key, request) != null) {
+            return false;
+        }
+        UndoLog.record(() -> requests.remove(key, request));
+        JournalBuffer.record(journal, new IdempotentRequestStored(request));
+        return true;
+    }
+
+    @Override
+    public Optional<IdempotentRequest> findRequest(UserId userId, String key) {
+        return Optional.ofNullable(requests.get(new RequestKey(userId, key)));
+    }
+
+    public Stream<IdempotentRequest> findAll() {
+        return requests.values().stream();
+    }
+
+    public void restore(IdempotentRequest request) {
+        requests.put(new RequestKey(request.getUserId(), request.getKey()), request);
+    }
+
+    private record RequestKey(UserId userId, String key) {
+    }
+}
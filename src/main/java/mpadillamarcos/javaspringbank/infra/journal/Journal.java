@@ -0,0 +1,15 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import java.util.List;
+
+public interface Journal {
+
+    Journal DISABLED = records -> {
+    };
+
+    /**
+     * Appends the records as one unit and returns once they are as durable as the journal's
+     * {@link JournalDurability} promises.
+     */
+    void append(List<JournalRecord> records);
+}
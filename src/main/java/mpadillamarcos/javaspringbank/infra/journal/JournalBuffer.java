@@ -0,0 +1,49 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.*;
+
+/**
+ * Collects the records written by a transaction and appends them to the journal right before it
+ * commits, so that rolled back writes never reach it and a failed append rolls the transaction
+ * back. Outside a transaction records are appended straight away.
+ */
+public class JournalBuffer implements TransactionSynchronization {
+
+    private final Journal journal;
+    private final List<JournalRecord> records = new ArrayList<>();
+
+    private JournalBuffer(Journal journal) {
+        this.journal = journal;
+    }
+
+    public static void record(Journal journal, JournalRecord record) {
+        if (journal == Journal.DISABLED) {
+            return;
+        }
+        if (!isSynchronizationActive()) {
+            journal.append(List.of(record));
+            return;
+        }
+        var buffer = getSynchronizations().stream()
+                .filter(JournalBuffer.class::isInstance)
+                .map(JournalBuffer.class::cast)
+                .filter(candidate -> candidate.journal == journal)
+                .findFirst()
+                .orElseGet(() -> {
+                    var newBuffer = new JournalBuffer(journal);
+                    registerSynchronization(newBuffer);
+                    return newBuffer;
+                });
+        buffer.records.add(record);
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        journal.append(records);
+    }
+}
@@ -0,0 +1,258 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import mpadillamarcos.javaspringbank.domain.access.AccessState;
+import mpadillamarcos.javaspringbank.domain.access.AccessType;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
+import mpadillamarcos.javaspringbank.domain.account.Account;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.account.AccountState;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
+import mpadillamarcos.javaspringbank.domain.balance.PendingCredit;
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequest;
+import mpadillamarcos.javaspringbank.domain.money.Currency;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.domain.transaction.*;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Binary layout of the journal records: a type byte followed by the fields in declaration order.
+ * Ids are two longs, instants seconds and nanos, amounts an unscaled integer and a scale, and
+ * enums their name, so that reordering constants does not corrupt existing journals.
+ */
+final class JournalCodec {
+
+    private static final byte ACCOUNT_STORED = 1;
+    private static final byte ACCOUNT_ACCESS_STORED = 2;
+    private static final byte BALANCE_STORED = 3;
+    private static final byte BALANCE_DEBITED = 4;
+    private static final byte BALANCE_CREDITED = 5;
+    private static final byte TRANSACTION_STORED = 6;
+    private static final byte IDEMPOTENT_REQUEST_STORED = 7;
+    private static final byte BALANCE_SLOT_STORED = 8;
+    private static final byte BALANCE_SLOT_DEBITED = 9;
+    private static final byte BALANCE_SLOT_CREDITED = 10;
+    private static final byte PENDING_CREDIT_ADDED = 11;
+    private static final byte PENDING_CREDIT_TAKEN = 12;
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournalRecord record) {
+        var bytes = new ByteArrayOutputStream(128);
+        var out = new DataOutputStream(bytes);
+        try {
+            switch (record) {
+                case AccountStored(var account) -> {
+                    out.writeByte(ACCOUNT_STORED);
+                    writeUuid(out, account.getId().value());
+                    writeUuid(out, account.getUserId().value());
+                    writeInstant(out, account.getCreatedDate());
+                    writeString(out, account.getState().name());
+                }
+                case AccountAccessStored(var access) -> {
+                    out.writeByte(ACCOUNT_ACCESS_STORED);
+                    writeUuid(out, access.getAccountId().value());
+                    writeUuid(out, access.getUserId().value());
+                    writeInstant(out, access.getCreatedDate());
+                    writeString(out, access.getType().name());
+                    writeString(out, access.getState().name());
+                }
+                case BalanceStored(var balance) -> {
+                    out.writeByte(BALANCE_STORED);
+                    writeUuid(out, balance.getAccountId().value());
+                    writeMoney(out, balance.getAmount());
+                    out.writeLong(balance.getVersion());
+                }
+                case BalanceDebited(var accountId, var amount) -> {
+                    out.writeByte(BALANCE_DEBITED);
+                    writeUuid(out, accountId.value());
+                    writeMoney(out, amount);
+                }
+                case BalanceCredited(var accountId, var amount) -> {
+                    out.writeByte(BALANCE_CREDITED);
+                    writeUuid(out, accountId.value());
+                    writeMoney(out, amount);
+                }
+                case BalanceSlotStored(var slot) -> {
+                    out.writeByte(BALANCE_SLOT_STORED);
+                    writeUuid(out, slot.getAccountId().value());
+                    out.writeInt(slot.getSlot());
+                    writeMoney(out, slot.getAmount());
+                }
+                case BalanceSlotDebited(var accountId, var slot, var amount) -> {
+                    out.writeByte(BALANCE_SLOT_DEBITED);
+                    writeUuid(out, accountId.value());
+                    out.writeInt(slot);
+                    writeMoney(out, amount);
+                }
+                case BalanceSlotCredited(var accountId, var slot, var amount) -> {
+                    out.writeByte(BALANCE_SLOT_CREDITED);
+                    writeUuid(out, accountId.value());
+                    out.writeInt(slot);
+                    writeMoney(out, amount);
+                }
+                case PendingCreditAdded(var credit) -> {
+                    out.writeByte(PENDING_CREDIT_ADDED);
+                    writeUuid(out, credit.getAccountId().value());
+                    writeMoney(out, credit.getAmount());
+                }
+                case PendingCreditTaken(var credit) -> {
+                    out.writeByte(PENDING_CREDIT_TAKEN);
+                    writeUuid(out, credit.getAccountId().value());
+                    writeMoney(out, credit.getAmount());
+                }
+                case TransactionStored(var transaction) -> {
+                    out.writeByte(TRANSACTION_STORED);
+                    writeUuid(out, transaction.getId().value());
+                    writeUuid(out, transaction.getGroupId().value());
+                    writeUuid(out, transaction.getUserId().value());
+                    writeUuid(out, transaction.getAccountId().value());
+                    writeMoney(out, transaction.getAmount());
+                    writeInstant(out, transaction.getCreatedDate());
+                    writeString(out, transaction.getState().name());
+                    writeString(out, transaction.getDirection().name());
+                    writeString(out, transaction.getType().name());
+                    writeString(out, transaction.getConcept());
+                }
+                case IdempotentRequestStored(var request) -> {
+                    out.writeByte(IDEMPOTENT_REQUEST_STORED);
+                    writeUuid(out, request.getUserId().value());
+                    writeString(out, request.getKey());
+                    writeUuid(out, request.getAccountId().value());
+                    writeString(out, request.getType().name());
+                    writeUuid(out, request.getTransactionId().value());
+                    writeInstant(out, request.getCreatedDate());
+                    writeString(out, request.getFingerprint());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalRecord decode(ByteBuffer in) {
+        var type = in.get();
+        return switch (type) {
+            case ACCOUNT_STORED -> new AccountStored(Account.builder()
+                    .id(new AccountId(readUuid(in)))
+                    .userId(new UserId(readUuid(in)))
+                    .createdDate(readInstant(in))
+                    .state(AccountState.valueOf(readString(in)))
+                    .build());
+            case ACCOUNT_ACCESS_STORED -> new AccountAccessStored(AccountAccess.builder()
+                    .accountId(new AccountId(readUuid(in)))
+                    .userId(new UserId(readUuid(in)))
+                    .createdDate(readInstant(in))
+                    .type(AccessType.valueOf(readString(in)))
+                    .state(AccessState.valueOf(readString(in)))
+                    .build());
+            case BALANCE_STORED -> new BalanceStored(Balance.builder()
+                    .accountId(new AccountId(readUuid(in)))
+                    .amount(readMoney(in))
+                    .version(in.getLong())
+                    .build());
+            case BALANCE_DEBITED -> new BalanceDebited(new AccountId(readUuid(in)), readMoney(in));
+            case BALANCE_CREDITED -> new BalanceCredited(new AccountId(readUuid(in)), readMoney(in));
+            case BALANCE_SLOT_STORED -> new BalanceSlotStored(BalanceSlot.builder()
+                    .accountId(new AccountId(readUuid(in)))
+                    .slot(in.getInt())
+                    .amount(readMoney(in))
+                    .build());
+            case BALANCE_SLOT_DEBITED -> new BalanceSlotDebited(new AccountId(readUuid(in)), in.getInt(), readMoney(in));
+            case BALANCE_SLOT_CREDITED -> new BalanceSlotCredited(new AccountId(readUuid(in)), in.getInt(), readMoney(in));
+            case PENDING_CREDIT_ADDED -> new PendingCreditAdded(new PendingCredit(new AccountId(readUuid(in)), readMoney(in)));
+            case PENDING_CREDIT_TAKEN -> new PendingCreditTaken(new PendingCredit(new AccountId(readUuid(in)), readMoney(in)));
+            case TRANSACTION_STORED -> new TransactionStored(Transaction.builder()
+                    .id(new TransactionId(readUuid(in)))
+                    .groupId(new TransactionGroupId(readUuid(in)))
+                    .userId(new UserId(readUuid(in)))
+                    .accountId(new AccountId(readUuid(in)))
+                    .amount(readMoney(in))
+                    .createdDate(readInstant(in))
+                    .state(TransactionState.valueOf(readString(in)))
+                    .direction(TransactionDirection.valueOf(readString(in)))
+                    .type(TransactionType.valueOf(readString(in)))
+                    .concept(readString(in))
+                    .build());
+            case IDEMPOTENT_REQUEST_STORED -> new IdempotentRequestStored(IdempotentRequest.builder()
+                    .userId(new UserId(readUuid(in)))
+                    .key(readString(in))
+                    .accountId(new AccountId(readUuid(in)))
+                    .type(TransactionType.valueOf(readString(in)))
+                    .transactionId(new TransactionId(readUuid(in)))
+                    .createdDate(readInstant(in))
+                    // records journaled before fingerprints were kept end here
+                    .fingerprint(in.hasRemaining() ? readString(in) : null)
+                    .build());
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value.getEpochSecond());
+        out.writeInt(value.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer in) {
+        return Instant.ofEpochSecond(in.getLong(), in.getInt());
+    }
+
+    private static void writeMoney(DataOutputStream out, Money value) throws IOException {
+        var unscaled = value.getAmount().unscaledValue().toByteArray();
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.getAmount().scale());
+        writeString(out, value.getCurrency().name());
+    }
+
+    private static Money readMoney(ByteBuffer in) {
+        var unscaled = new byte[in.getShort()];
+        in.get(unscaled);
+        var amount = new BigDecimal(new BigInteger(unscaled), in.getInt());
+        return new Money(amount, Currency.valueOf(readString(in)));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        var length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+public enum JournalDurability {
+
+    /**
+     * Every commit forces its own records to disk before returning.
+     */
+    PER_OP,
+    /**
+     * Commits wait for the background flusher, which forces everything appended since its last
+     * pass with a single call, so concurrent commits share one fsync.
+     */
+    BATCHED,
+    /**
+     * Commits return as soon as their records are in the mapped file; the flusher forces it
+     * periodically, and a crash loses at most one flush interval of commits.
+     */
+    ASYNC
+}
@@ -0,0 +1,55 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
+import mpadillamarcos.javaspringbank.domain.account.Account;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
+import mpadillamarcos.javaspringbank.domain.balance.PendingCredit;
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequest;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.domain.transaction.Transaction;
+
+/**
+ * A committed repository mutation. Stored entities are full images, replayed last write wins.
+ * Debits, credits, balance updates after insertion and pending credits are replayed as deltas,
+ * because concurrent transactions may commit them in a different order than they were applied.
+ */
+public sealed interface JournalRecord {
+
+    record AccountStored(Account account) implements JournalRecord {
+    }
+
+    record AccountAccessStored(AccountAccess accountAccess) implements JournalRecord {
+    }
+
+    record BalanceStored(Balance balance) implements JournalRecord {
+    }
+
+    record BalanceDebited(AccountId accountId, Money amount) implements JournalRecord {
+    }
+
+    record BalanceCredited(AccountId accountId, Money amount) implements JournalRecord {
+    }
+
+    record BalanceSlotStored(BalanceSlot slot) implements JournalRecord {
+    }
+
+    record BalanceSlotDebited(AccountId accountId, int slot, Money amount) implements JournalRecord {
+    }
+
+    record BalanceSlotCredited(AccountId accountId, int slot, Money amount) implements JournalRecord {
+    }
+
+    record PendingCreditAdded(PendingCredit credit) implements JournalRecord {
+    }
+
+    record PendingCreditTaken(PendingCredit credit) implements JournalRecord {
+    }
+
+    record TransactionStored(Transaction transaction) implements JournalRecord {
+    }
+
+    record IdempotentRequestStored(IdempotentRequest request) implements JournalRecord {
+    }
+}
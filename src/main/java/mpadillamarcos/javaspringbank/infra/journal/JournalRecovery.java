@@ -0,0 +1,58 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Restores the in-memory repositories on startup: loads the latest snapshot, then replays only the
+ * journal written after it. Reports how long each phase took and how many records it applied as
+ * {@code bank.recovery.time} and {@code bank.recovery.records}, tagged by phase.
+ */
+@Slf4j
+public class JournalRecovery {
+
+    private final MappedJournal journal;
+    private final SnapshotFile snapshots;
+    private final MeterRegistry meterRegistry;
+
+    public JournalRecovery(MappedJournal journal, SnapshotFile snapshots, MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recover(JournalReplayer replayer) throws IOException {
+        var start = nanoTime();
+        var snapshot = snapshots.read(replayer::apply);
+        var snapshotNanos = nanoTime() - start;
+        if (snapshot.position() > journal.recoveredPosition()) {
+            throw new IllegalStateException("The snapshot is ahead of the journal, which lost records it contained");
+        }
+
+        start = nanoTime();
+        var replayed = journal.replay(snapshot.position(), journal.recoveredPosition(), replayer::apply);
+        var replayNanos = nanoTime() - start;
+
+        report("snapshot", snapshotNanos, snapshot.records());
+        report("journal", replayNanos, replayed);
+        log.info("Loaded {} records from the snapshot in {} ms and replayed {} journal records in {} ms",
+                snapshot.records(), snapshotNanos / 1_000_000, replayed, replayNanos / 1_000_000);
+    }
+
+    private void report(String phase, long nanos, long records) {
+        Timer.builder("bank.recovery.time")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+        Gauge.builder("bank.recovery.records", () -> records)
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
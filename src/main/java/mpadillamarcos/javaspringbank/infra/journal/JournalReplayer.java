@@ -0,0 +1,75 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import lombok.RequiredArgsConstructor;
+import mpadillamarcos.javaspringbank.infra.access.InMemoryAccountAccessRepository;
+import mpadillamarcos.javaspringbank.infra.account.InMemoryAccountRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
+import mpadillamarcos.javaspringbank.infra.idempotency.InMemoryIdempotentRequestRepository;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.*;
+import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionRepository;
+
+import java.util.stream.Stream;
+
+import static java.util.function.Function.identity;
+
+/**
+ * Rebuilds the in-memory repositories from the journal. Records are restored without being
+ * journaled again.
+ */
+@RequiredArgsConstructor
+public class JournalReplayer {
+
+    private final InMemoryAccountRepository accounts;
+    private final InMemoryAccountAccessRepository accountAccesses;
+    private final InMemoryBalanceRepository balances;
+    private final InMemoryBalanceSlotRepository balanceSlots;
+    private final InMemoryPendingCreditRepository pendingCredits;
+    private final InMemoryTransactionRepository transactions;
+    private final InMemoryIdempotentRequestRepository idempotentRequests;
+
+    public static JournalReplayer inMemory() {
+        return new JournalReplayer(
+                new InMemoryAccountRepository(),
+                new InMemoryAccountAccessRepository(),
+                new InMemoryBalanceRepository(),
+                new InMemoryBalanceSlotRepository(),
+                new InMemoryPendingCreditRepository(),
+                new InMemoryTransactionRepository(),
+                new InMemoryIdempotentRequestRepository()
+        );
+    }
+
+    public void apply(JournalRecord record) {
+        switch (record) {
+            case AccountStored(var account) -> accounts.restore(account);
+            case AccountAccessStored(var accountAccess) -> accountAccesses.restore(accountAccess);
+            case BalanceStored(var balance) -> balances.restore(balance);
+            case BalanceDebited(var accountId, var amount) -> balances.restoreDebit(accountId, amount);
+            case BalanceCredited(var accountId, var amount) -> balances.restoreCredit(accountId, amount);
+            case BalanceSlotStored(var slot) -> balanceSlots.restore(slot);
+            case BalanceSlotDebited(var accountId, var slot, var amount) -> balanceSlots.restoreDebit(accountId, slot, amount);
+            case BalanceSlotCredited(var accountId, var slot, var amount) -> balanceSlots.restoreCredit(accountId, slot, amount);
+            case PendingCreditAdded(var credit) -> pendingCredits.restoreAdded(credit);
+            case PendingCreditTaken(var credit) -> pendingCredits.restoreTaken(credit);
+            case TransactionStored(var transaction) -> transactions.restore(transaction);
+            case IdempotentRequestStored(var request) -> idempotentRequests.restore(request);
+        }
+    }
+
+    /**
+     * The current state as stored entities only, which rebuild it when applied in any order.
+     */
+    public Stream<JournalRecord> snapshot() {
+        return Stream.<Stream<? extends JournalRecord>>of(
+                        accounts.findAll().map(AccountStored::new),
+                        accountAccesses.findAll().map(AccountAccessStored::new),
+                        balances.findAll().map(BalanceStored::new),
+                        balanceSlots.findAll().map(BalanceSlotStored::new),
+                        pendingCredits.findAll().map(PendingCreditAdded::new),
+                        transactions.findAll().map(TransactionStored::new),
+                        idempotentRequests.findAll().map(IdempotentRequestStored::new))
+                .flatMap(identity());
+    }
+}
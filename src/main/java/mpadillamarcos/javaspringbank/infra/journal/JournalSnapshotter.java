@@ -0,0 +1,72 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Periodically writes a new snapshot so that startup only replays the journal written since. The
+ * snapshot is built from the previous one and the journal up to the position known to be on disk,
+ * on a separate set of repositories, so it never pauses writes nor captures uncommitted ones.
+ */
+@Slf4j
+public class JournalSnapshotter implements Closeable {
+
+    private final MappedJournal journal;
+    private final SnapshotFile snapshots;
+    private final ScheduledExecutorService executor;
+
+    public JournalSnapshotter(MappedJournal journal, SnapshotFile snapshots, long intervalMillis) {
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.executor = newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform()
+                .daemon()
+                .name("journal-snapshotter")
+                .unstarted(runnable));
+        if (intervalMillis > 0) {
+            executor.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis, MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return whether a snapshot was written, which is skipped if the journal did not grow
+     */
+    public boolean snapshot() throws IOException {
+        var start = nanoTime();
+        var state = JournalReplayer.inMemory();
+        var from = snapshots.read(state::apply).position();
+        var to = journal.forcedPosition();
+        if (to <= from) {
+            return false;
+        }
+        journal.replay(from, to, state::apply);
+        var records = snapshots.write(to, state.snapshot());
+        log.info("Wrote a snapshot of {} records at journal byte {} in {} ms", records, to, (nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write a snapshot, retrying on the next interval", e);
+        }
+    }
+}
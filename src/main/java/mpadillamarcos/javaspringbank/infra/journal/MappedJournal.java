@@ -0,0 +1,348 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.ASYNC;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.BATCHED;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.PER_OP;
+
+/**
+ * Append-only journal written through a memory-mapped file. The file is mapped one fixed-size
+ * region at a time and every record is stored as its length, a CRC32 of its payload and the
+ * payload itself. A zero length marks the end of the journal and {@code -1} a record that did not
+ * fit in the rest of its region. Opening the journal scans it up to the first missing or torn
+ * record, which is where appends continue.
+ * <p>
+ * A failed force fails the journal: unless it is {@link JournalDurability#ASYNC}, whose appends
+ * never waited for the disk, the records not yet forced are erased, so that recovery does not
+ * replay the transactions that rolled back because of the failure, and later appends are refused.
+ */
+@Slf4j
+public class MappedJournal implements Journal, Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int END_OF_REGION = -1;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final JournalDurability durability;
+    private final long flushIntervalMillis;
+    private final long recoveredPosition;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition forced = lock.newCondition();
+    private final Thread flusher;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private long forcedPosition;
+    private RuntimeException failure;
+    private volatile boolean closed;
+
+    public MappedJournal(Path path, JournalDurability durability, int regionSize, long flushIntervalMillis)
+            throws IOException {
+        this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        this.regionSize = regionSize;
+        this.durability = durability;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.recoveredPosition = recover();
+        this.forcedPosition = recoveredPosition;
+        this.flusher = durability == PER_OP
+                ? null
+                : Thread.ofPlatform().daemon().name("journal-flusher").start(this::flushContinuously);
+    }
+
+    /**
+     * Reads back every record that was in the journal when it was opened, oldest first.
+     */
+    public long replay(Consumer<JournalRecord> handler) throws IOException {
+        return replay(0, recoveredPosition, handler);
+    }
+
+    /**
+     * Reads back the records between two positions returned by this journal, oldest first.
+     */
+    public long replay(long from, long to, Consumer<JournalRecord> handler) throws IOException {
+        long records = 0;
+        var offset = (int) (from % regionSize);
+        for (long start = from - offset; start < to; start += regionSize) {
+            var buffer = channel.map(READ_ONLY, start, Math.min(regionSize, to - start));
+            while (offset + HEADER_BYTES <= buffer.limit()) {
+                var length = buffer.getInt(offset);
+                if (length <= 0) {
+                    break;
+                }
+                handler.accept(JournalCodec.decode(buffer.slice(offset + HEADER_BYTES, length)));
+                offset += HEADER_BYTES + length;
+                records++;
+            }
+            offset = 0;
+        }
+        return records;
+    }
+
+    public long recoveredPosition() {
+        return recoveredPosition;
+    }
+
+    /**
+     * Position up to which the journal is known to be on disk.
+     */
+    public long forcedPosition() {
+        lock.lock();
+        try {
+            return forcedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void append(List<JournalRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        var payloads = records.stream()
+                .map(JournalCodec::encode)
+                .toList();
+
+        long end;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The journal is closed");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            for (var payload : payloads) {
+                write(payload);
+            }
+            end = position;
+            if (durability == BATCHED) {
+                appended.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        switch (durability) {
+            case PER_OP -> force();
+            case BATCHED -> awaitForced(end);
+            case ASYNC -> {
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        force();
+        channel.close();
+    }
+
+    private long recover() throws IOException {
+        region = channel.map(READ_WRITE, 0, regionSize);
+        var offset = 0;
+        while (true) {
+            var length = offset + Integer.BYTES <= regionSize ? region.getInt(offset) : END_OF_REGION;
+            if (length == END_OF_REGION) {
+                regionStart += regionSize;
+                region = channel.map(READ_WRITE, regionStart, regionSize);
+                offset = 0;
+                continue;
+            }
+            if (length == 0) {
+                break;
+            }
+            if (!isValid(offset, length)) {
+                log.warn("Discarding the journal from byte {}, its last record is incomplete", regionStart + offset);
+                region.put(offset, new byte[regionSize - offset]);
+                region.force();
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        channel.truncate(regionStart + regionSize);
+        position = regionStart + offset;
+        return position;
+    }
+
+    private boolean isValid(int offset, int length) {
+        if (length < 0 || offset + HEADER_BYTES + length > regionSize) {
+            return false;
+        }
+        var crc = new CRC32();
+        crc.update(region.slice(offset + HEADER_BYTES, length));
+        return (int) crc.getValue() == region.getInt(offset + Integer.BYTES);
+    }
+
+    private void write(byte[] payload) {
+        var size = HEADER_BYTES + payload.length;
+        if (size > regionSize) {
+            throw new IllegalArgumentException("Journal record of " + size + " bytes exceeds the region size");
+        }
+        var offset = (int) (position - regionStart);
+        if (offset + size > regionSize) {
+            if (offset + Integer.BYTES <= regionSize) {
+                region.putInt(offset, END_OF_REGION);
+            }
+            nextRegion();
+            offset = 0;
+        }
+
+        var crc = new CRC32();
+        crc.update(payload);
+        region.put(offset + HEADER_BYTES, payload);
+        region.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        region.putInt(offset, payload.length);
+        position += size;
+    }
+
+    private void nextRegion() {
+        region.force();
+        regionStart += regionSize;
+        try {
+            region = channel.map(READ_WRITE, regionStart, regionSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not extend the journal", e);
+        }
+        position = regionStart;
+        forcedPosition = regionStart;
+        forced.signalAll();
+    }
+
+    private void force() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        long end;
+        lock.lock();
+        try {
+            target = region;
+            from = (int) Math.max(forcedPosition - regionStart, 0);
+            to = (int) (position - regionStart);
+            end = position;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            if (to > from) {
+                target.force(from, to - from);
+            }
+        } catch (RuntimeException e) {
+            if (fail(e, end)) {
+                throw e;
+            }
+        }
+
+        lock.lock();
+        try {
+            if (failure != null && forcedPosition < end) {
+                throw failure;
+            }
+            forcedPosition = Math.max(forcedPosition, end);
+            forced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fails the journal unless another force already covered the records up to {@code end}.
+     */
+    private boolean fail(RuntimeException e, long end) {
+        lock.lock();
+        try {
+            if (forcedPosition >= end) {
+                return false;
+            }
+            if (failure == null) {
+                failure = e;
+                if (durability != ASYNC) {
+                    var from = (int) Math.max(forcedPosition - regionStart, 0);
+                    var to = (int) (position - regionStart);
+                    region.put(from, new byte[to - from]);
+                    position = regionStart + from;
+                }
+            }
+            forced.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitForced(long end) {
+        lock.lock();
+        try {
+            while (forcedPosition < end) {
+                if (failure != null) {
+                    throw failure;
+                }
+                forced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushContinuously() {
+        while (!closed) {
+            lock.lock();
+            try {
+                if (durability == BATCHED) {
+                    while (!closed && forcedPosition >= position) {
+                        appended.await();
+                    }
+                } else {
+                    appended.await(flushIntervalMillis, MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                force();
+            } catch (RuntimeException e) {
+                log.error("Could not force the journal to disk", e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * The state of the in-memory repositories at a journal position, stored as the journal records
+ * that rebuild it. Uses the journal's record framing after a header with the position, and ends
+ * with a zero length. A new snapshot is written next to the current one and moved over it once
+ * it is on disk, so the file is always complete.
+ */
+public class SnapshotFile {
+
+    private static final int MAGIC = 0x42534e50;
+
+    private final Path path;
+
+    public SnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public long write(long position, Stream<JournalRecord> records) throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long count = 0;
+        try (var channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeLong(position);
+            for (var iterator = records.iterator(); iterator.hasNext(); count++) {
+                var payload = JournalCodec.encode(iterator.next());
+                var crc = new CRC32();
+                crc.update(payload);
+                out.writeInt(payload.length);
+                out.writeInt((int) crc.getValue());
+                out.write(payload);
+            }
+            out.writeInt(0);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, ATOMIC_MOVE, REPLACE_EXISTING);
+        return count;
+    }
+
+    public Contents read(Consumer<JournalRecord> handler) throws IOException {
+        if (!Files.exists(path)) {
+            return new Contents(0, 0);
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException(path + " is not a snapshot");
+            }
+            var position = in.readLong();
+            long count = 0;
+            for (var length = in.readInt(); length > 0; length = in.readInt(), count++) {
+                var crc = in.readInt();
+                var payload = in.readNBytes(length);
+                var actualCrc = new CRC32();
+                actualCrc.update(payload);
+                if (payload.length != length || (int) actualCrc.getValue() != crc) {
+                    throw new IllegalStateException(path + " is corrupt at record " + count);
+                }
+                handler.accept(JournalCodec.decode(ByteBuffer.wrap(payload)));
+            }
+            return new Contents(position, count);
+        } catch (EOFException e) {
+            throw new IllegalStateException(path + " is truncated", e);
+        }
+    }
+
+    public record Contents(long position, long records) {
+    }
+}
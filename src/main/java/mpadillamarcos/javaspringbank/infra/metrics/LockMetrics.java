@@ -0,0 +1,22 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The {@code bank.lock.wait} histogram shared by the database and in-memory row locks, tagged with
+ * the repository method that takes the lock.
+ */
+public final class LockMetrics {
+
+    private LockMetrics() {
+    }
+
+    public static Timer lockWait(MeterRegistry registry, String lock) {
+        return Timer.builder("bank.lock.wait")
+                .description("Time spent waiting for row locks")
+                .tag("lock", lock)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,67 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static mpadillamarcos.javaspringbank.infra.metrics.Outcomes.SUCCESS;
+
+/**
+ * Times every mapper statement into {@code bank.mapper}. The {@code ForUpdate} statements are also
+ * recorded in the {@code bank.lock.wait} histogram: they return a handful of rows by primary key,
+ * so their duration beyond the usual round trip is time spent queued behind other row locks.
+ */
+@Component
+@Profile("!in-memory")
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry registry;
+
+    public MapperMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        var statement = (MappedStatement) invocation.getArgs()[0];
+        var start = registry.config().clock().monotonicTime();
+        var outcome = SUCCESS;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            outcome = Outcomes.of(e);
+            throw e;
+        } finally {
+            record(statement.getId(), outcome, registry.config().clock().monotonicTime() - start);
+        }
+    }
+
+    private void record(String statementId, String outcome, long nanos) {
+        var mapper = statementId.substring(statementId.lastIndexOf('.', statementId.lastIndexOf('.') - 1) + 1);
+        Timer.builder("bank.mapper")
+                .tag("statement", mapper)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, NANOSECONDS);
+
+        var method = mapper.substring(mapper.indexOf('.') + 1);
+        if (method.endsWith("ForUpdate")) {
+            LockMetrics.lockWait(registry, method).record(nanos, NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import mpadillamarcos.javaspringbank.domain.exception.AccessDeniedException;
+import mpadillamarcos.javaspringbank.domain.exception.IdempotencyKeyConflictException;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.exception.TransactionNotAllowedException;
+import org.springframework.dao.ConcurrencyFailureException;
+
+/**
+ * Values of the {@code outcome} tag, one per way a call can end that the API reports differently.
+ */
+final class Outcomes {
+
+    static final String SUCCESS = "success";
+
+    private Outcomes() {
+    }
+
+    static String of(Throwable exception) {
+        return switch (exception) {
+            case InsufficientBalanceException e -> "insufficient_balance";
+            case AccessDeniedException e -> "access_denied";
+            case NotFoundException e -> "not_found";
+            case TransactionNotAllowedException e -> "not_allowed";
+            case IdempotencyKeyConflictException e -> "conflict";
+            case ConcurrencyFailureException e -> "conflict";
+            default -> "error";
+        };
+    }
+}
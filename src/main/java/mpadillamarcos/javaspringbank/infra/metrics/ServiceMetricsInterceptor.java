@@ -0,0 +1,43 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+import static mpadillamarcos.javaspringbank.infra.metrics.Outcomes.SUCCESS;
+
+/**
+ * Times a service call into {@code bank.service}, tagged with the service, the method and how the
+ * call ended, so that rejected requests can be told apart from the ones that did the work.
+ */
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+
+    private final Supplier<MeterRegistry> registry;
+
+    public ServiceMetricsInterceptor(Supplier<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        var meterRegistry = registry.get();
+        var sample = Timer.start(meterRegistry);
+        var outcome = SUCCESS;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            outcome = Outcomes.of(e);
+            throw e;
+        } finally {
+            var method = invocation.getMethod();
+            sample.stop(Timer.builder("bank.service")
+                    .tag("service", method.getDeclaringClass().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
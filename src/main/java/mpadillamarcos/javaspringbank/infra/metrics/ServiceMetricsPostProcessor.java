@@ -0,0 +1,41 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Wraps every public method of the {@link Service} beans with a {@link ServiceMetricsInterceptor}.
+ * The advice goes in front of the transactional one, so commits are part of the timing.
+ */
+@Component
+public class ServiceMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public ServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.advisor = new DefaultPointcutAdvisor(
+                new PublicServiceMethods(),
+                new ServiceMetricsInterceptor(SingletonSupplier.of(registry::getObject)));
+        this.beforeExistingAdvisors = true;
+    }
+
+    private static class PublicServiceMethods extends StaticMethodMatcherPointcut {
+
+        PublicServiceMethods() {
+            setClassFilter(new AnnotationClassFilter(Service.class));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+        }
+    }
+}
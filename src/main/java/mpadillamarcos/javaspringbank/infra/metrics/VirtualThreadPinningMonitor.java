@@ -0,0 +1,90 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+import static java.time.Duration.ofMillis;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, which happens when they wait
+ * inside a {@code synchronized} block or a native frame. The JDK's {@code jdk.VirtualThreadPinned}
+ * flight recorder events longer than {@code bank.virtual-threads.pinned-threshold-ms} are recorded
+ * in the {@code bank.virtual-threads.pinned} timer, tagged with the first frame outside the JDK,
+ * and their stack traces are logged at debug level. Only active when
+ * {@code spring.threads.virtual.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry registry;
+    private final long thresholdMillis;
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry registry,
+            @Value("${bank.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.registry = registry;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @Override
+    public void stop() {
+        stream.close();
+        stream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        var frames = event.getStackTrace() == null ? null : event.getStackTrace().getFrames();
+        var site = frames == null ? "unknown" : frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("jdk");
+
+        Timer.builder("bank.virtual-threads.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier")
+                .tag("site", site)
+                .register(registry)
+                .record(event.getDuration());
+
+        if (log.isDebugEnabled() && frames != null) {
+            log.debug("Virtual thread pinned for {} ms at {}\n\t{}", event.getDuration().toMillis(), site, frames.stream()
+                    .map(VirtualThreadPinningMonitor::describe)
+                    .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName();
+    }
+}
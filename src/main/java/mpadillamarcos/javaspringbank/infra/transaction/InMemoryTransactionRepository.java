@@ -2,73 +2,141 @@ package mpadillamarcos.javaspringbank.infra.transaction;
 
 import mpadillamarcos.javaspringbank.domain.account.AccountId;
 import mpadillamarcos.javaspringbank.domain.transaction.Transaction;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor;
 import mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId;
 import mpadillamarcos.javaspringbank.domain.transaction.TransactionId;
 import mpadillamarcos.javaspringbank.domain.transaction.TransactionRepository;
+import mpadillamarcos.javaspringbank.infra.StripedLocks;
+import mpadillamarcos.javaspringbank.infra.UndoLog;
+import mpadillamarcos.javaspringbank.infra.journal.Journal;
+import mpadillamarcos.javaspringbank.infra.journal.JournalBuffer;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.TransactionStored;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
-import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.transactionId;
+import static java.util.Collections.emptyNavigableSet;
+import static java.util.Comparator.comparing;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor.cursorOf;
 
 public class InMemoryTransactionRepository implements TransactionRepository {
 
-    private final Map<TransactionId, Transaction> transactions = new HashMap<>();
-    private final Map<TransactionGroupId, List<TransactionId>> groupIdTransactionId = new HashMap<>();
-    private final Stack<UUID[]> accountIdTransactionIdPairs = new Stack<>();
+    // same order as the transactions index: newest first, uuids compared byte by byte like Postgres does
+    private static final Comparator<TransactionCursor> NEWEST_FIRST = comparing(TransactionCursor::getCreatedDate)
+            .thenComparing(cursor -> cursor.getId().value().getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(cursor -> cursor.getId().value().getLeastSignificantBits(), Long::compareUnsigned)
+            .reversed();
+
+    private final Map<TransactionId, Transaction> transactions = new ConcurrentHashMap<>();
+    private final Map<AccountId, NavigableSet<TransactionCursor>> transactionsByAccount = new ConcurrentHashMap<>();
+    private final Map<TransactionGroupId, List<TransactionId>> transactionsByGroup = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks("findTransactionsByGroupIdForUpdate", 1024, 1_000);
+    private final Journal journal;
+
+    public InMemoryTransactionRepository() {
+        this(Journal.DISABLED);
+    }
+
+    public InMemoryTransactionRepository(Journal journal) {
+        this.journal = journal;
+    }
 
     @Override
     public void insert(Transaction transaction) {
-        transactions.put(transaction.getId(), transaction);
-        UUID[] pair = new UUID[]{transaction.getAccountId().value(), transaction.getId().value()};
-        accountIdTransactionIdPairs.add(pair);
-
-        var groupId = transaction.getGroupId();
-        List<TransactionId> transactionIds = groupIdTransactionId.get(groupId);
-        if (transactionIds == null) {
-            List<TransactionId> newTransactionIds = new ArrayList<>();
-            newTransactionIds.add(transaction.getId());
-            groupIdTransactionId.put(groupId, newTransactionIds);
-        } else {
-            transactionIds.add(transaction.getId());
-            groupIdTransactionId.put(groupId, transactionIds);
+        if (transactions.putIfAbsent(transaction.getId(), transaction) != null) {
+            throw new IllegalStateException("transaction already exists");
         }
+        var cursor = cursorOf(transaction);
+        transactionsOf(transaction.getAccountId()).add(cursor);
+        transactionsOf(transaction.getGroupId()).add(transaction.getId());
+
+        UndoLog.record(() -> {
+            transactionsOf(transaction.getGroupId()).remove(transaction.getId());
+            transactionsOf(transaction.getAccountId()).remove(cursor);
+            transactions.remove(transaction.getId());
+        });
+        JournalBuffer.record(journal, new TransactionStored(transaction));
     }
 
     @Override
     public void update(Transaction transaction) {
-        transactions.put(transaction.getId(), transaction);
+        var previous = transactions.replace(transaction.getId(), transaction);
+        if (previous == null) {
+            throw new IllegalStateException("transaction does not exist");
+        }
+        UndoLog.record(() -> transactions.put(transaction.getId(), previous));
+        JournalBuffer.record(journal, new TransactionStored(transaction));
     }
 
     @Override
     public List<Transaction> findTransactionsByGroupId(TransactionGroupId groupId) {
-        List<TransactionId> transactionIds = groupIdTransactionId.get(groupId);
-        List<Transaction> transactionsByGroupId = new ArrayList<>();
-        for (TransactionId transactionId : transactionIds) {
-            transactionsByGroupId.add(transactions.get(transactionId));
-        }
-        return transactionsByGroupId;
+        return transactionsByGroup.getOrDefault(groupId, List.of()).stream()
+                .map(transactions::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
     public List<Transaction> findTransactionsByAccountId(AccountId accountId) {
-        List<Transaction> transactionsList = new ArrayList<>();
-        for (UUID[] pair : accountIdTransactionIdPairs) {
-            TransactionId transactionId = null;
-            if (pair[0].equals(accountId.value())) {
-                transactionId = transactionId(pair[1]);
-                var transaction = findTransactionById(transactionId);
-                transaction.ifPresent(transactionsList::add);
-            }
+        return resolve(indexedTransactionsOf(accountId).stream())
+                .toList();
+    }
+
+    @Override
+    public List<Transaction> findTransactionPage(AccountId accountId, TransactionCursor after, int limit) {
+        var cursors = indexedTransactionsOf(accountId);
+        if (after != null) {
+            cursors = cursors.tailSet(after, false);
         }
-        return transactionsList;
+        return resolve(cursors.stream())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactionsByAccountId(AccountId accountId) {
+        return resolve(indexedTransactionsOf(accountId).descendingSet().stream());
     }
 
     @Override
     public List<Transaction> findTransactionsByGroupIdForUpdate(TransactionGroupId groupId) {
+        locks.lockUntilTransactionCompletes(groupId);
         return findTransactionsByGroupId(groupId);
     }
 
     public Optional<Transaction> findTransactionById(TransactionId transactionId) {
         return Optional.ofNullable(transactions.get(transactionId));
     }
+
+    public Stream<Transaction> findAll() {
+        return transactions.values().stream();
+    }
+
+    public void restore(Transaction transaction) {
+        if (transactions.put(transaction.getId(), transaction) == null) {
+            transactionsOf(transaction.getAccountId()).add(cursorOf(transaction));
+            transactionsOf(transaction.getGroupId()).add(transaction.getId());
+        }
+    }
+
+    private Stream<Transaction> resolve(Stream<TransactionCursor> cursors) {
+        return cursors
+                .map(cursor -> transactions.get(cursor.getId()))
+                .filter(Objects::nonNull);
+    }
+
+    private NavigableSet<TransactionCursor> indexedTransactionsOf(AccountId accountId) {
+        return transactionsByAccount.getOrDefault(accountId, emptyNavigableSet());
+    }
+
+    private NavigableSet<TransactionCursor> transactionsOf(AccountId accountId) {
+        return transactionsByAccount.computeIfAbsent(accountId, id -> new ConcurrentSkipListSet<>(NEWEST_FIRST));
+    }
+
+    private List<TransactionId> transactionsOf(TransactionGroupId groupId) {
+        return transactionsByGroup.computeIfAbsent(groupId, id -> new CopyOnWriteArrayList<>());
+    }
 }
@@ -1,8 +1,32 @@
 package mpadillamarcos.javaspringbank.infra.transaction;
 
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.transaction.Transaction;
 import mpadillamarcos.javaspringbank.domain.transaction.TransactionRepository;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import static java.util.stream.StreamSupport.stream;
 
 @Mapper
 public interface TransactionMapper extends TransactionRepository {
+
+    Cursor<Transaction> findTransactionCursorByAccountId(AccountId accountId);
+
+    @Override
+    default Stream<Transaction> streamTransactionsByAccountId(AccountId accountId) {
+        var cursor = findTransactionCursorByAccountId(accountId);
+        return stream(cursor.spliterator(), false)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
 }
@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.access.AccessState;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.access.AccessState.*;
+
+@Component
+public class AccessStateTypeHandler extends CodeTypeHandler<AccessState> {
+
+    public AccessStateTypeHandler() {
+        super(AccessState.class, Map.of(GRANTED, 1, REVOKED, 2));
+    }
+}
@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.access.AccessType;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.access.AccessType.*;
+
+@Component
+public class AccessTypeTypeHandler extends CodeTypeHandler<AccessType> {
+
+    public AccessTypeTypeHandler() {
+        super(AccessType.class, Map.of(OWNER, 1, OPERATOR, 2, VIEWER, 3));
+    }
+}
@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountState;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.account.AccountState.*;
+
+@Component
+public class AccountStateTypeHandler extends CodeTypeHandler<AccountState> {
+
+    public AccountStateTypeHandler() {
+        super(AccountState.class, Map.of(OPEN, 1, BLOCKED, 2, CLOSED, 3));
+    }
+}
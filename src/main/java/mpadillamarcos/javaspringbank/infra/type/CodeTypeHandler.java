@@ -0,0 +1,69 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores an enum as a {@code smallint} code instead of its name. The codes are part of the schema:
+ * they are only ever added, never reused or renumbered, and do not depend on the order of the
+ * constants.
+ */
+public class CodeTypeHandler<E extends Enum<E>> extends BaseTypeHandler<E> {
+
+    private final Class<E> type;
+    private final Map<E, Short> codes;
+    private final Map<Short, E> constants = new HashMap<>();
+
+    protected CodeTypeHandler(Class<E> type, Map<E, Integer> codes) {
+        this.type = type;
+        this.codes = new EnumMap<>(type);
+        codes.forEach((constant, code) -> {
+            this.codes.put(constant, code.shortValue());
+            if (constants.put(code.shortValue(), constant) != null) {
+                throw new IllegalArgumentException("Code " + code + " is used twice in " + type.getSimpleName());
+            }
+        });
+        if (this.codes.size() != type.getEnumConstants().length) {
+            throw new IllegalArgumentException("Every " + type.getSimpleName() + " needs a code");
+        }
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, E parameter, JdbcType jdbcType) throws SQLException {
+        ps.setShort(i, codes.get(parameter));
+    }
+
+    @Override
+    public E getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        var code = rs.getShort(columnName);
+        return rs.wasNull() ? null : constantOf(code);
+    }
+
+    @Override
+    public E getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        var code = rs.getShort(columnIndex);
+        return rs.wasNull() ? null : constantOf(code);
+    }
+
+    @Override
+    public E getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        var code = cs.getShort(columnIndex);
+        return cs.wasNull() ? null : constantOf(code);
+    }
+
+    private E constantOf(short code) {
+        var constant = constants.get(code);
+        if (constant == null) {
+            throw new IllegalStateException("Unknown " + type.getSimpleName() + " code " + code);
+        }
+        return constant;
+    }
+}
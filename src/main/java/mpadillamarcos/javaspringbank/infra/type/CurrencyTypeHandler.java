@@ -0,0 +1,20 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.money.Currency;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.money.Currency.EUR;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
+
+/**
+ * Stores currencies as their ISO 4217 numeric code.
+ */
+@Component
+public class CurrencyTypeHandler extends CodeTypeHandler<Currency> {
+
+    public CurrencyTypeHandler() {
+        super(Currency.class, Map.of(EUR, 978, JPY, 392));
+    }
+}
@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.*;
+
+@Component
+public class TransactionDirectionTypeHandler extends CodeTypeHandler<TransactionDirection> {
+
+    public TransactionDirectionTypeHandler() {
+        super(TransactionDirection.class, Map.of(INCOMING, 1, OUTGOING, 2));
+    }
+}
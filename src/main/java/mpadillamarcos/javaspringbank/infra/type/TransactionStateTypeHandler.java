@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionState;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionState.*;
+
+@Component
+public class TransactionStateTypeHandler extends CodeTypeHandler<TransactionState> {
+
+    public TransactionStateTypeHandler() {
+        super(TransactionState.class, Map.of(PENDING, 1, CONFIRMED, 2, REJECTED, 3, REVERTED, 4));
+    }
+}
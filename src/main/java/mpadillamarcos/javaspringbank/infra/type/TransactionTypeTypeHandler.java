@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.infra.type;
+
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionType;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.*;
+
+@Component
+public class TransactionTypeTypeHandler extends CodeTypeHandler<TransactionType> {
+
+    public TransactionTypeTypeHandler() {
+        super(TransactionType.class, Map.of(WITHDRAW, 1, DEPOSIT, 2, TRANSFER, 3));
+    }
+}
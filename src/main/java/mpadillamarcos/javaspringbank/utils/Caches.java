@@ -0,0 +1,40 @@
+package mpadillamarcos.javaspringbank.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Loads cache entries on the calling thread without holding a lock while the loader runs.
+ * {@code Cache.get(key, loader)} calls the loader inside {@code ConcurrentHashMap.compute}, whose
+ * {@code synchronized} block pins a virtual thread to its carrier for as long as the loader waits
+ * on the database. Here only an empty future is published under the lock; the caller that
+ * published it runs the loader on its own thread, inside whatever transaction that thread is in,
+ * and concurrent callers for the same key wait on the future and share its result. A future still
+ * loading when its key is invalidated is simply dropped.
+ */
+public class Caches {
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        var loading = new CompletableFuture<V>();
+        var future = cache.get(key, (k, executor) -> loading);
+        if (future == loading) {
+            try {
+                loading.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package mpadillamarcos.javaspringbank.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isActualTransactionActive;
+
+/**
+ * Runs independent reads at the same time, each on its own virtual thread, in the way Java 21's
+ * preview {@code StructuredTaskScope.ShutdownOnFailure} does: {@link #join()} waits for every
+ * fork, and the first one to fail cancels the rest and is rethrown. Closing the scope cancels and
+ * waits for any fork still running, so none outlives the block that opened it.
+ * <p>
+ * Forks only see committed data, since the surrounding transaction is bound to the calling
+ * thread. A scope opened inside a transaction, or with {@code parallel} unset, therefore runs each
+ * fork right away on the calling thread instead.
+ */
+public class FanOut implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final CompletionService<Object> completions;
+    private final List<Future<Object>> forks = new ArrayList<>();
+
+    private FanOut(boolean parallel) {
+        this.executor = parallel ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory()) : null;
+        this.completions = parallel ? new ExecutorCompletionService<>(executor) : null;
+    }
+
+    public static FanOut open(boolean parallel) {
+        return new FanOut(parallel && !isActualTransactionActive());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> fork(Callable<T> task) {
+        if (executor == null) {
+            var result = call(task);
+            return () -> result;
+        }
+        var future = (Future<T>) completions.submit((Callable<Object>) task);
+        forks.add((Future<Object>) future);
+        return () -> {
+            if (!future.isDone()) {
+                throw new IllegalStateException("The fork has not completed, join the scope first");
+            }
+            return future.resultNow();
+        };
+    }
+
+    public void join() {
+        try {
+            for (int i = 0; i < forks.size(); i++) {
+                var completed = completions.take();
+                if (completed.state() == Future.State.FAILED) {
+                    cancelAll();
+                    throw rethrow(completed.exceptionNow());
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the forks", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            cancelAll();
+            executor.close();
+        }
+    }
+
+    private void cancelAll() {
+        forks.forEach(fork -> fork.cancel(true));
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(e);
+    }
+}
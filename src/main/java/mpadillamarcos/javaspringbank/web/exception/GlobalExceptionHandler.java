@@ -1,17 +1,25 @@
 package mpadillamarcos.javaspringbank.web.exception;
 
 import mpadillamarcos.javaspringbank.domain.exception.AccessDeniedException;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionConflictException;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionQueueFullException;
+import mpadillamarcos.javaspringbank.domain.exception.IdempotencyKeyConflictException;
 import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.InvalidAmountException;
 import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
 import mpadillamarcos.javaspringbank.domain.exception.TransactionNotAllowedException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.Map;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -43,4 +51,42 @@ public class GlobalExceptionHandler {
                 .status(FORBIDDEN)
                 .body(Map.of("message", exception.getMessage()));
     }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Map<String, String>> idempotencyKeyConflict(IdempotencyKeyConflictException exception) {
+        return ResponseEntity
+                .status(CONFLICT)
+                .body(Map.of("message", exception.getMessage()));
+    }
+
+    @ExceptionHandler(DecisionConflictException.class)
+    public ResponseEntity<Map<String, String>> decisionConflict(DecisionConflictException exception) {
+        return ResponseEntity
+                .status(CONFLICT)
+                .body(Map.of("message", exception.getMessage()));
+    }
+
+    @ExceptionHandler(DecisionQueueFullException.class)
+    public ResponseEntity<Map<String, String>> decisionQueueFull(DecisionQueueFullException exception) {
+        return ResponseEntity
+                .status(SERVICE_UNAVAILABLE)
+                .body(Map.of("message", exception.getMessage()));
+    }
+
+    /**
+     * Also matches when the amount of a request body could not be read as an amount of its currency.
+     */
+    @ExceptionHandler(InvalidAmountException.class)
+    public ResponseEntity<Map<String, String>> invalidAmount(InvalidAmountException exception) {
+        return ResponseEntity
+                .status(BAD_REQUEST)
+                .body(Map.of("message", exception.getMessage()));
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Map<String, String>> concurrencyFailure(ConcurrencyFailureException exception) {
+        return ResponseEntity
+                .status(CONFLICT)
+                .body(Map.of("message", exception.getMessage()));
+    }
 }
@@ -0,0 +1,25 @@
+package mpadillamarcos.javaspringbank.web.transaction;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+
+import java.util.UUID;
+
+@Data
+public class BatchTransferItem {
+
+    @NotNull
+    private UUID userId;
+
+    @NotNull
+    private UUID originAccountId;
+
+    @NotNull
+    private UUID destinationAccountId;
+
+    @NotNull
+    private Money amount;
+
+    private String concept;
+}
@@ -0,0 +1,16 @@
+package mpadillamarcos.javaspringbank.web.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid BatchTransferItem> transfers;
+}
@@ -0,0 +1,18 @@
+package mpadillamarcos.javaspringbank.web.transaction;
+
+import lombok.Builder;
+import lombok.Data;
+import mpadillamarcos.javaspringbank.domain.transaction.DecisionState;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class DecisionStatusDto {
+
+    private final UUID transactionId;
+    private final TransactionDecision decision;
+    private final DecisionState state;
+    private final String error;
+}
@@ -1,78 +1,153 @@
 package mpadillamarcos.javaspringbank.web.transaction;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotencyService;
+import mpadillamarcos.javaspringbank.domain.transaction.BatchTransferService;
+import mpadillamarcos.javaspringbank.domain.transaction.DecisionStatus;
 import mpadillamarcos.javaspringbank.domain.transaction.Transaction;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionDecisionQueue;
 import mpadillamarcos.javaspringbank.domain.transaction.TransactionService;
+import mpadillamarcos.javaspringbank.domain.transaction.TransferResult;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
 import static mpadillamarcos.javaspringbank.domain.account.AccountId.accountId;
+import static mpadillamarcos.javaspringbank.domain.idempotency.IdempotencyService.fingerprint;
 import static mpadillamarcos.javaspringbank.domain.transaction.DepositRequest.depositRequest;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.CONFIRM;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.REJECT;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.transactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.*;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransferRequest.transferRequest;
 import static mpadillamarcos.javaspringbank.domain.transaction.WithdrawRequest.withdrawRequest;
 import static mpadillamarcos.javaspringbank.domain.user.UserId.userId;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentContextPath;
 
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TransactionService service;
+    private final BatchTransferService batchTransferService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionDecisionQueue decisionQueue;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/users/{userId}/accounts/{accountId}/transfer")
     public void transfer(
             @PathVariable UUID userId,
             @PathVariable UUID accountId,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody TransferRequest request) {
-        service.transfer(transferRequest()
+        var transferRequest = transferRequest()
                 .originAccountId(accountId(accountId))
                 .userId(userId(userId))
                 .destinationAccountId(accountId(request.getDestinationAccountId()))
                 .amount(request.getAmount())
                 .concept(request.getConcept())
-                .build());
+                .build();
+
+        var fingerprint = fingerprint(request.getAmount(), request.getDestinationAccountId(), request.getConcept());
+        idempotencyService.execute(idempotencyKey, userId(userId), accountId(accountId), TRANSFER, fingerprint, () ->
+                service.transfer(transferRequest));
+    }
+
+    @PostMapping("/transfers/batch")
+    public List<TransferResultDto> transferBatch(@Valid @RequestBody BatchTransferRequest request) {
+        var transfers = request.getTransfers().stream()
+                .map(transfer -> transferRequest()
+                        .originAccountId(accountId(transfer.getOriginAccountId()))
+                        .userId(userId(transfer.getUserId()))
+                        .destinationAccountId(accountId(transfer.getDestinationAccountId()))
+                        .amount(transfer.getAmount())
+                        .concept(transfer.getConcept())
+                        .build())
+                .toList();
+
+        return batchTransferService.transfer(transfers)
+                .stream()
+                .map(this::toDto)
+                .toList();
     }
 
     @PostMapping("/users/{userId}/accounts/{accountId}/withdraw")
     public void withdraw(
             @PathVariable UUID userId,
             @PathVariable UUID accountId,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody WithdrawRequest request) {
-        service.withdraw(withdrawRequest()
+        var withdrawRequest = withdrawRequest()
                 .accountId(accountId(accountId))
                 .userId(userId(userId))
                 .amount(request.getAmount())
                 .concept(request.getConcept())
-                .build());
+                .build();
+
+        var fingerprint = fingerprint(request.getAmount(), request.getConcept());
+        idempotencyService.execute(idempotencyKey, userId(userId), accountId(accountId), WITHDRAW, fingerprint, () ->
+                service.withdraw(withdrawRequest));
     }
 
     @PostMapping("/users/{userId}/accounts/{accountId}/deposit")
     public void deposit(
             @PathVariable UUID userId,
             @PathVariable UUID accountId,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody DepositRequest request) {
-        service.deposit(depositRequest()
+        var depositRequest = depositRequest()
                 .accountId(accountId(accountId))
                 .userId(userId(userId))
                 .amount(request.getAmount())
                 .concept(request.getConcept())
-                .build());
+                .build();
+
+        var fingerprint = fingerprint(request.getAmount(), request.getConcept());
+        idempotencyService.execute(idempotencyKey, userId(userId), accountId(accountId), DEPOSIT, fingerprint, () ->
+                service.deposit(depositRequest));
     }
 
     @PostMapping("/transactions/{transactionId}/confirm")
-    public void confirm(@PathVariable UUID transactionId) {
+    public ResponseEntity<DecisionStatusDto> confirm(@PathVariable UUID transactionId) {
+        if (decisionQueue.isEnabled()) {
+            return accepted(transactionId, decisionQueue.submit(transactionId(transactionId), CONFIRM));
+        }
         service.confirm(transactionId(transactionId));
+        return ResponseEntity.ok().build();
     }
 
     @PostMapping("/transactions/{transactionId}/reject")
-    public void reject(@PathVariable UUID transactionId) {
+    public ResponseEntity<DecisionStatusDto> reject(@PathVariable UUID transactionId) {
+        if (decisionQueue.isEnabled()) {
+            return accepted(transactionId, decisionQueue.submit(transactionId(transactionId), REJECT));
+        }
         service.reject(transactionId(transactionId));
+        return ResponseEntity.ok().build();
     }
 
-    @GetMapping("/accounts/{accountId}/transactions")
+    @GetMapping("/transactions/{transactionId}/decision")
+    public DecisionStatusDto getDecision(@PathVariable UUID transactionId) {
+        return decisionQueue.findStatus(transactionId(transactionId))
+                .map(status -> toDto(transactionId, status))
+                .orElseThrow(() -> new NotFoundException("No decision found for transaction ID " + transactionId));
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/transactions", params = {"!limit", "!next"})
     public List<TransactionDto> listTransactions(@PathVariable UUID accountId) {
         return service.listTransactionsByAccountId(accountId(accountId))
                 .stream()
@@ -80,6 +155,47 @@ public class TransactionController {
                 .toList();
     }
 
+    // answers only when limit or next is sent, so clients that send neither still get the plain array
+    @GetMapping("/accounts/{accountId}/transactions")
+    public TransactionPageDto listTransactionPage(
+            @PathVariable UUID accountId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(required = false) String next) {
+        var after = next == null ? null : TransactionPageToken.decode(next);
+        var page = service.listTransactionsByAccountId(accountId(accountId), after, limit);
+
+        return TransactionPageDto.builder()
+                .transactions(page.getTransactions().stream()
+                        .map(this::toDto)
+                        .toList())
+                .next(page.getNext()
+                        .map(TransactionPageToken::encode)
+                        .orElse(null))
+                .build();
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/transactions/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable UUID accountId) {
+        var writer = objectMapper.writerFor(TransactionDto.class).without(FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (var generator = writer.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                service.exportTransactionsByAccountId(accountId(accountId), transaction -> {
+                    try {
+                        writer.writeValue(generator, toDto(transaction));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
     private TransactionDto toDto(Transaction transaction) {
         return TransactionDto.builder()
                 .id(transaction.getId().value())
@@ -94,4 +210,26 @@ public class TransactionController {
                 .build();
     }
 
+    private ResponseEntity<DecisionStatusDto> accepted(UUID transactionId, DecisionStatus status) {
+        return ResponseEntity.accepted()
+                .location(fromCurrentContextPath().path("/transactions/{transactionId}/decision").build(transactionId))
+                .body(toDto(transactionId, status));
+    }
+
+    private DecisionStatusDto toDto(UUID transactionId, DecisionStatus status) {
+        return DecisionStatusDto.builder()
+                .transactionId(transactionId)
+                .decision(status.getDecision())
+                .state(status.getState())
+                .error(status.getError())
+                .build();
+    }
+
+    private TransferResultDto toDto(TransferResult result) {
+        return TransferResultDto.builder()
+                .transactionId(result.isTransferred() ? result.getTransactionId().value() : null)
+                .error(result.getError())
+                .build();
+    }
+
 }
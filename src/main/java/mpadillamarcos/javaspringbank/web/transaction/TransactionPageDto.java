@@ -0,0 +1,14 @@
+package mpadillamarcos.javaspringbank.web.transaction;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionPageDto {
+
+    private final List<TransactionDto> transactions;
+    private final String next;
+}
@@ -0,0 +1,37 @@
+package mpadillamarcos.javaspringbank.web.transaction;
+
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.transactionId;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class TransactionPageToken {
+
+    private static final String SEPARATOR = ":";
+
+    static String encode(TransactionCursor cursor) {
+        var createdDate = cursor.getCreatedDate();
+        var value = createdDate.getEpochSecond() + SEPARATOR + createdDate.getNano() + SEPARATOR + cursor.getId().value();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(UTF_8));
+    }
+
+    static TransactionCursor decode(String token) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(token), UTF_8).split(SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("unexpected page token format");
+            }
+            var createdDate = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TransactionCursor(createdDate, transactionId(UUID.fromString(parts[2])));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ResponseStatusException(BAD_REQUEST, "invalid page token", e);
+        }
+    }
+}
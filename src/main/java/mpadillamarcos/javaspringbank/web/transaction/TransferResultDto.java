@@ -0,0 +1,14 @@
+package mpadillamarcos.javaspringbank.web.transaction;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class TransferResultDto {
+
+    private final UUID transactionId;
+    private final String error;
+}
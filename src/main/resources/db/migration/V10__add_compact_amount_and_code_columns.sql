@@ -0,0 +1,20 @@
+-- Amounts move to bigint minor units of their currency and enums to the smallint codes of the
+-- MyBatis type handlers in infra/type. The columns are added empty here, filled in batches by
+-- V11__Backfill_compact_columns and swapped for the text and numeric columns by V12.
+
+ALTER TABLE accounts ADD COLUMN state_code smallint;
+
+ALTER TABLE accesses ADD COLUMN type_code smallint, ADD COLUMN state_code smallint;
+
+ALTER TABLE balances ADD COLUMN amount_minor bigint, ADD COLUMN currency_code smallint;
+
+ALTER TABLE balance_slots ADD COLUMN amount_minor bigint, ADD COLUMN currency_code smallint;
+
+ALTER TABLE transactions
+    ADD COLUMN amount_minor bigint,
+    ADD COLUMN currency_code smallint,
+    ADD COLUMN state_code smallint,
+    ADD COLUMN direction_code smallint,
+    ADD COLUMN type_code smallint;
+
+ALTER TABLE idempotent_requests ADD COLUMN type_code smallint;
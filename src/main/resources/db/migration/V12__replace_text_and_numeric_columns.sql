@@ -0,0 +1,43 @@
+-- Fails if V11 left a row without its compact values, for example one written by an instance
+-- that was still running the previous release during the backfill.
+
+ALTER TABLE accounts ALTER COLUMN state_code SET NOT NULL;
+ALTER TABLE accounts DROP COLUMN state;
+ALTER TABLE accounts RENAME COLUMN state_code TO state;
+
+ALTER TABLE accesses ALTER COLUMN type_code SET NOT NULL, ALTER COLUMN state_code SET NOT NULL;
+ALTER TABLE accesses DROP COLUMN type, DROP COLUMN state;
+ALTER TABLE accesses RENAME COLUMN type_code TO type;
+ALTER TABLE accesses RENAME COLUMN state_code TO state;
+
+-- 1 is AccessState.GRANTED
+CREATE INDEX accesses_user_id_granted_idx ON accesses (user_id) WHERE state = 1;
+
+ALTER TABLE balances ALTER COLUMN amount_minor SET NOT NULL, ALTER COLUMN currency_code SET NOT NULL;
+ALTER TABLE balances DROP COLUMN amount, DROP COLUMN currency;
+ALTER TABLE balances RENAME COLUMN amount_minor TO amount;
+ALTER TABLE balances RENAME COLUMN currency_code TO currency;
+
+ALTER TABLE balance_slots ALTER COLUMN amount_minor SET NOT NULL, ALTER COLUMN currency_code SET NOT NULL;
+ALTER TABLE balance_slots DROP COLUMN amount, DROP COLUMN currency;
+ALTER TABLE balance_slots RENAME COLUMN amount_minor TO amount;
+ALTER TABLE balance_slots RENAME COLUMN currency_code TO currency;
+
+CREATE INDEX balance_slots_funded_idx ON balance_slots (account_id) WHERE amount > 0;
+
+ALTER TABLE transactions
+    ALTER COLUMN amount_minor SET NOT NULL,
+    ALTER COLUMN currency_code SET NOT NULL,
+    ALTER COLUMN state_code SET NOT NULL,
+    ALTER COLUMN direction_code SET NOT NULL,
+    ALTER COLUMN type_code SET NOT NULL;
+ALTER TABLE transactions DROP COLUMN amount, DROP COLUMN currency, DROP COLUMN state, DROP COLUMN direction, DROP COLUMN type;
+ALTER TABLE transactions RENAME COLUMN amount_minor TO amount;
+ALTER TABLE transactions RENAME COLUMN currency_code TO currency;
+ALTER TABLE transactions RENAME COLUMN state_code TO state;
+ALTER TABLE transactions RENAME COLUMN direction_code TO direction;
+ALTER TABLE transactions RENAME COLUMN type_code TO type;
+
+ALTER TABLE idempotent_requests ALTER COLUMN type_code SET NOT NULL;
+ALTER TABLE idempotent_requests DROP COLUMN type;
+ALTER TABLE idempotent_requests RENAME COLUMN type_code TO type;
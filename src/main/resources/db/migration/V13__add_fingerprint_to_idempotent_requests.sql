@@ -0,0 +1,2 @@
+-- Empty for the requests stored before, which are then only matched on account and type.
+ALTER TABLE idempotent_requests ADD COLUMN fingerprint text;
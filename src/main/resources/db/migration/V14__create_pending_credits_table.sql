@@ -0,0 +1,13 @@
+-- Credits to hot accounts committed with their transactions, applied to the balances in batches
+-- by the CreditCoalescer. Rows are only inserted and deleted, so concurrent credits never wait
+-- on each other. The flusher finds the accounts with pending credits by hopping through the
+-- account_id index rather than reading every row.
+
+CREATE TABLE pending_credits (
+    id bigserial PRIMARY KEY,
+    account_id uuid not null,
+    amount bigint not null,
+    currency smallint not null
+);
+
+CREATE INDEX pending_credits_account_id_idx ON pending_credits (account_id);
@@ -0,0 +1,9 @@
+CREATE TABLE idempotent_requests (
+    user_id uuid not null,
+    key text not null,
+    account_id uuid not null,
+    type text not null,
+    transaction_id uuid not null,
+    created_date timestamp not null,
+    PRIMARY KEY (user_id, key)
+)
@@ -0,0 +1 @@
+ALTER TABLE balances ADD COLUMN version bigint not null default 0
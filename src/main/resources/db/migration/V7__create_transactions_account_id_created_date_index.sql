@@ -0,0 +1 @@
+CREATE INDEX transactions_account_id_created_date_id_idx ON transactions (account_id, created_date DESC, id DESC)
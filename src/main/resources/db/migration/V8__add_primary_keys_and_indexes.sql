@@ -0,0 +1,26 @@
+ALTER TABLE accounts ADD PRIMARY KEY (id);
+
+-- Granting access again after revoking it used to insert another row, so keep only the granted
+-- access of each user and account, or else the latest one.
+DELETE FROM accesses
+WHERE ctid IN (
+    SELECT ctid
+    FROM (
+        SELECT ctid, row_number() OVER (
+            PARTITION BY account_id, user_id
+            ORDER BY state = 'GRANTED' DESC, created_date DESC
+        ) AS rank
+        FROM accesses
+    ) ranked
+    WHERE rank > 1
+);
+
+ALTER TABLE accesses ADD PRIMARY KEY (account_id, user_id);
+
+CREATE INDEX accesses_user_id_granted_idx ON accesses (user_id) WHERE state = 'GRANTED';
+
+ALTER TABLE balances ADD PRIMARY KEY (account_id);
+
+ALTER TABLE transactions ADD PRIMARY KEY (id);
+
+CREATE INDEX transactions_group_id_idx ON transactions (group_id);
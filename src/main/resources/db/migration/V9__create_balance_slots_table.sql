@@ -0,0 +1,9 @@
+CREATE TABLE balance_slots (
+    account_id uuid not null,
+    slot int not null,
+    amount numeric not null,
+    currency text not null,
+    PRIMARY KEY (account_id, slot)
+);
+
+CREATE INDEX balance_slots_funded_idx ON balance_slots (account_id) WHERE amount > 0
@@ -0,0 +1,155 @@
+package db.migration;
+
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.account.AccountMapper;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Migrates a schema of its own up to V10, writes rows the way the previous release did, and then
+ * runs the backfill and the column swap over them.
+ */
+@SpringBootTest(classes = {AccountMapper.class})
+class BackfillCompactColumnsTest extends MapperTestBase {
+
+    private static final String SCHEMA = "backfill_test";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private SingleConnectionDataSource connection;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void migrateToTheExpandedSchema() throws SQLException {
+        flyway().target("10").load().migrate();
+        connection = new SingleConnectionDataSource(dataSource.getConnection(), true);
+        jdbcTemplate = new JdbcTemplate(connection);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+    }
+
+    @AfterEach
+    void dropSchema() {
+        jdbcTemplate.execute("RESET search_path");
+        jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        connection.destroy();
+    }
+
+    @Test
+    void stores_amounts_in_minor_units_of_their_currency() {
+        jdbcTemplate.execute("""
+                INSERT INTO balances (account_id, amount, currency, version)
+                VALUES ('00000000-0000-0000-0000-000000000001', 12.350, 'EUR', 0),
+                       ('00000000-0000-0000-0000-000000000002', 1500, 'JPY', 0),
+                       ('00000000-0000-0000-0000-000000000003', 0.5, 'EUR', 0)
+                """);
+
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT amount, currency FROM balances ORDER BY account_id"))
+                .containsExactly(
+                        Map.of("amount", 1235L, "currency", 978),
+                        Map.of("amount", 1500L, "currency", 392),
+                        Map.of("amount", 50L, "currency", 978));
+    }
+
+    @Test
+    void stores_enums_as_their_codes() {
+        jdbcTemplate.execute("""
+                INSERT INTO accounts (id, user_id, created_date, state)
+                VALUES ('00000000-0000-0000-0000-000000000001', gen_random_uuid(), now(), 'BLOCKED');
+                INSERT INTO accesses (account_id, user_id, created_date, type, state)
+                VALUES ('00000000-0000-0000-0000-000000000001', gen_random_uuid(), now(), 'VIEWER', 'REVOKED');
+                INSERT INTO transactions (id, group_id, user_id, account_id, amount, currency, created_date, state,
+                                          direction, type, concept)
+                VALUES (gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), 10.5, 'EUR', now(),
+                        'REVERTED', 'INCOMING', 'TRANSFER', 'rent');
+                INSERT INTO idempotent_requests (user_id, key, account_id, type, transaction_id, created_date)
+                VALUES (gen_random_uuid(), 'key', gen_random_uuid(), 'DEPOSIT', gen_random_uuid(), now())
+                """);
+
+        migrate();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT state FROM accounts", Short.class)).isEqualTo((short) 2);
+        assertThat(jdbcTemplate.queryForMap("SELECT type, state FROM accesses"))
+                .containsOnly(entry("type", 3), entry("state", 2));
+        assertThat(jdbcTemplate.queryForMap("SELECT amount, currency, state, direction, type, concept FROM transactions"))
+                .containsOnly(
+                        entry("amount", 1050L),
+                        entry("currency", 978),
+                        entry("state", 4),
+                        entry("direction", 1),
+                        entry("type", 3),
+                        entry("concept", "rent"));
+        assertThat(jdbcTemplate.queryForObject("SELECT type FROM idempotent_requests", Short.class)).isEqualTo((short) 2);
+    }
+
+    @Test
+    void fills_tables_larger_than_one_batch() {
+        var rows = V11__Backfill_compact_columns.BATCH_SIZE * 2 + 1;
+        jdbcTemplate.execute("""
+                INSERT INTO balance_slots (account_id, slot, amount, currency)
+                SELECT gen_random_uuid(), slot, 1, 'EUR' FROM generate_series(1, %d) AS slot
+                """.formatted(rows));
+
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT amount FROM balance_slots", Long.class))
+                .isEqualTo(List.of(100L));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM balance_slots", Integer.class)).isEqualTo(rows);
+    }
+
+    @Test
+    void fails_instead_of_dropping_a_value_without_code() {
+        jdbcTemplate.execute("""
+                INSERT INTO accounts (id, user_id, created_date, state)
+                VALUES (gen_random_uuid(), gen_random_uuid(), now(), 'FROZEN')
+                """);
+
+        assertThrows(FlywayException.class, this::migrate);
+        assertThat(jdbcTemplate.queryForObject("SELECT state FROM accounts", String.class)).isEqualTo("FROZEN");
+    }
+
+    @Test
+    void fails_before_writing_when_an_amount_has_fractions_of_a_minor_unit() {
+        jdbcTemplate.execute("""
+                INSERT INTO accounts (id, user_id, created_date, state)
+                VALUES (gen_random_uuid(), gen_random_uuid(), now(), 'OPEN');
+                INSERT INTO transactions (id, group_id, user_id, account_id, amount, currency, created_date, state,
+                                          direction, type, concept)
+                VALUES (gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), 0.005, 'EUR', now(),
+                        'CONFIRMED', 'INCOMING', 'DEPOSIT', null)
+                """);
+
+        assertThrows(FlywayException.class, this::migrate);
+        assertThat(jdbcTemplate.queryForObject("SELECT amount FROM transactions", String.class)).isEqualTo("0.005");
+        assertThat(jdbcTemplate.queryForObject("SELECT state_code FROM accounts", Short.class)).isNull();
+    }
+
+    private void migrate() {
+        flyway().load().migrate();
+    }
+
+    private FluentConfiguration flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA);
+    }
+}
@@ -0,0 +1,33 @@
+package mpadillamarcos.javaspringbank;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("in-memory")
+class InMemoryApplicationTests extends BankScenarios {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) throws IOException {
+        var directory = Files.createTempDirectory("bank-journal");
+        registry.add("bank.journal.path", () -> directory.resolve("bank.journal").toString());
+        registry.add("bank.journal.snapshot.path", () -> directory.resolve("bank.snapshot").toString());
+    }
+
+    @Test
+    void runs_without_a_database() {
+        assertThat(context.getBeanNamesForType(DataSource.class)).isEmpty();
+    }
+}
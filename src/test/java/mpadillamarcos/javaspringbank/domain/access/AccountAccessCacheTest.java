@@ -0,0 +1,44 @@
+package mpadillamarcos.javaspringbank.domain.access;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyAccountAccess;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountAccessCacheTest {
+
+    private final AccountAccessCache cache = new AccountAccessCache(100, 60_000);
+
+    @Test
+    void keeps_entries_per_account_and_user() {
+        var access = dummyAccountAccess().build();
+
+        cache.get(access.getAccountId(), access.getUserId(), (accountId, userId) -> Optional.of(access));
+
+        assertThat(cache.get(access.getAccountId(), randomUserId(), (accountId, userId) -> Optional.empty())).isEmpty();
+        assertThat(cache.get(randomAccountId(), access.getUserId(), (accountId, userId) -> Optional.empty())).isEmpty();
+        assertThat(cache.get(access.getAccountId(), access.getUserId(), (accountId, userId) -> Optional.empty()))
+                .hasValue(access);
+    }
+
+    @Test
+    void publishes_hits_and_misses() {
+        var registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        var accountId = randomAccountId();
+        var userId = randomUserId();
+
+        cache.get(accountId, userId, (a, u) -> Optional.empty());
+        cache.get(accountId, userId, (a, u) -> Optional.empty());
+
+        assertThat(registry.get("cache.gets").tags("cache", "account-accesses", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "account-accesses", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+}
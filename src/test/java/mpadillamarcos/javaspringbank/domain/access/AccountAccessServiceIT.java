@@ -0,0 +1,45 @@
+package mpadillamarcos.javaspringbank.domain.access;
+
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.TestClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static mpadillamarcos.javaspringbank.domain.access.AccessState.GRANTED;
+import static mpadillamarcos.javaspringbank.domain.access.AccessType.OPERATOR;
+import static mpadillamarcos.javaspringbank.domain.access.AccessType.VIEWER;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        classes = {
+                AccountAccessService.class,
+                AccountAccessCache.class,
+                TestClock.class
+        }
+)
+public class AccountAccessServiceIT extends MapperTestBase {
+
+    @Autowired
+    private AccountAccessService accessService;
+    @Autowired
+    private AccountAccessRepository accessRepository;
+
+    @Test
+    void grants_an_access_again_after_it_was_revoked() {
+        var accountId = randomAccountId();
+        var userId = randomUserId();
+
+        accessService.grantAccess(accountId, userId, VIEWER);
+        accessService.revokeAccess(accountId, userId);
+        accessService.grantAccess(accountId, userId, OPERATOR);
+
+        assertThat(accessRepository.findAccountAccess(accountId, userId))
+                .get()
+                .returns(OPERATOR, AccountAccess::getType)
+                .returns(GRANTED, AccountAccess::getState);
+        assertThat(accessService.findAccountAccess(accountId, userId)).isPresent();
+    }
+}
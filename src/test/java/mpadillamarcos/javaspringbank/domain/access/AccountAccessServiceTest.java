@@ -14,11 +14,13 @@ import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
 import static mpadillamarcos.javaspringbank.infra.TestClock.NOW;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.*;
 
 class AccountAccessServiceTest {
 
-    private final AccountAccessRepository repository = new InMemoryAccountAccessRepository();
-    private final AccountAccessService service = new AccountAccessService(repository, new TestClock());
+    private final AccountAccessRepository repository = spy(new InMemoryAccountAccessRepository());
+    private final AccountAccessCache cache = new AccountAccessCache(100, 60_000);
+    private final AccountAccessService service = new AccountAccessService(repository, cache, new TestClock());
 
     @Nested
     class GrantAccess {
@@ -50,6 +52,22 @@ class AccountAccessServiceTest {
                     .get()
                     .returns(OPERATOR, AccountAccess::getType);
         }
+
+        @Test
+        void grants_a_revoked_access_again() {
+            var accountId = randomAccountId();
+            var userId = randomUserId();
+
+            service.grantAccess(accountId, userId, VIEWER);
+            service.revokeAccess(accountId, userId);
+            service.grantAccess(accountId, userId, OPERATOR);
+
+            assertThat(repository.findGrantedAccountAccess(accountId, userId))
+                    .get()
+                    .returns(OPERATOR, AccountAccess::getType)
+                    .returns(GRANTED, AccountAccess::getState);
+            verify(repository, times(1)).insert(any());
+        }
     }
 
     @Nested
@@ -76,4 +94,57 @@ class AccountAccessServiceTest {
                     .returns(REVOKED, AccountAccess::getState);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class FindAccountAccess {
+
+        @Test
+        void serves_repeated_lookups_from_memory() {
+            var accountId = randomAccountId();
+            var userId = randomUserId();
+            service.grantAccess(accountId, userId, OPERATOR);
+
+            service.findAccountAccess(accountId, userId);
+            var access = service.findAccountAccess(accountId, userId);
+
+            assertThat(access).get().returns(OPERATOR, AccountAccess::getType);
+            verify(repository, times(1)).findGrantedAccountAccess(accountId, userId);
+            assertThat(cache.stats().hitCount()).isEqualTo(1);
+        }
+
+        @Test
+        void caches_missing_accesses() {
+            var accountId = randomAccountId();
+            var userId = randomUserId();
+
+            service.findAccountAccess(accountId, userId);
+            var access = service.findAccountAccess(accountId, userId);
+
+            assertThat(access).isEmpty();
+            verify(repository, times(1)).findGrantedAccountAccess(accountId, userId);
+        }
+
+        @Test
+        void finds_access_granted_after_a_cached_miss() {
+            var accountId = randomAccountId();
+            var userId = randomUserId();
+            service.findAccountAccess(accountId, userId);
+
+            service.grantAccess(accountId, userId, VIEWER);
+
+            assertThat(service.findAccountAccess(accountId, userId)).get().returns(VIEWER, AccountAccess::getType);
+        }
+
+        @Test
+        void finds_no_access_right_after_it_is_revoked() {
+            var accountId = randomAccountId();
+            var userId = randomUserId();
+            service.grantAccess(accountId, userId, OPERATOR);
+            service.findAccountAccess(accountId, userId);
+
+            service.revokeAccess(accountId, userId);
+
+            assertThat(service.findAccountAccess(accountId, userId)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package mpadillamarcos.javaspringbank.domain.account;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.Optional;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyAccount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.*;
+
+class AccountCacheTest {
+
+    private final AccountCache cache = new AccountCache(100, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        if (isSynchronizationActive()) {
+            clearSynchronization();
+        }
+    }
+
+    @Test
+    void expires_entries_after_the_ttl() throws InterruptedException {
+        var cache = new AccountCache(100, 10);
+        var account = dummyAccount().build();
+        cache.get(account.getId(), id -> Optional.of(account));
+
+        Thread.sleep(20);
+
+        assertThat(cache.get(account.getId(), id -> Optional.of(account.block()))).hasValue(account.block());
+    }
+
+    @Test
+    void evicts_again_when_the_transaction_completes() {
+        var account = dummyAccount().build();
+        initSynchronization();
+
+        cache.invalidate(account.getId());
+        cache.get(account.getId(), id -> Optional.of(account));
+        getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.get(account.getId(), id -> Optional.of(account.block()))).hasValue(account.block());
+    }
+
+    @Test
+    void publishes_hits_and_misses() {
+        var registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        var account = dummyAccount().build();
+
+        cache.get(account.getId(), id -> Optional.of(account));
+        cache.get(account.getId(), id -> Optional.of(account));
+        cache.get(account.getId(), id -> Optional.of(account));
+
+        assertThat(registry.get("cache.gets").tags("cache", "accounts", "result", "hit").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("cache.gets").tags("cache", "accounts", "result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+}
@@ -1,7 +1,11 @@
 package mpadillamarcos.javaspringbank.domain.account;
 
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessCache;
 import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.balance.AtomicBalanceLedger;
 import mpadillamarcos.javaspringbank.domain.balance.BalanceService;
+import mpadillamarcos.javaspringbank.domain.balance.CreditCoalescer;
+import mpadillamarcos.javaspringbank.domain.balance.HotAccountBalances;
 import mpadillamarcos.javaspringbank.infra.MapperTestBase;
 import mpadillamarcos.javaspringbank.infra.TestClock;
 import org.junit.jupiter.api.Nested;
@@ -19,8 +23,13 @@ import static org.mockito.Mockito.doThrow;
 @SpringBootTest(
         classes = {
                 AccountService.class,
+                AccountCache.class,
                 AccountAccessService.class,
+                AccountAccessCache.class,
                 BalanceService.class,
+                AtomicBalanceLedger.class,
+                HotAccountBalances.class,
+                CreditCoalescer.class,
                 TestClock.class
         }
 )
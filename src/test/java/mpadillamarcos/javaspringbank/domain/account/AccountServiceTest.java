@@ -11,9 +11,11 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 import static java.time.Instant.now;
 import static java.time.temporal.ChronoUnit.DAYS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static mpadillamarcos.javaspringbank.domain.Instances.*;
 import static mpadillamarcos.javaspringbank.domain.access.AccessType.OWNER;
 import static mpadillamarcos.javaspringbank.domain.access.AccessType.VIEWER;
@@ -28,14 +30,18 @@ import static org.mockito.Mockito.*;
 
 class AccountServiceTest {
 
-    private final AccountRepository repository = new InMemoryAccountRepository();
+    private final AccountRepository repository = spy(new InMemoryAccountRepository());
+    private final AccountCache cache = new AccountCache(100, 60_000);
     private final BalanceService balanceService = mock(BalanceService.class);
     private final AccountAccessService accessService = mock(AccountAccessService.class);
     private final AccountService service = new AccountService(
             balanceService,
             accessService,
             repository,
-            new TestClock()
+            cache,
+            new TestClock(),
+            true,
+            true
     );
 
     @Nested
@@ -143,6 +149,46 @@ class AccountServiceTest {
                     new AccountView(account2, access2, balance2)
             );
         }
+
+        @Test
+        void reads_balances_and_accounts_concurrently() {
+            var userId = randomUserId();
+            var account = createAccount(dummyAccount().userId(userId));
+            var access = dummyAccountAccess().accountId(account.getId()).userId(userId).build();
+            var balance = dummyBalance().accountId(account.getId()).build();
+            var bothRunning = new CountDownLatch(2);
+
+            when(accessService.listAllAccountAccesses(userId)).thenReturn(List.of(access));
+            when(balanceService.getBalances(Set.of(account.getId()))).thenAnswer(invocation -> {
+                bothRunning.countDown();
+                assertThat(bothRunning.await(5, SECONDS)).isTrue();
+                return List.of(balance);
+            });
+            doAnswer(invocation -> {
+                bothRunning.countDown();
+                assertThat(bothRunning.await(5, SECONDS)).isTrue();
+                return invocation.callRealMethod();
+            }).when(repository).getAccounts(Set.of(account.getId()));
+
+            var accounts = service.listUserAccounts(userId);
+
+            assertThat(accounts).containsExactly(new AccountView(account, access, balance));
+        }
+
+        @Test
+        void reads_the_joined_views_when_the_balances_table_is_up_to_date() {
+            var userId = randomUserId();
+            var account = dummyAccount().userId(userId).build();
+            var view = new AccountView(account, dummyAccountAccess().accountId(account.getId()).userId(userId).build(),
+                    dummyBalance().accountId(account.getId()).build());
+
+            when(balanceService.readsFromRepository()).thenReturn(true);
+            doReturn(List.of(view)).when(repository).findAccountViews(userId);
+
+            assertThat(service.listUserAccounts(userId)).containsExactly(view);
+            verifyNoInteractions(accessService);
+            verify(balanceService, never()).getBalances(any());
+        }
     }
 
     @Nested
@@ -166,6 +212,24 @@ class AccountServiceTest {
             assertThat(response).isEqualTo(Optional.of(accountView));
         }
 
+        @Test
+        void throws_not_found_without_waiting_for_the_other_lookups_when_user_has_no_access() {
+            var userId = randomUserId();
+            var account = createAccount(dummyAccount());
+            var accountId = account.getId();
+
+            when(accessService.findAccountAccess(accountId, userId)).thenReturn(Optional.empty());
+            when(balanceService.getBalance(accountId)).thenAnswer(invocation -> {
+                Thread.sleep(10_000);
+                return dummyBalance().accountId(accountId).build();
+            });
+
+            var start = System.nanoTime();
+            assertThrows(NotFoundException.class, () -> service.findAccountView(userId, accountId));
+
+            assertThat(System.nanoTime() - start).isLessThan(SECONDS.toNanos(5));
+        }
+
         @Test
         void returns_account_for_non_owner() {
             var userId = randomUserId();
@@ -187,6 +251,32 @@ class AccountServiceTest {
 
             assertThat(response).isEqualTo(Optional.of(accountView));
         }
+
+        @Test
+        void reads_the_joined_view_when_the_balances_table_is_up_to_date() {
+            var userId = randomUserId();
+            var account = dummyAccount().userId(userId).build();
+            var view = new AccountView(account, dummyAccountAccess().accountId(account.getId()).userId(userId).build(),
+                    dummyBalance().accountId(account.getId()).build());
+
+            when(balanceService.readsFromRepository()).thenReturn(true);
+            doReturn(Optional.of(view)).when(repository).findAccountView(userId, account.getId());
+
+            assertThat(service.findAccountView(userId, account.getId())).contains(view);
+            verifyNoInteractions(accessService);
+            verify(balanceService, never()).getBalance(any());
+        }
+
+        @Test
+        void throws_not_found_when_the_joined_view_is_missing() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+
+            when(balanceService.readsFromRepository()).thenReturn(true);
+            doReturn(Optional.empty()).when(repository).findAccountView(userId, accountId);
+
+            assertThrows(NotFoundException.class, () -> service.findAccountView(userId, accountId));
+        }
     }
 
     @Nested
@@ -200,6 +290,58 @@ class AccountServiceTest {
 
             assertThat(response).isEqualTo(account);
         }
+
+        @Test
+        void reads_the_account_from_the_repository_only_once() {
+            var account = createAccount(dummyAccount());
+
+            service.getById(account.getId());
+            service.getById(account.getId());
+
+            verify(repository, times(1)).findById(account.getId());
+            assertThat(cache.stats().hitCount()).isEqualTo(1);
+            assertThat(cache.stats().missCount()).isEqualTo(1);
+        }
+
+        @Test
+        void does_not_cache_missing_accounts() {
+            var account = dummyAccount().build();
+            assertThrows(NotFoundException.class, () -> service.getById(account.getId()));
+
+            repository.insert(account);
+
+            assertThat(service.getById(account.getId())).isEqualTo(account);
+        }
+
+        @Test
+        void returns_the_new_state_after_the_account_is_blocked() {
+            var account = createAccount(dummyAccount());
+            service.getById(account.getId());
+
+            service.blockAccount(account.getId());
+
+            assertThat(service.getById(account.getId()).getState()).isEqualTo(BLOCKED);
+        }
+
+        @Test
+        void returns_the_new_state_after_the_account_is_unblocked() {
+            var account = createAccount(dummyAccount().state(BLOCKED));
+            service.getById(account.getId());
+
+            service.unblockAccount(account.getId());
+
+            assertThat(service.getById(account.getId()).getState()).isEqualTo(OPEN);
+        }
+
+        @Test
+        void returns_the_new_state_after_the_account_is_closed() {
+            var account = createAccount(dummyAccount());
+            service.getById(account.getId());
+
+            service.closeAccount(account.getId());
+
+            assertThat(service.getById(account.getId()).getState()).isEqualTo(CLOSED);
+        }
     }
 
     @Nested
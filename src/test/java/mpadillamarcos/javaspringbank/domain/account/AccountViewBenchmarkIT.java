@@ -0,0 +1,94 @@
+package mpadillamarcos.javaspringbank.domain.account;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceService;
+import mpadillamarcos.javaspringbank.infra.TestClock;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.lang.System.nanoTime;
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures the latency of the account view reads when every query takes 5 ms, reading the
+ * balances and accounts one after the other and with {@code bank.account.parallel-reads}.
+ */
+@Slf4j
+class AccountViewBenchmarkIT {
+
+    private static final long DELAY_MILLIS = 5;
+    private static final int ITERATIONS = 300;
+
+    private final Account account = dummyAccount().build();
+    private final AccountId accountId = account.getId();
+    private final AccountAccessService accessService = mock(AccountAccessService.class, withSettings().stubOnly());
+    private final BalanceService balanceService = mock(BalanceService.class, withSettings().stubOnly());
+    private final AccountRepository repository = mock(AccountRepository.class, withSettings().stubOnly());
+
+    @Test
+    void compares_sequential_and_parallel_reads() {
+        var access = dummyAccountAccess().accountId(accountId).userId(account.getUserId()).build();
+        var balance = dummyBalance().accountId(accountId).build();
+        when(accessService.listAllAccountAccesses(any())).thenAnswer(delayed(List.of(access)));
+        when(accessService.findAccountAccess(any(), any())).thenAnswer(delayed(Optional.of(access)));
+        when(balanceService.getBalances(Set.of(accountId))).thenAnswer(delayed(List.of(balance)));
+        when(balanceService.getBalance(accountId)).thenAnswer(delayed(balance));
+        when(repository.getAccounts(Set.of(accountId))).thenAnswer(delayed(List.of(account)));
+        when(repository.findById(accountId)).thenAnswer(delayed(Optional.of(account)));
+
+        var sequential = service(false);
+        var parallel = service(true);
+        var listSequential = measure(() -> assertThat(sequential.listUserAccounts(account.getUserId())).hasSize(1));
+        var findSequential = measure(() -> assertThat(sequential.findAccountView(account.getUserId(), accountId)).isPresent());
+        var listParallel = measure(() -> assertThat(parallel.listUserAccounts(account.getUserId())).hasSize(1));
+        var findParallel = measure(() -> assertThat(parallel.findAccountView(account.getUserId(), accountId)).isPresent());
+        report("listUserAccounts sequential", listSequential);
+        report("findAccountView sequential", findSequential);
+        report("listUserAccounts parallel", listParallel);
+        report("findAccountView parallel", findParallel);
+
+        // the parallel legs overlap at least one 5 ms query that the sequential ones wait for in turn
+        assertThat(listParallel.getValueAtPercentile(50)).isLessThan(listSequential.getValueAtPercentile(50));
+        assertThat(findParallel.getValueAtPercentile(50)).isLessThan(findSequential.getValueAtPercentile(50));
+    }
+
+    private AccountService service(boolean parallelReads) {
+        return new AccountService(balanceService, accessService, repository, new AccountCache(1, 1), new TestClock(), parallelReads, false);
+    }
+
+    private Histogram measure(Runnable read) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            read.run();
+        }
+        var histogram = new Histogram(3);
+        for (int i = 0; i < ITERATIONS; i++) {
+            var start = nanoTime();
+            read.run();
+            histogram.recordValue(nanoTime() - start);
+        }
+        return histogram;
+    }
+
+    private static void report(String read, Histogram histogram) {
+        log.info("{}: {}", read, "p50 %.2f ms, p99 %.2f ms, max %.2f ms".formatted(
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getMaxValue() / 1e6));
+    }
+
+    private static <T> Answer<T> delayed(T result) {
+        return invocation -> {
+            Thread.sleep(DELAY_MILLIS);
+            return result;
+        };
+    }
+}
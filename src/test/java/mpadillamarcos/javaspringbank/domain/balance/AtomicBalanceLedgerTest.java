@@ -0,0 +1,113 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.money.Money.ofMinorUnits;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AtomicBalanceLedgerTest {
+
+    private final BalanceRepository repository = new InMemoryBalanceRepository();
+    private final AtomicBalanceLedger ledger = new AtomicBalanceLedger(repository);
+
+    @Nested
+    class Withdraw {
+
+        @Test
+        void throws_not_found_exception_when_balance_does_not_exist() {
+            assertThrows(NotFoundException.class, () -> ledger.withdraw(randomAccountId(), eur(10)));
+        }
+
+        @Test
+        void throws_exception_when_withdrawal_exceeds_current_balance_amount() {
+            var balance = createBalance(eur(100));
+
+            var exception = assertThrows(InsufficientBalanceException.class,
+                    () -> ledger.withdraw(balance.getAccountId(), eur(150)));
+
+            assertThat(exception.getMessage()).startsWith("The amount to withdraw (150.00) exceeds the current balance");
+            assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+        }
+
+        @Test
+        void throws_exception_when_amount_is_in_another_currency() {
+            var balance = createBalance(eur(100));
+
+            var exception = assertThrows(IllegalArgumentException.class,
+                    () -> ledger.withdraw(balance.getAccountId(), ofMinorUnits(10, JPY)));
+
+            assertThat(exception.getMessage()).isEqualTo("The currencies are different");
+            assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+        }
+
+        @Test
+        void withdraws_the_whole_balance() {
+            var balance = createBalance(eur(100));
+
+            ledger.withdraw(balance.getAccountId(), eur(100));
+
+            assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance.withdraw(eur(100)));
+        }
+
+        @Test
+        void never_withdraws_more_than_the_balance_concurrently() {
+            var balance = createBalance(eur(100));
+
+            try (var executor = newFixedThreadPool(8)) {
+                for (int i = 0; i < 200; i++) {
+                    executor.submit(() -> ledger.withdraw(balance.getAccountId(), eur(1)));
+                }
+            }
+
+            assertThat(repository.findBalance(balance.getAccountId())).get()
+                    .returns(eur(0), Balance::getAmount)
+                    .returns(100L, Balance::getVersion);
+        }
+    }
+
+    @Nested
+    class Deposit {
+
+        @Test
+        void throws_not_found_exception_when_balance_does_not_exist() {
+            assertThrows(NotFoundException.class, () -> ledger.deposit(randomAccountId(), eur(10)));
+        }
+
+        @Test
+        void throws_exception_when_amount_is_in_another_currency() {
+            var balance = createBalance(eur(100));
+
+            var exception = assertThrows(IllegalArgumentException.class,
+                    () -> ledger.deposit(balance.getAccountId(), ofMinorUnits(10, JPY)));
+
+            assertThat(exception.getMessage()).isEqualTo("The currencies are different");
+            assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+        }
+
+        @Test
+        void deposits_the_amount() {
+            var balance = createBalance(eur(100));
+
+            ledger.deposit(balance.getAccountId(), eur(50));
+
+            assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance.deposit(eur(50)));
+        }
+    }
+
+    private Balance createBalance(Money amount) {
+        var balance = dummyBalance().amount(amount).build();
+        repository.insert(balance);
+        return balance;
+    }
+}
@@ -0,0 +1,110 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.round;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(classes = {BalanceMapper.class})
+public class BalanceLedgerBenchmarkIT extends MapperTestBase {
+
+    private static final int ACCOUNTS = 16;
+    private static final int[] CLIENTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long DURATION_NANOS = SECONDS.toNanos(3);
+
+    @Autowired
+    private BalanceMapper mapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compares_ledgers_throughput() throws InterruptedException {
+        var locking = 0.0;
+        var atomic = 0.0;
+        var sharded = 0.0;
+        for (int clients : CLIENTS) {
+            locking = run(new LockingBalanceLedger(mapper), clients);
+            atomic = run(new AtomicBalanceLedger(mapper), clients);
+
+            var shardedLedger = new ShardedBalanceLedger(mapper, transactionTemplate, 8, 10, true);
+            sharded = run(shardedLedger, clients);
+            shardedLedger.destroy();
+
+            log.info("{} clients: locking {}, atomic {}, sharded {} ops/s",
+                    clients, round(locking), round(atomic), round(sharded));
+        }
+
+        // the sharded ledger takes no row lock per transfer, so under the most clients it is well ahead of both
+        assertThat(sharded).isGreaterThan(2 * Math.max(locking, atomic));
+    }
+
+    private double run(BalanceLedger ledger, int clients) throws InterruptedException {
+        var accounts = setupAccounts();
+        var transfers = new LongAdder();
+        var deadline = nanoTime() + DURATION_NANOS;
+
+        try (var executor = newFixedThreadPool(clients)) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    while (nanoTime() < deadline) {
+                        var origin = accounts.get(random.nextInt(ACCOUNTS));
+                        var destination = accounts.get(random.nextInt(ACCOUNTS));
+                        transfer(ledger, origin, destination);
+                        transfers.increment();
+                    }
+                });
+            }
+        }
+
+        var total = ledger.findBalances(Set.copyOf(accounts)).stream()
+                .map(Balance::getAmount)
+                .reduce(eur(0), Money::add);
+        assertThat(total.getAmount()).isEqualByComparingTo(eur(1_000 * ACCOUNTS).getAmount());
+
+        return transfers.sum() / (DURATION_NANOS / 1e9);
+    }
+
+    private void transfer(BalanceLedger ledger, AccountId origin, AccountId destination) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ledger.withdraw(origin, eur(1));
+                ledger.deposit(destination, eur(1));
+            });
+        } catch (InsufficientBalanceException | ConcurrencyFailureException ignored) {
+            // deadlocked or underfunded transfers are retried by the client loop
+        }
+    }
+
+    private List<AccountId> setupAccounts() {
+        var accounts = new ArrayList<AccountId>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            var balance = dummyBalance().amount(eur(1_000)).build();
+            mapper.insert(balance);
+            accounts.add(balance.getAccountId());
+        }
+        return accounts;
+    }
+}
@@ -4,6 +4,8 @@ import mpadillamarcos.javaspringbank.domain.account.AccountId;
 import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
 import mpadillamarcos.javaspringbank.domain.money.Money;
 import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -17,11 +19,16 @@ import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccou
 import static mpadillamarcos.javaspringbank.domain.money.Currency.EUR;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
 
 class BalanceServiceTest {
 
     private final BalanceRepository repository = new InMemoryBalanceRepository();
-    private final BalanceService service = new BalanceService(repository);
+    private final BalanceLedger ledger = new LockingBalanceLedger(repository);
+    private final HotAccountBalances hotAccounts = new HotAccountBalances(
+            new InMemoryBalanceSlotRepository(), ledger, withoutTransaction(), new String[0], 8);
+    private final CreditCoalescer creditCoalescer = new CreditCoalescer(new InMemoryPendingCreditRepository(), ledger, hotAccounts, withoutTransaction(), false, 0);
+    private final BalanceService service = new BalanceService(repository, ledger, hotAccounts, creditCoalescer);
 
     @Test
     void creates_a_new_balance() {
@@ -35,6 +42,17 @@ class BalanceServiceTest {
                 .returns(Money.zero(EUR), Balance::getAmount);
     }
 
+    @Test
+    void reads_from_the_repository_only_when_the_ledger_persists_immediately() throws InterruptedException {
+        var sharded = new ShardedBalanceLedger(repository, withoutTransaction(), 1, 60_000, true);
+        try {
+            assertThat(service.readsFromRepository()).isTrue();
+            assertThat(new BalanceService(repository, sharded, hotAccounts, creditCoalescer).readsFromRepository()).isFalse();
+        } finally {
+            sharded.destroy();
+        }
+    }
+
     @Test
     void gets_one_balance_by_account_id() {
         var accountId = randomAccountId();
@@ -0,0 +1,91 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceMapper;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceSlotMapper;
+import mpadillamarcos.javaspringbank.infra.balance.PendingCreditMapper;
+import mpadillamarcos.javaspringbank.infra.transaction.TransactionMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.round;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyDeposit;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deposits into a single account from many clients, each one a transaction that inserts the
+ * deposit row and credits the balance, the way {@code TransactionService.deposit} does.
+ */
+@Slf4j
+@SpringBootTest(classes = {BalanceMapper.class, BalanceSlotMapper.class, PendingCreditMapper.class, TransactionMapper.class})
+public class CreditCoalescerBenchmarkIT extends MapperTestBase {
+
+    private static final int[] CLIENTS = {1, 4, 16, 64};
+    private static final long DURATION_NANOS = SECONDS.toNanos(3);
+
+    @Autowired
+    private BalanceMapper balanceMapper;
+    @Autowired
+    private BalanceSlotMapper balanceSlotMapper;
+    @Autowired
+    private PendingCreditMapper pendingCreditMapper;
+    @Autowired
+    private TransactionMapper transactionMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compares_credit_throughput_on_a_hot_account() throws InterruptedException {
+        for (int clients : CLIENTS) {
+            var direct = run(clients, false, false);
+            var slotted = run(clients, true, false);
+            var coalesced = run(clients, false, true);
+
+            log.info("{} clients: direct {}, slotted {}, coalesced {} ops/s",
+                    clients, round(direct), round(slotted), round(coalesced));
+        }
+    }
+
+    private double run(int clients, boolean slotted, boolean coalesced) throws InterruptedException {
+        var balance = dummyBalance().build();
+        balanceMapper.insert(balance);
+        var accountId = balance.getAccountId();
+
+        var ledger = new AtomicBalanceLedger(balanceMapper);
+        var hotAccounts = new HotAccountBalances(balanceSlotMapper, ledger, transactionTemplate,
+                slotted || coalesced ? new String[]{accountId.value().toString()} : new String[0], 8);
+        var coalescer = new CreditCoalescer(pendingCreditMapper, ledger, hotAccounts, transactionTemplate, coalesced, 5);
+        var service = new BalanceService(balanceMapper, ledger, hotAccounts, coalescer);
+
+        var deposits = new LongAdder();
+        var deadline = nanoTime() + DURATION_NANOS;
+        try (var executor = newFixedThreadPool(clients)) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (nanoTime() < deadline) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            transactionMapper.insert(dummyDeposit().accountId(accountId).amount(eur(1)).build());
+                            service.deposit(accountId, eur(1));
+                        });
+                        deposits.increment();
+                    }
+                });
+            }
+        }
+        coalescer.destroy();
+
+        assertThat(service.getBalance(accountId).getAmount().getAmount().longValue()).isEqualTo(deposits.sum());
+        assertThat(pendingCreditMapper.findAccountIdsWithPendingCredits()).doesNotContain(accountId);
+        return deposits.sum() / (DURATION_NANOS / 1e9);
+    }
+}
@@ -0,0 +1,161 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.infra.InMemoryTransactionManager;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.money.Money.ofMinorUnits;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
+
+class CreditCoalescerTest {
+
+    private final BalanceRepository repository = new InMemoryBalanceRepository();
+    private final InMemoryPendingCreditRepository pendingCredits = new InMemoryPendingCreditRepository();
+    private final BalanceLedger ledger = spy(new AtomicBalanceLedger(repository));
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new InMemoryTransactionManager());
+    private final HotAccountBalances hotAccounts = new HotAccountBalances(
+            new InMemoryBalanceSlotRepository(), ledger, withoutTransaction(), new String[0], 8);
+    private final CreditCoalescer coalescer = new CreditCoalescer(pendingCredits, ledger, hotAccounts, transactionTemplate, true, 60_000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.destroy();
+    }
+
+    @Test
+    void coalesces_only_the_credits_to_hot_accounts() throws InterruptedException {
+        var hotAccountId = randomAccountId();
+        var hotAccounts = new HotAccountBalances(
+                new InMemoryBalanceSlotRepository(), ledger, withoutTransaction(), new String[]{hotAccountId.value().toString()}, 8);
+        var enabled = new CreditCoalescer(pendingCredits, ledger, hotAccounts, transactionTemplate, true, 60_000);
+        var disabled = new CreditCoalescer(pendingCredits, ledger, hotAccounts, transactionTemplate, false, 0);
+        try {
+            assertThat(enabled.coalesces(hotAccountId)).isTrue();
+            assertThat(enabled.coalesces(randomAccountId())).isFalse();
+            assertThat(disabled.coalesces(hotAccountId)).isFalse();
+        } finally {
+            enabled.destroy();
+            disabled.destroy();
+        }
+    }
+
+    @Test
+    void applies_the_pending_credits_of_an_account_as_one_update() {
+        var balance = dummyBalance().amount(eur(100)).build();
+        repository.insert(balance);
+
+        coalescer.deposit(balance.getAccountId(), eur(10));
+        coalescer.deposit(balance.getAccountId(), eur(20));
+        coalescer.deposit(balance.getAccountId(), eur(30));
+
+        assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+
+        coalescer.flush();
+
+        assertThat(repository.findBalance(balance.getAccountId()).orElseThrow())
+                .returns(1L, Balance::getVersion)
+                .extracting(stored -> stored.getAmount().getAmount())
+                .isEqualTo(eur(160).getAmount());
+        assertThat(pendingCredits.findAccountIdsWithPendingCredits()).isEmpty();
+    }
+
+    @Test
+    void only_keeps_credits_of_committed_transactions() {
+        var balance = dummyBalance().amount(eur(100)).build();
+        repository.insert(balance);
+
+        transactionTemplate.executeWithoutResult(status -> coalescer.deposit(balance.getAccountId(), eur(10)));
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            coalescer.deposit(balance.getAccountId(), eur(20));
+            throw new IllegalStateException();
+        }));
+        coalescer.flush();
+
+        assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount().getAmount())
+                .isEqualTo(eur(110).getAmount());
+    }
+
+    @Test
+    void keeps_the_credits_pending_when_they_cannot_be_applied() {
+        var balance = dummyBalance().amount(eur(100)).build();
+        repository.insert(balance);
+        transactionTemplate.executeWithoutResult(status -> coalescer.deposit(balance.getAccountId(), eur(10)));
+
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(ledger).deposit(eq(balance.getAccountId()), any());
+        coalescer.flush();
+
+        assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+        assertThat(pendingCredits.findAccountIdsWithPendingCredits()).containsExactly(balance.getAccountId());
+
+        doCallRealMethod().when(ledger).deposit(eq(balance.getAccountId()), any());
+        coalescer.flush();
+
+        assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount().getAmount())
+                .isEqualTo(eur(110).getAmount());
+    }
+
+    @Test
+    void applies_credits_left_pending_by_a_previous_run_on_startup() {
+        var balance = dummyBalance().amount(eur(100)).build();
+        repository.insert(balance);
+        transactionTemplate.executeWithoutResult(status -> coalescer.deposit(balance.getAccountId(), eur(10)));
+
+        var restarted = new CreditCoalescer(pendingCredits, ledger, hotAccounts, transactionTemplate, false, 0);
+        restarted.run(null);
+
+        assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount().getAmount())
+                .isEqualTo(eur(110).getAmount());
+    }
+
+    @Test
+    void refuses_credits_to_accounts_without_balance() {
+        var accountId = randomAccountId();
+
+        assertThrows(NotFoundException.class, () -> coalescer.deposit(accountId, eur(10)));
+
+        assertThat(pendingCredits.findAccountIdsWithPendingCredits()).isEmpty();
+    }
+
+    @Test
+    void refuses_credits_in_another_currency_before_keeping_them() {
+        var balance = dummyBalance().amount(eur(100)).build();
+        repository.insert(balance);
+
+        transactionTemplate.executeWithoutResult(status -> coalescer.deposit(balance.getAccountId(), eur(10)));
+        assertThrows(IllegalArgumentException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                coalescer.deposit(balance.getAccountId(), ofMinorUnits(500, JPY))));
+        coalescer.flush();
+
+        assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount().getAmount())
+                .isEqualTo(eur(110).getAmount());
+    }
+
+    @Test
+    void flushes_pending_credits_on_shutdown() throws InterruptedException {
+        var balance = dummyBalance().amount(eur(100)).build();
+        repository.insert(balance);
+
+        coalescer.deposit(balance.getAccountId(), eur(10));
+        coalescer.destroy();
+
+        assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount().getAmount())
+                .isEqualTo(eur(110).getAmount());
+    }
+}
@@ -0,0 +1,131 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.money.Money.ofMinorUnits;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
+
+class HotAccountBalancesTest {
+
+    private final AccountId hotAccountId = randomAccountId();
+    private final BalanceRepository balances = new InMemoryBalanceRepository();
+    private final InMemoryBalanceSlotRepository slots = new InMemoryBalanceSlotRepository();
+    private final BalanceLedger ledger = new AtomicBalanceLedger(balances);
+    private final HotAccountBalances hotAccounts = hotAccounts(hotAccountId.value().toString());
+    private final BalanceService service = new BalanceService(
+            balances, ledger, hotAccounts, new CreditCoalescer(new InMemoryPendingCreditRepository(), ledger, hotAccounts, withoutTransaction(), false, 0));
+
+    @Test
+    void spreads_deposits_over_the_slots() {
+        balances.insert(dummyBalance().accountId(hotAccountId).build());
+
+        for (int i = 0; i < 100; i++) {
+            service.deposit(hotAccountId, eur(1));
+        }
+
+        assertThat(slots.findSlots(Set.of(hotAccountId)))
+                .hasSize(2)
+                .anySatisfy(slot -> assertThat(slot.getAmount().getAmount()).isPositive());
+        assertThat(balances.findBalance(hotAccountId).orElseThrow().getAmount().getAmount())
+                .isLessThan(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void refuses_deposits_in_another_currency() {
+        balances.insert(dummyBalance().accountId(hotAccountId).amount(eur(10)).build());
+
+        for (int i = 0; i < 20; i++) {
+            assertThrows(IllegalArgumentException.class, () -> service.deposit(hotAccountId, ofMinorUnits(1, JPY)));
+        }
+
+        assertThat(service.getBalance(hotAccountId).getAmount()).isEqualTo(eur(10));
+    }
+
+    @Test
+    void reads_the_balance_as_the_sum_of_its_slots() {
+        var otherAccountId = randomAccountId();
+        balances.insert(dummyBalance().accountId(hotAccountId).amount(eur(10)).build());
+        balances.insert(dummyBalance().accountId(otherAccountId).amount(eur(5)).build());
+        slots.insertIfAbsent(new BalanceSlot(hotAccountId, 1, eur(20)));
+        slots.insertIfAbsent(new BalanceSlot(hotAccountId, 2, eur(30)));
+
+        assertThat(service.getBalance(hotAccountId).getAmount().getAmount())
+                .isEqualByComparingTo("60");
+        assertThat(service.getBalances(Set.of(hotAccountId, otherAccountId)))
+                .extracting(balance -> balance.getAmount().getAmount().intValue())
+                .containsExactlyInAnyOrder(60, 5);
+    }
+
+    @Nested
+    class Withdraw {
+
+        @Test
+        void takes_the_amount_from_a_slot_that_covers_it() {
+            balances.insert(dummyBalance().accountId(hotAccountId).amount(eur(10)).build());
+            slots.insertIfAbsent(new BalanceSlot(hotAccountId, 1, eur(20)));
+            slots.insertIfAbsent(new BalanceSlot(hotAccountId, 2, eur(50)));
+
+            service.withdraw(hotAccountId, eur(40));
+
+            assertThat(slots.findSlots(Set.of(hotAccountId)))
+                    .extracting(slot -> slot.getAmount().getAmount().intValue())
+                    .containsExactly(20, 10);
+            assertThat(service.getBalance(hotAccountId).getAmount().getAmount()).isEqualByComparingTo("40");
+        }
+
+        @Test
+        void splits_the_amount_across_the_slots_when_none_covers_it() {
+            balances.insert(dummyBalance().accountId(hotAccountId).amount(eur(10)).build());
+            slots.insertIfAbsent(new BalanceSlot(hotAccountId, 1, eur(20)));
+            slots.insertIfAbsent(new BalanceSlot(hotAccountId, 2, eur(30)));
+
+            service.withdraw(hotAccountId, eur(55));
+
+            assertThat(service.getBalance(hotAccountId).getAmount().getAmount()).isEqualByComparingTo("5");
+        }
+
+        @Test
+        void leaves_every_slot_untouched_when_the_total_is_not_enough() {
+            balances.insert(dummyBalance().accountId(hotAccountId).amount(eur(10)).build());
+            slots.insertIfAbsent(new BalanceSlot(hotAccountId, 1, eur(20)));
+            slots.insertIfAbsent(new BalanceSlot(hotAccountId, 2, eur(30)));
+
+            assertThrows(InsufficientBalanceException.class, () -> service.withdraw(hotAccountId, eur(61)));
+
+            assertThat(slots.findSlots(Set.of(hotAccountId)))
+                    .extracting(slot -> slot.getAmount().getAmount().intValue())
+                    .containsExactly(20, 30);
+            assertThat(service.getBalance(hotAccountId).getAmount().getAmount()).isEqualByComparingTo("60");
+        }
+    }
+
+    @Test
+    void moves_the_slots_of_accounts_that_are_no_longer_hot_back_into_their_balance() {
+        balances.insert(dummyBalance().accountId(hotAccountId).amount(eur(10)).build());
+        slots.insertIfAbsent(new BalanceSlot(hotAccountId, 1, eur(20)));
+
+        hotAccounts().run(null);
+
+        assertThat(balances.findBalance(hotAccountId).orElseThrow().getAmount().getAmount()).isEqualByComparingTo("30");
+        assertThat(slots.findAccountIdsWithFundedSlots()).isEmpty();
+    }
+
+    private HotAccountBalances hotAccounts(String... accountIds) {
+        return new HotAccountBalances(slots, ledger, withoutTransaction(), accountIds, 3);
+    }
+}
@@ -0,0 +1,119 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.round;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(classes = {BalanceMapper.class})
+public class OptimisticBalanceLedgerBenchmarkIT extends MapperTestBase {
+
+    private static final int[] ACCOUNTS = {2, 16, 256};
+    private static final int[] CLIENTS = {1, 4, 16, 64};
+    private static final long DURATION_NANOS = SECONDS.toNanos(2);
+
+    @Autowired
+    private BalanceMapper mapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compares_locking_and_optimistic_ledgers_under_contention() throws InterruptedException {
+        for (int accounts : ACCOUNTS) {
+            for (int clients : CLIENTS) {
+                var locking = run(new LockingBalanceLedger(mapper), accounts, clients);
+                var optimistic = run(new OptimisticBalanceLedger(mapper, 10, 5), accounts, clients);
+
+                log.info("{} accounts, {} clients: locking {} ops/s {} fail/s, optimistic {} ops/s {} fail/s",
+                        accounts, clients, round(locking.transfers()), round(locking.failures()),
+                        round(optimistic.transfers()), round(optimistic.failures()));
+                if (clients == 1) {
+                    // a single client never conflicts with itself, so neither ledger may give up on a transfer
+                    assertThat(locking.failures()).isZero();
+                    assertThat(optimistic.failures()).isZero();
+                }
+            }
+        }
+    }
+
+    private Result run(BalanceLedger ledger, int accountCount, int clients) throws InterruptedException {
+        var accounts = setupAccounts(accountCount);
+        var transfers = new LongAdder();
+        var failures = new LongAdder();
+        var deadline = nanoTime() + DURATION_NANOS;
+
+        try (var executor = newFixedThreadPool(clients)) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    while (nanoTime() < deadline) {
+                        var origin = accounts.get(random.nextInt(accountCount));
+                        var destination = accounts.get(random.nextInt(accountCount));
+                        if (transfer(ledger, origin, destination)) {
+                            transfers.increment();
+                        } else {
+                            failures.increment();
+                        }
+                    }
+                });
+            }
+        }
+
+        var total = ledger.findBalances(Set.copyOf(accounts)).stream()
+                .map(Balance::getAmount)
+                .reduce(eur(0), Money::add);
+        assertThat(total.getAmount()).isEqualByComparingTo(eur(1_000 * accountCount).getAmount());
+
+        var seconds = DURATION_NANOS / 1e9;
+        return new Result(transfers.sum() / seconds, failures.sum() / seconds);
+    }
+
+    private boolean transfer(BalanceLedger ledger, AccountId origin, AccountId destination) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ledger.withdraw(origin, eur(1));
+                // stands for the account and access checks that run in the same transaction
+                ledger.findBalance(destination);
+                ledger.deposit(destination, eur(1));
+            });
+            return true;
+        } catch (InsufficientBalanceException | ConcurrencyFailureException e) {
+            return false;
+        }
+    }
+
+    private List<AccountId> setupAccounts(int count) {
+        var accounts = new ArrayList<AccountId>();
+        for (int i = 0; i < count; i++) {
+            var balance = dummyBalance().amount(eur(1_000)).build();
+            mapper.insert(balance);
+            accounts.add(balance.getAccountId());
+        }
+        return accounts;
+    }
+
+    private record Result(double transfers, double failures) {
+    }
+}
@@ -0,0 +1,80 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class OptimisticBalanceLedgerTest {
+
+    private final BalanceRepository repository = spy(new InMemoryBalanceRepository());
+    private final OptimisticBalanceLedger ledger = new OptimisticBalanceLedger(repository, 3, 0);
+
+    @Test
+    void throws_not_found_exception_when_balance_does_not_exist() {
+        assertThrows(NotFoundException.class, () -> ledger.withdraw(randomAccountId(), eur(10)));
+    }
+
+    @Test
+    void throws_exception_when_withdrawal_exceeds_current_balance_amount() {
+        var balance = createBalance(eur(100));
+
+        assertThrows(InsufficientBalanceException.class, () -> ledger.withdraw(balance.getAccountId(), eur(150)));
+    }
+
+    @Test
+    void updates_balance_and_version() {
+        var balance = createBalance(eur(100));
+
+        ledger.withdraw(balance.getAccountId(), eur(30));
+        ledger.deposit(balance.getAccountId(), eur(10));
+
+        assertThat(repository.findBalance(balance.getAccountId())).get()
+                .returns(eur(80), Balance::getAmount)
+                .returns(2L, Balance::getVersion);
+    }
+
+    @Test
+    void retries_when_balance_was_modified_concurrently() {
+        var balance = createBalance(eur(100));
+        doAnswer(invocation -> {
+            repository.update(balance.deposit(eur(50)));
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(repository).compareAndSet(anyLong(), any());
+
+        ledger.withdraw(balance.getAccountId(), eur(30));
+
+        assertThat(repository.findBalance(balance.getAccountId())).get()
+                .returns(eur(120), Balance::getAmount)
+                .returns(2L, Balance::getVersion);
+        verify(repository, times(2)).compareAndSet(anyLong(), any());
+    }
+
+    @Test
+    void throws_exception_when_balance_keeps_being_modified_concurrently() {
+        var balance = createBalance(eur(100));
+        doReturn(false).when(repository).compareAndSet(anyLong(), any());
+
+        assertThrows(OptimisticLockingFailureException.class, () -> ledger.withdraw(balance.getAccountId(), eur(30)));
+
+        verify(repository, times(3)).compareAndSet(anyLong(), any());
+        assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+    }
+
+    private Balance createBalance(Money amount) {
+        var balance = dummyBalance().amount(amount).build();
+        repository.insert(balance);
+        return balance;
+    }
+}
@@ -0,0 +1,143 @@
+package mpadillamarcos.javaspringbank.domain.balance;
+
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.Set;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_ROLLED_BACK;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.*;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
+
+class ShardedBalanceLedgerTest {
+
+    private final BalanceRepository repository = new InMemoryBalanceRepository();
+    private final ShardedBalanceLedger ledger = new ShardedBalanceLedger(repository, withoutTransaction(), 4, 60_000, true);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledger.destroy();
+    }
+
+    @Test
+    void refuses_to_start_unless_write_behind_is_accepted() {
+        assertThrows(IllegalStateException.class, () -> new ShardedBalanceLedger(repository, withoutTransaction(), 4, 60_000, false));
+    }
+
+    @Test
+    void throws_not_found_exception_when_balance_does_not_exist() {
+        var accountId = randomAccountId();
+
+        assertThrows(NotFoundException.class, () -> ledger.withdraw(accountId, eur(10)));
+    }
+
+    @Test
+    void returns_balances_with_pending_changes() {
+        var balance1 = createBalance(dummyBalance().amount(eur(100)));
+        var balance2 = createBalance(dummyBalance().amount(eur(200)));
+
+        ledger.deposit(balance1.getAccountId(), eur(50));
+
+        assertThat(ledger.findBalances(Set.of(balance1.getAccountId(), balance2.getAccountId())))
+                .containsExactlyInAnyOrder(balance1.deposit(eur(50)), balance2);
+    }
+
+    @Test
+    void writes_balances_to_the_repository_when_flushing() {
+        var balance = createBalance(dummyBalance().amount(eur(100)));
+
+        ledger.deposit(balance.getAccountId(), eur(50));
+
+        assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance);
+
+        ledger.flush();
+
+        assertThat(repository.findBalance(balance.getAccountId())).hasValue(balance.deposit(eur(50)));
+    }
+
+    @Nested
+    class Withdraw {
+
+        @Test
+        void throws_exception_when_withdrawal_exceeds_current_balance_amount() {
+            var balance = createBalance(dummyBalance().amount(eur(100)));
+
+            assertThrows(InsufficientBalanceException.class, () -> ledger.withdraw(balance.getAccountId(), eur(150)));
+        }
+
+        @Test
+        void updates_balance_immediately() {
+            var balance = createBalance(dummyBalance().amount(eur(100)));
+
+            ledger.withdraw(balance.getAccountId(), eur(30));
+
+            assertThat(ledger.findBalance(balance.getAccountId())).hasValue(balance.withdraw(eur(30)));
+        }
+
+        @Test
+        void restores_balance_when_transaction_rolls_back() {
+            var balance = createBalance(dummyBalance().amount(eur(100)));
+
+            inTransaction(STATUS_ROLLED_BACK, () -> ledger.withdraw(balance.getAccountId(), eur(30)));
+
+            assertThat(ledger.findBalance(balance.getAccountId()).map(Balance::getAmount)).hasValue(balance.getAmount());
+        }
+    }
+
+    @Nested
+    class Deposit {
+
+        @Test
+        void updates_balance_once_transaction_commits() {
+            var balance = createBalance(dummyBalance().amount(eur(100)));
+
+            inTransaction(STATUS_COMMITTED, () -> {
+                ledger.deposit(balance.getAccountId(), eur(30));
+
+                assertThat(ledger.findBalance(balance.getAccountId())).hasValue(balance);
+            });
+
+            assertThat(ledger.findBalance(balance.getAccountId())).hasValue(balance.deposit(eur(30)));
+        }
+
+        @Test
+        void does_not_update_balance_when_transaction_rolls_back() {
+            var balance = createBalance(dummyBalance().amount(eur(100)));
+
+            inTransaction(STATUS_ROLLED_BACK, () -> ledger.deposit(balance.getAccountId(), eur(30)));
+
+            assertThat(ledger.findBalance(balance.getAccountId())).hasValue(balance);
+        }
+    }
+
+    private Balance createBalance(Balance.BalanceBuilder builder) {
+        var balance = builder.build();
+        repository.insert(balance);
+        return balance;
+    }
+
+    private void inTransaction(int status, Runnable action) {
+        initSynchronization();
+        try {
+            action.run();
+            var synchronizations = getSynchronizations();
+            if (status == STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package mpadillamarcos.javaspringbank.domain.idempotency;
+
+import mpadillamarcos.javaspringbank.domain.exception.IdempotencyKeyConflictException;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionId;
+import mpadillamarcos.javaspringbank.infra.TestClock;
+import mpadillamarcos.javaspringbank.infra.idempotency.InMemoryIdempotentRequestRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Optional.empty;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.idempotency.IdempotencyService.fingerprint;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.DEPOSIT;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static mpadillamarcos.javaspringbank.infra.TestClock.NOW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
+
+class IdempotencyServiceTest {
+
+    private final IdempotentRequestRepository repository = spy(new InMemoryIdempotentRequestRepository());
+    private final IdempotencyService service = new IdempotencyService(repository, withoutTransaction(), new TestClock(), 2);
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void executes_operation_every_time_when_there_is_no_key() {
+        var userId = randomUserId();
+        var accountId = randomAccountId();
+
+        service.execute(null, userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+        service.execute(null, userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+        assertThat(executions).hasValue(2);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void stores_the_result_of_the_operation() {
+        var userId = randomUserId();
+        var accountId = randomAccountId();
+        var transactionId = randomTransactionId();
+
+        service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(transactionId));
+
+        assertThat(repository.findRequest(userId, "key")).hasValue(IdempotentRequest.builder()
+                .userId(userId)
+                .key("key")
+                .accountId(accountId)
+                .type(TRANSFER)
+                .transactionId(transactionId)
+                .createdDate(NOW)
+                .fingerprint("fingerprint")
+                .build());
+    }
+
+    @Test
+    void does_not_store_anything_when_operation_fails() {
+        var userId = randomUserId();
+
+        assertThrows(InsufficientBalanceException.class, () -> service.execute("key", userId, randomAccountId(), TRANSFER, "fingerprint", () -> {
+            throw new InsufficientBalanceException("insufficient balance");
+        }));
+
+        assertThat(repository.findRequest(userId, "key")).isEmpty();
+    }
+
+    @Nested
+    class Replay {
+
+        @Test
+        void returns_stored_result_without_executing_operation_again() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+            var transactionId = randomTransactionId();
+
+            service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(transactionId));
+            var replayed = service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            assertThat(replayed).isEqualTo(transactionId);
+            assertThat(executions).hasValue(1);
+        }
+
+        @Test
+        void does_not_query_repository_for_recent_keys() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+
+            service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+            clearInvocations(repository);
+            service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        void reads_stored_result_once_the_key_is_evicted_from_cache() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+            var transactionId = randomTransactionId();
+
+            service.execute("key-1", userId, accountId, TRANSFER, "fingerprint", operation(transactionId));
+            service.execute("key-2", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+            service.execute("key-3", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+            clearInvocations(repository);
+            var replayed = service.execute("key-1", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            assertThat(replayed).isEqualTo(transactionId);
+            assertThat(executions).hasValue(3);
+            verify(repository).findRequest(userId, "key-1");
+        }
+
+        @Test
+        void does_not_mix_keys_of_different_users() {
+            var accountId = randomAccountId();
+
+            service.execute("key", randomUserId(), accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+            service.execute("key", randomUserId(), accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            assertThat(executions).hasValue(2);
+        }
+
+        @Test
+        void throws_conflict_when_key_was_used_for_another_request() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+
+            service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            assertThrows(IdempotencyKeyConflictException.class,
+                    () -> service.execute("key", userId, randomAccountId(), TRANSFER, "fingerprint", operation(randomTransactionId())));
+            assertThrows(IdempotencyKeyConflictException.class,
+                    () -> service.execute("key", userId, accountId, DEPOSIT, "fingerprint", operation(randomTransactionId())));
+            assertThat(executions).hasValue(1);
+        }
+
+        @Test
+        void throws_conflict_when_key_was_used_for_another_request_body() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+
+            service.execute("key", userId, accountId, TRANSFER, fingerprint(eur(10), "rent"), operation(randomTransactionId()));
+
+            assertThrows(IdempotencyKeyConflictException.class, () ->
+                    service.execute("key", userId, accountId, TRANSFER, fingerprint(eur(20), "rent"), operation(randomTransactionId())));
+            assertThat(executions).hasValue(1);
+        }
+
+        @Test
+        void replays_requests_stored_without_fingerprint() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+            var stored = IdempotentRequest.builder()
+                    .userId(userId)
+                    .key("key")
+                    .accountId(accountId)
+                    .type(TRANSFER)
+                    .transactionId(randomTransactionId())
+                    .createdDate(NOW)
+                    .build();
+            repository.insert(stored);
+
+            var result = service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            assertThat(result).isEqualTo(stored.getTransactionId());
+        }
+
+        @Test
+        void returns_result_of_concurrent_request_that_stored_the_key_first() {
+            var userId = randomUserId();
+            var accountId = randomAccountId();
+            var stored = IdempotentRequest.builder()
+                    .userId(userId)
+                    .key("key")
+                    .accountId(accountId)
+                    .type(TRANSFER)
+                    .transactionId(randomTransactionId())
+                    .createdDate(NOW)
+                    .build();
+            var repository = mock(IdempotentRequestRepository.class);
+            var service = new IdempotencyService(repository, withoutTransaction(), new TestClock(), 2);
+            when(repository.findRequest(userId, "key")).thenReturn(empty(), Optional.of(stored));
+            when(repository.insert(any())).thenReturn(false);
+
+            var result = service.execute("key", userId, accountId, TRANSFER, "fingerprint", operation(randomTransactionId()));
+
+            assertThat(result).isEqualTo(stored.getTransactionId());
+        }
+    }
+
+    private Supplier<TransactionId> operation(TransactionId transactionId) {
+        return () -> {
+            executions.incrementAndGet();
+            return transactionId;
+        };
+    }
+}
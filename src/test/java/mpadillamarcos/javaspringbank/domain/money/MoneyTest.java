@@ -1,5 +1,6 @@
 package mpadillamarcos.javaspringbank.domain.money;
 
+import mpadillamarcos.javaspringbank.domain.exception.InvalidAmountException;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -33,7 +34,7 @@ class MoneyTest {
 
         Money money = new Money(amount, currency);
 
-        assertThat(money.getAmount()).isEqualTo(amount);
+        assertThat(money.getAmount()).isEqualByComparingTo(amount);
         assertThat(money.getCurrency()).isEqualTo(currency);
     }
 
@@ -49,10 +50,60 @@ class MoneyTest {
     void creates_money_with_zero_as_amount_value() {
         Money money = Money.zero(EUR);
 
-        assertThat(money.getAmount()).isEqualTo(BigDecimal.valueOf(0));
+        assertThat(money.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(0));
         assertThat(money.getCurrency()).isEqualTo(EUR);
     }
 
+    @Nested
+    class MinorUnits {
+
+        @Test
+        void keeps_the_amount_in_minor_units_of_the_currency() {
+            assertThat(new Money(new BigDecimal("12.34"), EUR).minorUnits()).isEqualTo(1234);
+            assertThat(new Money(new BigDecimal("1234"), JPY).minorUnits()).isEqualTo(1234);
+        }
+
+        @Test
+        void returns_the_amount_with_the_scale_of_the_currency() {
+            assertThat(Money.eur(10).getAmount()).isEqualTo(new BigDecimal("10.00"));
+            assertThat(Money.ofMinorUnits(1000, JPY).getAmount()).isEqualTo(new BigDecimal("1000"));
+        }
+
+        @Test
+        void rejects_amounts_with_more_decimals_than_the_currency() {
+            var exception = assertThrows(InvalidAmountException.class, () -> new Money(new BigDecimal("0.005"), EUR));
+
+            assertThat(exception).hasMessage("amount 0.005 has more decimals than EUR allows");
+            assertThrows(InvalidAmountException.class, () -> new Money(new BigDecimal("99.5"), JPY));
+        }
+
+        @Test
+        void rounds_euros_given_as_double_half_up_to_cents() {
+            assertThat(Money.eur(0.125)).isEqualTo(Money.ofMinorUnits(13, EUR));
+        }
+
+        @Test
+        void equals_regardless_of_the_scale_it_was_created_with() {
+            assertThat(new Money(new BigDecimal("10.0"), EUR)).isEqualTo(new Money(new BigDecimal("10.000"), EUR));
+        }
+
+        @Test
+        void rejects_amounts_that_do_not_fit_in_minor_units() {
+            var amount = BigDecimal.valueOf(Long.MAX_VALUE);
+
+            assertThrows(InvalidAmountException.class, () -> new Money(amount, EUR));
+        }
+
+        @Test
+        void throws_when_the_result_overflows() {
+            var max = Money.ofMinorUnits(Long.MAX_VALUE, EUR);
+            var min = Money.ofMinorUnits(Long.MIN_VALUE, EUR);
+
+            assertThrows(ArithmeticException.class, () -> max.add(Money.ofMinorUnits(1, EUR)));
+            assertThrows(ArithmeticException.class, () -> min.subtract(Money.ofMinorUnits(1, EUR)));
+        }
+    }
+
     @Nested
     class Subtract {
 
@@ -110,6 +161,14 @@ class MoneyTest {
 
             assertThat(currentAmount.isLessThan(givenAmount)).isEqualTo(false);
         }
+
+        @Test
+        void throws_exception_when_comparing_different_currencies() {
+            Money amount = Money.eur(50);
+            Money other = Money.ofMinorUnits(50, JPY);
+
+            assertThrows(IllegalArgumentException.class, () -> amount.isLessThan(other));
+        }
     }
 
     @Test
@@ -125,4 +184,11 @@ class MoneyTest {
 
         assertThat(money.toString()).isEqualTo("¥100000");
     }
-}
\ No newline at end of file
+
+    @Test
+    void returns_a_string_with_the_cents_padded_to_the_scale_of_the_currency() {
+        assertThat(Money.eur(20.05).toString()).isEqualTo("€20.05");
+        assertThat(Money.eur(20.5).toString()).isEqualTo("€20.50");
+        assertThat(Money.eur(-0.5).toString()).isEqualTo("€-0.50");
+    }
+}
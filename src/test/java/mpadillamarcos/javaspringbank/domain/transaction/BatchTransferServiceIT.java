@@ -0,0 +1,101 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessCache;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.account.AccountCache;
+import mpadillamarcos.javaspringbank.domain.account.AccountService;
+import mpadillamarcos.javaspringbank.domain.account.AccountView;
+import mpadillamarcos.javaspringbank.domain.balance.AtomicBalanceLedger;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceService;
+import mpadillamarcos.javaspringbank.domain.balance.CreditCoalescer;
+import mpadillamarcos.javaspringbank.domain.balance.HotAccountBalances;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.MybatisBatchRepositories;
+import mpadillamarcos.javaspringbank.infra.TestClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferRequest.transferRequest;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        classes = {
+                BatchTransferService.class,
+                MybatisBatchRepositories.class,
+                TransactionService.class,
+                AccountService.class,
+                AccountCache.class,
+                AccountAccessService.class,
+                AccountAccessCache.class,
+                BalanceService.class,
+                AtomicBalanceLedger.class,
+                HotAccountBalances.class,
+                CreditCoalescer.class,
+                TestClock.class
+        }
+)
+public class BatchTransferServiceIT extends MapperTestBase {
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void persists_transfers_and_balances_in_a_batch() {
+        var origin = setupAccount(eur(100));
+        var destination1 = setupAccount(eur(0));
+        var destination2 = setupAccount(eur(0));
+
+        var results = batchTransferService.transfer(List.of(
+                transfer(origin, destination1, eur(30)),
+                transfer(origin, destination2, eur(80)),
+                transfer(origin, destination2, eur(50))
+        ));
+
+        assertThat(results).extracting(TransferResult::isTransferred).containsExactly(true, false, true);
+        assertThat(balanceService.getBalance(origin.getAccountId()).getAmount().getAmount())
+                .isEqualByComparingTo(eur(20).getAmount());
+        assertThat(transactionRepository.findTransactionsByAccountId(origin.getAccountId())).hasSize(2);
+        assertThat(transactionRepository.findTransactionsByAccountId(destination1.getAccountId())).hasSize(1);
+        assertThat(transactionRepository.findTransactionsByAccountId(destination2.getAccountId())).hasSize(1);
+        assertThat(transactionRepository.findTransactionById(results.get(0).getTransactionId())).isPresent();
+    }
+
+    @Test
+    void writes_nothing_when_no_transfer_is_valid() {
+        var origin = setupAccount(eur(100));
+        var destination = setupAccount(eur(0));
+        accountService.blockAccount(destination.getAccountId());
+
+        var results = batchTransferService.transfer(List.of(transfer(origin, destination, eur(30))));
+
+        assertThat(results).extracting(TransferResult::isTransferred).containsExactly(false);
+        assertThat(transactionRepository.findTransactionsByAccountId(origin.getAccountId())).isEmpty();
+    }
+
+    private TransferRequest transfer(AccountView origin, AccountView destination, Money amount) {
+        return transferRequest()
+                .userId(origin.getUserId())
+                .originAccountId(origin.getAccountId())
+                .destinationAccountId(destination.getAccountId())
+                .amount(amount)
+                .build();
+    }
+
+    private AccountView setupAccount(Money amount) {
+        var account = accountService.openAccount(randomUserId());
+        balanceService.deposit(account.getAccountId(), amount);
+        return account;
+    }
+}
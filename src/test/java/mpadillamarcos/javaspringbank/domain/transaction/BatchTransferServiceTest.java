@@ -0,0 +1,271 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.account.Account;
+import mpadillamarcos.javaspringbank.domain.account.AccountService;
+import mpadillamarcos.javaspringbank.domain.balance.AtomicBalanceLedger;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceLedger;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceRepository;
+import mpadillamarcos.javaspringbank.domain.balance.HotAccountBalances;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.infra.InMemoryBatchRepositories;
+import mpadillamarcos.javaspringbank.infra.TestClock;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static mpadillamarcos.javaspringbank.domain.access.AccessType.VIEWER;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.account.AccountState.BLOCKED;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.money.Money.ofMinorUnits;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.INCOMING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.newTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.OUTGOING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionState.PENDING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferRequest.transferRequest;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferResult.failed;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferResult.transferred;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static mpadillamarcos.javaspringbank.infra.TestClock.NOW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+import static org.springframework.transaction.support.TransactionOperations.withoutTransaction;
+
+class BatchTransferServiceTest {
+
+    private final BalanceRepository balanceRepository = new InMemoryBalanceRepository();
+    private final TransactionRepository transactionRepository = new InMemoryTransactionRepository();
+    private final AccountService accountService = mock(AccountService.class);
+    private final AccountAccessService accessService = mock(AccountAccessService.class);
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final HotAccountBalances hotAccounts = mock(HotAccountBalances.class);
+    private final BatchTransferService service = service(new AtomicBalanceLedger(balanceRepository));
+    private final List<Account> accounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(accountService.getAccounts(anySet())).thenAnswer(invocation -> accounts);
+    }
+
+    @Test
+    void transfers_money_and_creates_pending_transactions() {
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var destination = openAccount(randomUserId(), eur(0));
+
+        var results = service.transfer(List.of(
+                transfer(userId, origin, destination).amount(eur(30)).concept("Rent").build()
+        ));
+
+        assertThat(results).hasSize(1);
+        var transactionId = results.get(0).getTransactionId();
+        var outgoing = transactionRepository.findTransactionById(transactionId).orElseThrow();
+        var incoming = transactionRepository.findTransactionsByGroupId(outgoing.getGroupId()).stream()
+                .filter(transaction -> transaction.is(INCOMING))
+                .findFirst()
+                .orElseThrow();
+        assertThat(outgoing)
+                .returns(origin.getId(), Transaction::getAccountId)
+                .returns(eur(30), Transaction::getAmount)
+                .returns(NOW, Transaction::getCreatedDate)
+                .returns(PENDING, Transaction::getState)
+                .returns(OUTGOING, Transaction::getDirection)
+                .returns(TRANSFER, Transaction::getType)
+                .returns("Rent", Transaction::getConcept);
+        assertThat(incoming)
+                .returns(destination.getId(), Transaction::getAccountId)
+                .returns(eur(30), Transaction::getAmount);
+        assertThat(balanceRepository.findBalance(origin.getId()).map(Balance::getAmount)).hasValue(eur(70));
+        assertThat(balanceRepository.findBalance(destination.getId()).map(Balance::getAmount)).hasValue(eur(0));
+    }
+
+    @Test
+    void reports_insufficient_balance_without_failing_other_transfers() {
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var destination = openAccount(randomUserId(), eur(0));
+
+        var results = service.transfer(List.of(
+                transfer(userId, origin, destination).amount(eur(60)).build(),
+                transfer(userId, origin, destination).amount(eur(60)).build(),
+                transfer(userId, origin, destination).amount(eur(40)).build()
+        ));
+
+        assertThat(results).extracting(TransferResult::isTransferred).containsExactly(true, false, true);
+        assertThat(results.get(1).getError()).startsWith("The amount to withdraw (60.00) exceeds the current balance");
+        assertThat(balanceRepository.findBalance(origin.getId()).map(Balance::getAmount)).hasValue(eur(0));
+        assertThat(transactionRepository.findTransactionsByAccountId(origin.getId())).hasSize(2);
+    }
+
+    @Test
+    void reports_invalid_accounts_and_accesses_per_transfer() {
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var blocked = dummyAccount().build().block();
+        accounts.add(blocked);
+        var viewer = randomUserId();
+        var missingAccountId = randomAccountId();
+        when(accessService.findAccountAccess(origin.getId(), viewer))
+                .thenReturn(Optional.of(dummyAccountAccess().accountId(origin.getId()).userId(viewer).type(VIEWER).build()));
+
+        var results = service.transfer(List.of(
+                transfer(userId, origin, blocked).build(),
+                transferRequest().userId(userId).originAccountId(origin.getId()).destinationAccountId(missingAccountId).amount(eur(10)).build(),
+                transfer(randomUserId(), origin, origin).build(),
+                transfer(viewer, origin, origin).build()
+        ));
+
+        assertThat(results).containsExactly(
+                failed("The account with ID " + blocked.getId().value() + " is " + BLOCKED),
+                failed("account not found"),
+                results.get(2),
+                failed("User with ID " + viewer.value() + " has no operation permits")
+        );
+        assertThat(results.get(2).getError()).endsWith("has no access to that account");
+        assertThat(balanceRepository.findBalance(origin.getId())).hasValue(balance(origin, eur(100)));
+    }
+
+    @Test
+    void checks_each_distinct_account_and_access_once() {
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var destination = openAccount(randomUserId(), eur(0));
+
+        service.transfer(List.of(
+                transfer(userId, origin, destination).amount(eur(10)).build(),
+                transfer(userId, origin, destination).amount(eur(10)).build(),
+                transfer(userId, origin, destination).amount(eur(10)).build()
+        ));
+
+        verify(accountService).getAccounts(Set.of(origin.getId(), destination.getId()));
+        verify(accessService, times(1)).findAccountAccess(origin.getId(), userId);
+        verify(accountService, never()).getById(any());
+    }
+
+    @Test
+    void fails_only_the_transfers_out_of_an_account_without_balance() {
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var withoutBalance = dummyAccount().userId(userId).build();
+        accounts.add(withoutBalance);
+        when(accessService.findAccountAccess(withoutBalance.getId(), userId))
+                .thenReturn(Optional.of(dummyAccountAccess().accountId(withoutBalance.getId()).userId(userId).build()));
+        var destination = openAccount(randomUserId(), eur(0));
+
+        var results = service.transfer(List.of(
+                transfer(userId, withoutBalance, destination).build(),
+                transfer(userId, origin, destination).amount(eur(30)).build()
+        ));
+
+        assertThat(results.get(0)).isEqualTo(failed("balance not found"));
+        assertThat(results.get(1).isTransferred()).isTrue();
+        assertThat(balanceRepository.findBalance(origin.getId()).map(Balance::getAmount)).hasValue(eur(70));
+    }
+
+    @Test
+    void fails_only_the_transfers_in_another_currency_than_their_origin() {
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var yenAccount = openAccount(userId, ofMinorUnits(10_000, JPY));
+        var destination = openAccount(randomUserId(), eur(0));
+
+        var results = service.transfer(List.of(
+                transfer(userId, yenAccount, destination).amount(eur(10)).build(),
+                transfer(userId, origin, destination).amount(eur(30)).build()
+        ));
+
+        assertThat(results.get(0)).isEqualTo(failed("The currencies are different"));
+        assertThat(results.get(1).isTransferred()).isTrue();
+        assertThat(balanceRepository.findBalance(yenAccount.getId()).map(Balance::getAmount)).hasValue(ofMinorUnits(10_000, JPY));
+        assertThat(balanceRepository.findBalance(origin.getId()).map(Balance::getAmount)).hasValue(eur(70));
+    }
+
+    @Test
+    void places_transfers_out_of_hot_accounts_through_the_transaction_service() {
+        var userId = randomUserId();
+        var hot = openAccount(userId, eur(100));
+        var origin = openAccount(userId, eur(100));
+        var destination = openAccount(randomUserId(), eur(0));
+        var hotTransfer = transfer(userId, hot, destination).amount(eur(30)).build();
+        var transactionId = newTransactionId();
+        when(hotAccounts.isHot(hot.getId())).thenReturn(true);
+        when(transactionService.transfer(hotTransfer)).thenReturn(transactionId);
+
+        var results = service.transfer(List.of(
+                hotTransfer,
+                transfer(userId, origin, destination).amount(eur(30)).build()
+        ));
+
+        assertThat(results.get(0)).isEqualTo(transferred(transactionId));
+        assertThat(results.get(1).isTransferred()).isTrue();
+        verify(transactionService, times(1)).transfer(any());
+        assertThat(balanceRepository.findBalance(hot.getId()).map(Balance::getAmount)).hasValue(eur(100));
+        assertThat(balanceRepository.findBalance(origin.getId()).map(Balance::getAmount)).hasValue(eur(70));
+    }
+
+    @Test
+    void places_every_transfer_one_by_one_when_the_ledger_does_not_persist_immediately() {
+        var ledger = mock(BalanceLedger.class);
+        when(ledger.persistsImmediately()).thenReturn(false);
+        var userId = randomUserId();
+        var origin = openAccount(userId, eur(100));
+        var destination = openAccount(randomUserId(), eur(0));
+        var request = transfer(userId, origin, destination).build();
+        var transactionId = newTransactionId();
+        when(transactionService.transfer(request)).thenReturn(transactionId);
+
+        var results = service(ledger).transfer(List.of(request));
+
+        assertThat(results).containsExactly(transferred(transactionId));
+        assertThat(balanceRepository.findBalance(origin.getId()).map(Balance::getAmount)).hasValue(eur(100));
+        verify(accountService, never()).getAccounts(anySet());
+    }
+
+    private BatchTransferService service(BalanceLedger ledger) {
+        return new BatchTransferService(
+                new InMemoryBatchRepositories(balanceRepository, transactionRepository),
+                accountService,
+                accessService,
+                transactionService,
+                ledger,
+                hotAccounts,
+                withoutTransaction(),
+                new TestClock()
+        );
+    }
+
+    private Account openAccount(UserId userId, Money amount) {
+        var account = dummyAccount().userId(userId).build();
+        accounts.add(account);
+        balanceRepository.insert(balance(account, amount));
+        when(accessService.findAccountAccess(account.getId(), userId))
+                .thenReturn(Optional.of(dummyAccountAccess().accountId(account.getId()).userId(userId).build()));
+        return account;
+    }
+
+    private Balance balance(Account account, Money amount) {
+        return dummyBalance().accountId(account.getId()).amount(amount).build();
+    }
+
+    private TransferRequest.TransferRequestBuilder transfer(UserId userId, Account origin, Account destination) {
+        return transferRequest()
+                .userId(userId)
+                .originAccountId(origin.getId())
+                .destinationAccountId(destination.getId())
+                .amount(eur(10));
+    }
+}
@@ -0,0 +1,163 @@
+package mpadillamarcos.javaspringbank.domain.transaction;
+
+import mpadillamarcos.javaspringbank.domain.exception.DecisionConflictException;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionQueueFullException;
+import mpadillamarcos.javaspringbank.domain.exception.NotFoundException;
+import mpadillamarcos.javaspringbank.infra.InMemoryTransactionManager;
+import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyTransfer;
+import static mpadillamarcos.javaspringbank.domain.transaction.DecisionState.PENDING;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.CONFIRM;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.REJECT;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class TransactionDecisionQueueTest {
+
+    private final TransactionRepository repository = new InMemoryTransactionRepository();
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final TransactionOperations transactionOperations = new TransactionTemplate(new InMemoryTransactionManager()) {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            transactions.incrementAndGet();
+            return super.execute(action);
+        }
+    };
+    private TransactionDecisionQueue queue = newQueue(false, 0, 100, 1000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.destroy();
+    }
+
+    @Test
+    void throws_not_found_when_transaction_does_not_exist() {
+        assertThrows(NotFoundException.class, () -> queue.submit(randomTransactionId(), CONFIRM));
+    }
+
+    @Test
+    void keeps_the_decision_pending_until_it_is_applied() {
+        var transaction = storedTransfer();
+
+        var status = queue.submit(transaction.getId(), CONFIRM);
+
+        assertThat(status).isEqualTo(DecisionStatus.pending(CONFIRM));
+        assertThat(queue.findStatus(transaction.getId())).hasValue(status);
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void applies_queued_decisions_in_one_transaction() {
+        var confirmed = storedTransfer();
+        var rejected = storedTransfer();
+
+        queue.submit(confirmed.getId(), CONFIRM);
+        queue.submit(rejected.getId(), REJECT);
+        queue.flush();
+
+        verify(transactionService).confirm(confirmed.getId());
+        verify(transactionService).reject(rejected.getId());
+        assertThat(transactions).hasValue(1);
+        assertThat(queue.findStatus(confirmed.getId())).hasValue(DecisionStatus.applied(CONFIRM));
+        assertThat(queue.findStatus(rejected.getId())).hasValue(DecisionStatus.applied(REJECT));
+    }
+
+    @Test
+    void fails_only_the_decision_that_cannot_be_applied() {
+        var valid = storedTransfer();
+        var invalid = storedTransfer();
+        doThrow(new IllegalStateException("The account is BLOCKED"))
+                .when(transactionService).confirm(invalid.getId());
+
+        queue.submit(valid.getId(), CONFIRM);
+        queue.submit(invalid.getId(), CONFIRM);
+        queue.flush();
+
+        assertThat(queue.findStatus(valid.getId())).hasValue(DecisionStatus.applied(CONFIRM));
+        assertThat(queue.findStatus(invalid.getId()))
+                .hasValue(DecisionStatus.failed(CONFIRM, "The account is BLOCKED"));
+    }
+
+    @Test
+    void does_not_queue_a_decision_twice_while_it_is_pending() {
+        var transaction = storedTransfer();
+
+        queue.submit(transaction.getId(), CONFIRM);
+        var status = queue.submit(transaction.getId(), CONFIRM);
+        queue.flush();
+
+        assertThat(status).isEqualTo(DecisionStatus.pending(CONFIRM));
+        verify(transactionService, times(1)).confirm(transaction.getId());
+    }
+
+    @Test
+    void refuses_the_opposite_decision_while_one_is_pending() {
+        var transaction = storedTransfer();
+
+        queue.submit(transaction.getId(), CONFIRM);
+        assertThrows(DecisionConflictException.class, () -> queue.submit(transaction.getId(), REJECT));
+        queue.flush();
+
+        verify(transactionService).confirm(transaction.getId());
+        verify(transactionService, never()).reject(any());
+    }
+
+    @Test
+    void refuses_decisions_while_the_queue_is_full() {
+        queue = newQueue(false, 0, 1, 1000);
+        var queued = storedTransfer();
+        var refused = storedTransfer();
+
+        queue.submit(queued.getId(), CONFIRM);
+
+        assertThrows(DecisionQueueFullException.class, () -> queue.submit(refused.getId(), CONFIRM));
+        assertThat(queue.findStatus(refused.getId())).isEmpty();
+    }
+
+    @Test
+    void keeps_pending_decisions_beyond_the_maximum_number_of_outcomes() {
+        queue = newQueue(false, 0, 100, 1);
+        var transactions = List.of(storedTransfer(), storedTransfer(), storedTransfer());
+
+        transactions.forEach(transaction -> queue.submit(transaction.getId(), CONFIRM));
+
+        transactions.forEach(transaction -> assertThat(queue.findStatus(transaction.getId()))
+                .hasValue(DecisionStatus.pending(CONFIRM)));
+    }
+
+    @Test
+    void applies_decisions_in_the_background_when_enabled() throws InterruptedException {
+        queue = newQueue(true, 2, 100, 1000);
+        var transaction = storedTransfer();
+
+        queue.submit(transaction.getId(), CONFIRM);
+
+        for (int i = 0; i < 100 && queue.findStatus(transaction.getId()).orElseThrow().is(PENDING); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(queue.findStatus(transaction.getId())).hasValue(DecisionStatus.applied(CONFIRM));
+    }
+
+    private TransactionDecisionQueue newQueue(boolean enabled, int workers, int capacity, long maxStatuses) {
+        return new TransactionDecisionQueue(
+                transactionService, repository, transactionOperations, enabled, workers, 50, capacity, maxStatuses, 60_000);
+    }
+
+    private Transaction storedTransfer() {
+        var transaction = dummyTransfer().build();
+        repository.insert(transaction);
+        return transaction;
+    }
+}
@@ -1,10 +1,15 @@
 package mpadillamarcos.javaspringbank.domain.transaction;
 
 import lombok.SneakyThrows;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccessCache;
 import mpadillamarcos.javaspringbank.domain.access.AccountAccessService;
+import mpadillamarcos.javaspringbank.domain.account.AccountCache;
 import mpadillamarcos.javaspringbank.domain.account.AccountService;
 import mpadillamarcos.javaspringbank.domain.account.AccountView;
+import mpadillamarcos.javaspringbank.domain.balance.AtomicBalanceLedger;
 import mpadillamarcos.javaspringbank.domain.balance.BalanceService;
+import mpadillamarcos.javaspringbank.domain.balance.CreditCoalescer;
+import mpadillamarcos.javaspringbank.domain.balance.HotAccountBalances;
 import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
 import mpadillamarcos.javaspringbank.domain.money.Money;
 import mpadillamarcos.javaspringbank.infra.MapperTestBase;
@@ -27,7 +32,10 @@ import static java.util.stream.IntStream.range;
 import static mpadillamarcos.javaspringbank.domain.Instances.dummyTransfer;
 import static mpadillamarcos.javaspringbank.domain.Instances.dummyWithdraw;
 import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.DecisionState.APPLIED;
+import static mpadillamarcos.javaspringbank.domain.transaction.DecisionState.FAILED;
 import static mpadillamarcos.javaspringbank.domain.transaction.DepositRequest.depositRequest;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.CONFIRM;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionState.PENDING;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransferRequest.transferRequest;
 import static mpadillamarcos.javaspringbank.domain.transaction.WithdrawRequest.withdrawRequest;
@@ -41,8 +49,14 @@ import static org.mockito.Mockito.doThrow;
         classes = {
                 TransactionService.class,
                 AccountService.class,
+                AccountCache.class,
                 AccountAccessService.class,
+                AccountAccessCache.class,
                 BalanceService.class,
+                AtomicBalanceLedger.class,
+                HotAccountBalances.class,
+                CreditCoalescer.class,
+                TransactionDecisionQueue.class,
                 TestClock.class
         }
 )
@@ -56,6 +70,8 @@ public class TransactionServiceIT extends MapperTestBase {
     private BalanceService balanceService;
     @Autowired
     private AccountService accountService;
+    @Autowired
+    private TransactionDecisionQueue decisionQueue;
 
     @Nested
     class Transfer {
@@ -166,6 +182,44 @@ public class TransactionServiceIT extends MapperTestBase {
         }
     }
 
+    @Nested
+    class DecisionQueue {
+
+        @Test
+        void applies_the_valid_decisions_of_a_batch_when_another_one_fails() {
+            var userId = randomUserId();
+            var origin = accountService.openAccount(userId);
+            var validDestination = accountService.openAccount(randomUserId());
+            var blockedDestination = accountService.openAccount(randomUserId());
+            balanceService.deposit(origin.getAccountId(), eur(100));
+            var valid = transactionService.transfer(transferRequest()
+                    .userId(userId)
+                    .originAccountId(origin.getAccountId())
+                    .destinationAccountId(validDestination.getAccountId())
+                    .amount(eur(10))
+                    .build());
+            var invalid = transactionService.transfer(transferRequest()
+                    .userId(userId)
+                    .originAccountId(origin.getAccountId())
+                    .destinationAccountId(blockedDestination.getAccountId())
+                    .amount(eur(20))
+                    .build());
+            accountService.blockAccount(blockedDestination.getAccountId());
+
+            decisionQueue.submit(valid, CONFIRM);
+            decisionQueue.submit(invalid, CONFIRM);
+            decisionQueue.flush();
+
+            assertThat(decisionQueue.findStatus(valid)).get()
+                    .returns(APPLIED, DecisionStatus::getState);
+            assertThat(decisionQueue.findStatus(invalid)).get()
+                    .returns(FAILED, DecisionStatus::getState);
+            assertThat(balanceService.getBalance(validDestination.getAccountId()).getAmount()).isEqualTo(eur(10));
+            assertThat(transactionRepository.findTransactionById(invalid)).get()
+                    .returns(PENDING, Transaction::getState);
+        }
+    }
+
     @Nested
     class Concurrency {
 
@@ -16,6 +16,7 @@ import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionReposi
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Optional;
 
 import static java.util.Optional.empty;
@@ -521,20 +522,86 @@ class TransactionServiceTest {
         void returns_nothing_when_account_has_no_transactions() {
             var accountId = randomAccountId();
 
-            assertThat(service.listTransactionsByAccountId(accountId)).isEmpty();
+            var page = service.listTransactionsByAccountId(accountId, null, 10);
+
+            assertThat(page.getTransactions()).isEmpty();
+            assertThat(page.getNext()).isEmpty();
         }
 
         @Test
-        void returns_all_transactions_associated_to_one_account() {
+        void returns_all_transactions_associated_to_one_account_newest_first() {
             var accountId = randomAccountId();
-            var transaction1 = createTransaction(dummyTransfer().accountId(accountId));
-            var transaction2 = createTransaction(dummyDeposit().accountId(accountId));
-            var transaction3 = createTransaction(dummyWithdraw().accountId(accountId));
+            var transaction1 = createTransaction(dummyTransfer().accountId(accountId).createdDate(NOW.minusSeconds(2)));
+            var transaction2 = createTransaction(dummyDeposit().accountId(accountId).createdDate(NOW.minusSeconds(1)));
+            var transaction3 = createTransaction(dummyWithdraw().accountId(accountId).createdDate(NOW));
+            createTransaction(dummyWithdraw());
 
             var transactions = service.listTransactionsByAccountId(accountId);
 
-            assertThat(transactions).hasSize(3);
-            assertThat(transactions).containsExactly(transaction1, transaction2, transaction3);
+            assertThat(transactions).containsExactly(transaction3, transaction2, transaction1);
+        }
+
+        @Test
+        void returns_transactions_of_one_account_newest_first() {
+            var accountId = randomAccountId();
+            var transaction1 = createTransaction(dummyTransfer().accountId(accountId).createdDate(NOW.minusSeconds(2)));
+            var transaction2 = createTransaction(dummyDeposit().accountId(accountId).createdDate(NOW.minusSeconds(1)));
+            var transaction3 = createTransaction(dummyWithdraw().accountId(accountId).createdDate(NOW));
+            createTransaction(dummyWithdraw());
+
+            var page = service.listTransactionsByAccountId(accountId, null, 10);
+
+            assertThat(page.getTransactions()).containsExactly(transaction3, transaction2, transaction1);
+            assertThat(page.getNext()).isEmpty();
+        }
+
+        @Test
+        void returns_cursor_to_the_next_page_when_there_are_more_transactions() {
+            var accountId = randomAccountId();
+            var transaction1 = createTransaction(dummyTransfer().accountId(accountId).createdDate(NOW.minusSeconds(2)));
+            var transaction2 = createTransaction(dummyDeposit().accountId(accountId).createdDate(NOW.minusSeconds(1)));
+            var transaction3 = createTransaction(dummyWithdraw().accountId(accountId).createdDate(NOW));
+
+            var firstPage = service.listTransactionsByAccountId(accountId, null, 2);
+            var secondPage = service.listTransactionsByAccountId(accountId, firstPage.getNext().orElseThrow(), 2);
+
+            assertThat(firstPage.getTransactions()).containsExactly(transaction3, transaction2);
+            assertThat(firstPage.getNext()).hasValue(TransactionCursor.cursorOf(transaction2));
+            assertThat(secondPage.getTransactions()).containsExactly(transaction1);
+            assertThat(secondPage.getNext()).isEmpty();
+        }
+
+        @Test
+        void pages_through_transactions_created_at_the_same_time() {
+            var accountId = randomAccountId();
+            for (int i = 0; i < 5; i++) {
+                createTransaction(dummyDeposit().accountId(accountId).createdDate(NOW));
+            }
+
+            var firstPage = service.listTransactionsByAccountId(accountId, null, 3);
+            var secondPage = service.listTransactionsByAccountId(accountId, firstPage.getNext().orElseThrow(), 3);
+
+            assertThat(firstPage.getTransactions()).hasSize(3);
+            assertThat(secondPage.getTransactions()).hasSize(2)
+                    .doesNotContainAnyElementsOf(firstPage.getTransactions());
+        }
+    }
+
+    @Nested
+    class ExportTransactions {
+
+        @Test
+        void passes_every_transaction_of_the_account_oldest_first() {
+            var accountId = randomAccountId();
+            var transaction1 = createTransaction(dummyTransfer().accountId(accountId).createdDate(NOW.minusSeconds(2)));
+            var transaction2 = createTransaction(dummyDeposit().accountId(accountId).createdDate(NOW.minusSeconds(1)));
+            var transaction3 = createTransaction(dummyWithdraw().accountId(accountId).createdDate(NOW));
+            createTransaction(dummyWithdraw());
+            var exported = new ArrayList<Transaction>();
+
+            service.exportTransactionsByAccountId(accountId, exported::add);
+
+            assertThat(exported).containsExactly(transaction1, transaction2, transaction3);
         }
     }
 
@@ -0,0 +1,149 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+import static java.lang.System.nanoTime;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the table and index sizes of transactions and balances, and how long a full scan of
+ * each takes, with amounts as numeric and enums as text, the layout before V12, against the
+ * current bigint minor units and smallint codes. Both copies hold the same generated rows and are
+ * vacuumed first, so the sizes are those of a freshly written table; a migrated one only shrinks
+ * to them after a {@code VACUUM FULL}. Tune it with {@code -Dcompact.transactions=5000000}.
+ */
+@Slf4j
+@SpringBootTest
+public class CompactColumnsBenchmarkIT extends MapperTestBase {
+
+    private static final int TRANSACTIONS = Integer.getInteger("compact.transactions", 1_000_000);
+    private static final int BALANCES = Integer.getInteger("compact.balances", 200_000);
+    private static final int SCANS = 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compares_text_and_numeric_columns_with_compact_ones() {
+        try {
+            createTables();
+            var legacyTransactions = measure("legacy_transactions", """
+                    SELECT count(*), sum(amount) FROM legacy_transactions
+                    WHERE state = 'CONFIRMED' AND type = 'WITHDRAW' AND currency = 'EUR'
+                    """);
+            var compactTransactions = measure("compact_transactions", """
+                    SELECT count(*), sum(amount) FROM compact_transactions
+                    WHERE state = 2 AND type = 1 AND currency = 978
+                    """);
+            var legacyBalances = measure("legacy_balances", """
+                    SELECT count(*), sum(amount) FROM legacy_balances WHERE amount >= 500 AND currency = 'EUR'
+                    """);
+            var compactBalances = measure("compact_balances", """
+                    SELECT count(*), sum(amount) FROM compact_balances WHERE amount >= 50000 AND currency = 978
+                    """);
+            log.info("Transactions, legacy: {}; compact: {}", legacyTransactions, compactTransactions);
+            log.info("Balances, legacy: {}; compact: {}", legacyBalances, compactBalances);
+
+            assertThat(compactTransactions.heapMegabytes()).isLessThan(legacyTransactions.heapMegabytes());
+            // the balance rows only shrink within their alignment padding, so a page holds as many of them
+            assertThat(compactBalances.heapMegabytes()).isLessThanOrEqualTo(legacyBalances.heapMegabytes());
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS legacy_transactions, compact_transactions, legacy_balances, compact_balances");
+        }
+    }
+
+    private void createTables() {
+        jdbcTemplate.execute("""
+                CREATE TABLE legacy_transactions (
+                    id uuid not null PRIMARY KEY,
+                    group_id uuid not null,
+                    user_id uuid not null,
+                    account_id uuid not null,
+                    amount numeric not null,
+                    currency text not null,
+                    created_date timestamp not null,
+                    state text not null,
+                    direction text not null,
+                    type text not null,
+                    concept text
+                )
+                """);
+        jdbcTemplate.execute("CREATE INDEX ON legacy_transactions (account_id, created_date DESC, id DESC)");
+        jdbcTemplate.execute("CREATE INDEX ON legacy_transactions (group_id)");
+        jdbcTemplate.execute("CREATE TABLE compact_transactions (LIKE transactions INCLUDING ALL)");
+        jdbcTemplate.execute("""
+                CREATE TABLE legacy_balances (
+                    account_id uuid not null PRIMARY KEY,
+                    amount numeric not null,
+                    currency text not null,
+                    version bigint not null default 0
+                )
+                """);
+        jdbcTemplate.execute("CREATE TABLE compact_balances (LIKE balances INCLUDING ALL)");
+
+        jdbcTemplate.execute("""
+                INSERT INTO legacy_transactions
+                SELECT gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), gen_random_uuid(),
+                       (n %% 100000) / 100.0, 'EUR', now() - make_interval(secs => n),
+                       (ARRAY['PENDING', 'CONFIRMED', 'REJECTED', 'REVERTED'])[1 + n %% 4],
+                       (ARRAY['INCOMING', 'OUTGOING'])[1 + n %% 2],
+                       (ARRAY['WITHDRAW', 'DEPOSIT', 'TRANSFER'])[1 + n %% 3],
+                       null
+                FROM generate_series(1, %d) AS n
+                """.formatted(TRANSACTIONS));
+        jdbcTemplate.execute("""
+                INSERT INTO compact_transactions (id, group_id, user_id, account_id, amount, currency, created_date,
+                                                  state, direction, type, concept)
+                SELECT id, group_id, user_id, account_id, (amount * 100)::bigint, 978, created_date,
+                       CASE state WHEN 'PENDING' THEN 1 WHEN 'CONFIRMED' THEN 2 WHEN 'REJECTED' THEN 3 ELSE 4 END,
+                       CASE direction WHEN 'INCOMING' THEN 1 ELSE 2 END,
+                       CASE type WHEN 'WITHDRAW' THEN 1 WHEN 'DEPOSIT' THEN 2 ELSE 3 END,
+                       concept
+                FROM legacy_transactions
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO legacy_balances
+                SELECT gen_random_uuid(), (n %% 100000) / 100.0, 'EUR', n
+                FROM generate_series(1, %d) AS n
+                """.formatted(BALANCES));
+        jdbcTemplate.execute("""
+                INSERT INTO compact_balances (account_id, amount, currency, version)
+                SELECT account_id, (amount * 100)::bigint, 978, version FROM legacy_balances
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE legacy_transactions, compact_transactions, legacy_balances, compact_balances");
+    }
+
+    private Result measure(String table, String scan) {
+        jdbcTemplate.queryForMap(scan);
+        var millis = new double[SCANS];
+        for (int i = 0; i < SCANS; i++) {
+            var start = nanoTime();
+            jdbcTemplate.queryForMap(scan);
+            millis[i] = (nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+
+        return new Result(
+                megabytes("SELECT pg_relation_size(?::regclass)", table),
+                megabytes("SELECT pg_indexes_size(?::regclass)", table),
+                millis[SCANS / 2]);
+    }
+
+    private double megabytes(String sql, String relation) {
+        return jdbcTemplate.queryForObject(sql, Long.class, relation) / 1024.0 / 1024.0;
+    }
+
+    private record Result(double heapMegabytes, double indexMegabytes, double scanMillis) {
+
+        @Override
+        public String toString() {
+            return "heap %.1f MB, indexes %.1f MB, scan %.1f ms (p50)".formatted(heapMegabytes, indexMegabytes, scanMillis);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+class InMemoryTransactionManagerTest {
+
+    private final InMemoryTransactionManager transactionManager = new InMemoryTransactionManager();
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    private final InMemoryBalanceRepository repository = new InMemoryBalanceRepository();
+
+    @Nested
+    class Rollback {
+
+        @Test
+        void reverts_the_writes_of_the_transaction() {
+            var balance = dummyBalance().amount(eur(100)).build();
+            repository.insert(balance);
+
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                repository.debit(balance.getAccountId(), eur(30));
+                repository.update(repository.findBalance(balance.getAccountId()).orElseThrow().withdraw(eur(20)));
+                throw new IllegalStateException();
+            }));
+
+            assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount()).isEqualTo(eur(100));
+        }
+
+        @Test
+        void reverts_the_writes_of_participating_transactions() {
+            var balance = dummyBalance().amount(eur(100)).build();
+            repository.insert(balance);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.debit(balance.getAccountId(), eur(30));
+                try {
+                    transactionTemplate.executeWithoutResult(inner -> {
+                        repository.debit(balance.getAccountId(), eur(20));
+                        throw new IllegalStateException();
+                    });
+                } catch (IllegalStateException ignored) {
+                }
+                status.setRollbackOnly();
+            });
+
+            assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount()).isEqualTo(eur(100));
+        }
+
+        @Test
+        void keeps_the_writes_of_a_committed_inner_transaction() {
+            var balance = dummyBalance().amount(eur(100)).build();
+            repository.insert(balance);
+            var requiresNew = new TransactionTemplate(transactionManager);
+            requiresNew.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.debit(balance.getAccountId(), eur(30));
+                requiresNew.executeWithoutResult(inner -> repository.debit(balance.getAccountId(), eur(20)));
+                status.setRollbackOnly();
+            });
+
+            assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount()).isEqualTo(eur(80));
+        }
+    }
+
+    @Nested
+    class Commit {
+
+        @Test
+        void keeps_the_writes_and_applies_credits() {
+            var balance = dummyBalance().amount(eur(100)).build();
+            repository.insert(balance);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.debit(balance.getAccountId(), eur(30));
+                repository.credit(balance.getAccountId(), eur(5));
+                assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount()).isEqualTo(eur(70));
+            });
+
+            assertThat(repository.findBalance(balance.getAccountId()).orElseThrow().getAmount()).isEqualTo(eur(75));
+        }
+    }
+
+    @Nested
+    class ForUpdate {
+
+        @Test
+        void blocks_other_transactions_until_commit() throws Exception {
+            var balance = dummyBalance().amount(eur(100)).build();
+            repository.insert(balance);
+            var locked = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+
+            var holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                repository.findBalanceForUpdate(balance.getAccountId());
+                locked.countDown();
+                await(release);
+            }));
+            locked.await();
+
+            assertThrows(CannotAcquireLockException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                    repository.findBalanceForUpdate(balance.getAccountId())));
+
+            release.countDown();
+            holder.get();
+            transactionTemplate.executeWithoutResult(status ->
+                    assertThat(repository.findBalanceForUpdate(balance.getAccountId())).isPresent());
+        }
+
+        @Test
+        void holds_the_lock_until_the_writes_are_reverted() {
+            var balance = dummyBalance().amount(eur(100)).build();
+            repository.insert(balance);
+            var lockedWhileReverting = new AtomicBoolean();
+
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                repository.findBalanceForUpdate(balance.getAccountId());
+                UndoLog.record(() -> lockedWhileReverting.set(isLocked(balance.getAccountId())));
+                throw new IllegalStateException();
+            }));
+
+            assertThat(lockedWhileReverting).isTrue();
+        }
+
+        @Test
+        void keeps_atomic_writes_from_landing_between_a_locked_read_and_its_update() throws Exception {
+            var balance = dummyBalance().amount(eur(1000)).build();
+            repository.insert(balance);
+            var accountId = balance.getAccountId();
+
+            try (var executor = Executors.newFixedThreadPool(8)) {
+                var writes = new ArrayList<Future<?>>();
+                for (int i = 0; i < 200; i++) {
+                    writes.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                        var current = repository.findBalanceForUpdate(accountId).orElseThrow();
+                        Thread.yield();
+                        repository.update(current.deposit(eur(2)));
+                    })));
+                    writes.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                            repository.debit(accountId, eur(1)))));
+                    writes.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                            repository.credit(accountId, eur(1)))));
+                }
+                for (var write : writes) {
+                    write.get();
+                }
+            }
+
+            assertThat(repository.findBalance(accountId).orElseThrow().getAmount()).isEqualTo(eur(1400));
+        }
+
+        private boolean isLocked(AccountId accountId) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> repository.findBalanceForUpdate(accountId));
+                    return false;
+                } catch (CannotAcquireLockException e) {
+                    return true;
+                }
+            }).join();
+        }
+
+        private void await(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
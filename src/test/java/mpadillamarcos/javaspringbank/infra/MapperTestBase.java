@@ -1,9 +1,6 @@
 package mpadillamarcos.javaspringbank.infra;
 
-import mpadillamarcos.javaspringbank.infra.type.AccountIdTypeHandler;
-import mpadillamarcos.javaspringbank.infra.type.GroupIdTypeHandler;
-import mpadillamarcos.javaspringbank.infra.type.TransactionIdTypeHandler;
-import mpadillamarcos.javaspringbank.infra.type.UserIdTypeHandler;
+import mpadillamarcos.javaspringbank.infra.type.*;
 import org.mybatis.spring.annotation.MapperScan;
 import org.mybatis.spring.boot.test.autoconfigure.AutoConfigureMybatis;
 import org.springframework.test.context.ContextConfiguration;
@@ -13,7 +10,14 @@ import org.springframework.test.context.ContextConfiguration;
         UserIdTypeHandler.class,
         AccountIdTypeHandler.class,
         TransactionIdTypeHandler.class,
-        GroupIdTypeHandler.class
+        GroupIdTypeHandler.class,
+        CurrencyTypeHandler.class,
+        AccountStateTypeHandler.class,
+        AccessTypeTypeHandler.class,
+        AccessStateTypeHandler.class,
+        TransactionStateTypeHandler.class,
+        TransactionDirectionTypeHandler.class,
+        TransactionTypeTypeHandler.class
 })
 @MapperScan(basePackages = "mpadillamarcos.javaspringbank.infra")
 public class MapperTestBase extends DbTestBase {
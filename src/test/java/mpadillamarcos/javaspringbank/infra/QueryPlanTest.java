@@ -0,0 +1,207 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
+import mpadillamarcos.javaspringbank.domain.account.Account;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
+import mpadillamarcos.javaspringbank.domain.balance.PendingCredit;
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequest;
+import mpadillamarcos.javaspringbank.domain.money.Money;
+import mpadillamarcos.javaspringbank.domain.transaction.Transaction;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionId;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.stream;
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor.cursorOf;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId.randomTransactionGroupId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static mpadillamarcos.javaspringbank.infra.TestClock.NOW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.jdbc.datasource.DataSourceUtils.getConnection;
+
+/**
+ * Explains every statement declared in the mapper XML files against a seeded copy of the schema
+ * and fails if any of them reads a whole table. New statements are picked up automatically; their
+ * parameters are built from {@link #SAMPLES}, so a new parameter type has to be added there.
+ */
+@SpringBootTest
+public class QueryPlanTest extends MapperTestBase {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 5;
+    private static final int HOT_ACCOUNTS = 100;
+
+    private static final Map<Class<?>, Supplier<?>> SAMPLES = Map.ofEntries(
+            Map.entry(AccountId.class, AccountId::randomAccountId),
+            Map.entry(UserId.class, UserId::randomUserId),
+            Map.entry(TransactionId.class, TransactionId::randomTransactionId),
+            Map.entry(TransactionGroupId.class, TransactionGroupId::randomTransactionGroupId),
+            Map.entry(TransactionCursor.class, () -> cursorOf(dummyTransfer().build())),
+            Map.entry(Account.class, () -> dummyAccount().build()),
+            Map.entry(AccountAccess.class, () -> dummyAccountAccess().build()),
+            Map.entry(Balance.class, () -> dummyBalance().build()),
+            Map.entry(BalanceSlot.class, () -> new BalanceSlot(randomAccountId(), 1, eur(10))),
+            Map.entry(PendingCredit.class, () -> new PendingCredit(randomAccountId(), eur(10))),
+            Map.entry(Transaction.class, () -> dummyTransfer().build()),
+            Map.entry(IdempotentRequest.class, () -> IdempotentRequest.builder()
+                    .userId(randomUserId())
+                    .key("key")
+                    .accountId(randomAccountId())
+                    .type(TRANSFER)
+                    .transactionId(randomTransactionId())
+                    .createdDate(NOW)
+                    .build()),
+            Map.entry(Money.class, () -> eur(10)),
+            Map.entry(Set.class, () -> Set.of(randomAccountId(), randomAccountId())),
+            Map.entry(String.class, () -> "key"),
+            Map.entry(long.class, () -> 1L),
+            Map.entry(int.class, () -> 50)
+    );
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void no_mapper_statement_scans_a_whole_table() {
+        var statements = mappedStatements();
+        var seqScans = new LinkedHashMap<String, String>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            seed();
+            var connection = getConnection(jdbcTemplate.getDataSource());
+            for (var statement : statements) {
+                var plan = explain(connection, statement);
+                if (plan.contains("Seq Scan")) {
+                    seqScans.put(statement.getId(), plan);
+                }
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(statements).hasSizeGreaterThan(20);
+        assertThat(seqScans).isEmpty();
+    }
+
+    private List<MappedStatement> mappedStatements() {
+        var configuration = sqlSessionFactory.getConfiguration();
+        return configuration.getMappedStatementNames().stream()
+                .filter(name -> name.contains("."))
+                .map(configuration::getMappedStatement)
+                .filter(statement -> statement.getResource().contains("db/mapper/"))
+                .sorted(Comparator.comparing(MappedStatement::getId))
+                .toList();
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("""
+                CREATE TEMPORARY TABLE seed ON COMMIT DROP AS
+                SELECT gen_random_uuid() AS account_id, gen_random_uuid() AS user_id
+                FROM generate_series(1, %d)
+                """.formatted(ACCOUNTS));
+        jdbcTemplate.execute("""
+                INSERT INTO accounts (id, user_id, created_date, state)
+                SELECT account_id, user_id, now(), 1 FROM seed
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO accesses (account_id, user_id, created_date, type, state)
+                SELECT account_id, user_id, now(), 1, 1 FROM seed
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO balances (account_id, amount, currency, version)
+                SELECT account_id, 10000, 978, 0 FROM seed
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO balance_slots (account_id, slot, amount, currency)
+                SELECT account_id, slot, CASE WHEN n <= 10 AND slot = 1 THEN 1000 ELSE 0 END, 978
+                FROM (SELECT account_id, row_number() OVER () AS n FROM seed LIMIT %d) AS hot, generate_series(1, 7) AS slot
+                """.formatted(HOT_ACCOUNTS));
+        jdbcTemplate.execute("""
+                INSERT INTO pending_credits (account_id, amount, currency)
+                SELECT account_id, 100, 978
+                FROM (SELECT account_id FROM seed LIMIT %d) AS hot, generate_series(1, 100)
+                """.formatted(HOT_ACCOUNTS));
+        jdbcTemplate.execute("""
+                INSERT INTO transactions (id, group_id, user_id, account_id, amount, currency, created_date, state,
+                                          direction, type, concept)
+                SELECT gen_random_uuid(), gen_random_uuid(), user_id, account_id, 1000, 978,
+                       now() - make_interval(secs => n), 2, 2, 1, null
+                FROM seed, generate_series(1, %d) AS n
+                """.formatted(TRANSACTIONS_PER_ACCOUNT));
+        jdbcTemplate.execute("""
+                INSERT INTO idempotent_requests (user_id, key, account_id, type, transaction_id, created_date)
+                SELECT user_id, 'key', account_id, 1, gen_random_uuid(), now() FROM seed
+                """);
+        jdbcTemplate.execute("ANALYZE accounts, accesses, balances, balance_slots, pending_credits, transactions, idempotent_requests");
+    }
+
+    private String explain(Connection connection, MappedStatement statement) {
+        var parameter = parameterOf(statement);
+        var boundSql = statement.getBoundSql(parameter);
+
+        try (var explain = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameter, boundSql).setParameters(explain);
+            var plan = new StringJoiner("\n", statement.getId() + ":\n", "");
+            try (var rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not explain " + statement.getId(), e);
+        }
+    }
+
+    private Object parameterOf(MappedStatement statement) {
+        var method = mapperMethodOf(statement);
+        var arguments = stream(method.getParameterTypes())
+                .map(type -> Optional.ofNullable(SAMPLES.get(type))
+                        .orElseThrow(() -> new IllegalStateException("No sample value for " + type + " in " + statement.getId()))
+                        .get())
+                .toArray();
+
+        return new ParamNameResolver(sqlSessionFactory.getConfiguration(), method).getNamedParams(arguments);
+    }
+
+    private static Method mapperMethodOf(MappedStatement statement) {
+        var id = statement.getId();
+        var separator = id.lastIndexOf('.');
+        try {
+            var mapper = Class.forName(id.substring(0, separator));
+            var name = id.substring(separator + 1);
+            return stream(mapper.getMethods())
+                    .filter(method -> method.getName().equals(name) && !method.isDefault())
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No mapper method for " + id));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package mpadillamarcos.javaspringbank.infra;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.utils.Uuids;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static java.lang.System.nanoTime;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+public class UuidIndexBenchmarkIT extends MapperTestBase {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int ACCOUNTS = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compares_random_and_time_ordered_uuids() {
+        var random = run("random", UUID::randomUUID);
+        var timeOrdered = run("time-ordered", Uuids::timeOrderedUuid);
+        log.info("Random ids: {}", random);
+        log.info("Time-ordered ids: {}", timeOrdered);
+
+        // appending at the right edge of the index fills its pages instead of splitting them half empty
+        assertThat(timeOrdered.pkeyMegabytes()).isLessThan(random.pkeyMegabytes());
+        assertThat(timeOrdered.groupIndexMegabytes()).isLessThan(random.groupIndexMegabytes());
+    }
+
+    private Result run(String name, Supplier<UUID> ids) {
+        var table = "uuid_benchmark_" + name.replace('-', '_');
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE transactions INCLUDING ALL)");
+        try {
+            var accounts = new ArrayList<UUID>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accounts.add(randomUUID());
+            }
+
+            var start = nanoTime();
+            for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO %s (id, group_id, user_id, account_id, amount, currency, created_date, state,
+                                        direction, type)
+                        VALUES (?, ?, ?, ?, 1000, 978, ?, 2, 2, 1)
+                        """.formatted(table), batch(ids, accounts));
+            }
+            var insertsPerSecond = ROWS / ((nanoTime() - start) / 1e9);
+
+            return new Result(
+                    insertsPerSecond,
+                    megabytes(table + "_pkey"),
+                    megabytes(table + "_group_id_idx"),
+                    generatedPerSecond(ids));
+        } finally {
+            jdbcTemplate.execute("DROP TABLE " + table);
+        }
+    }
+
+    private static List<Object[]> batch(Supplier<UUID> ids, List<UUID> accounts) {
+        var rows = new ArrayList<Object[]>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            var account = accounts.get(i % ACCOUNTS);
+            rows.add(new Object[]{ids.get(), ids.get(), account, account, new Timestamp(System.currentTimeMillis())});
+        }
+        return rows;
+    }
+
+    private double megabytes(String relation) {
+        return jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, relation) / 1024.0 / 1024.0;
+    }
+
+    private static double generatedPerSecond(Supplier<UUID> ids) {
+        var count = 10_000_000;
+        var start = nanoTime();
+        for (int i = 0; i < count; i++) {
+            ids.get();
+        }
+        return count / ((nanoTime() - start) / 1e9);
+    }
+
+    private record Result(double insertsPerSecond, double pkeyMegabytes, double groupIndexMegabytes, double generatedPerSecond) {
+
+        @Override
+        public String toString() {
+            return "%.0f inserts/s, pkey %.1f MB, group index %.1f MB, %.0f generated/s"
+                    .formatted(insertsPerSecond, pkeyMegabytes, groupIndexMegabytes, generatedPerSecond);
+        }
+    }
+}
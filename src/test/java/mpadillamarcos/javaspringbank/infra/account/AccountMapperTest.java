@@ -2,7 +2,12 @@ package mpadillamarcos.javaspringbank.infra.account;
 
 import mpadillamarcos.javaspringbank.domain.account.Account;
 import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.account.AccountView;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
 import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.access.AccessMapper;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceMapper;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceSlotMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,8 +16,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import static mpadillamarcos.javaspringbank.domain.Instances.dummyAccount;
+import static java.time.temporal.ChronoUnit.DAYS;
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static mpadillamarcos.javaspringbank.domain.access.AccessType.VIEWER;
 import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static mpadillamarcos.javaspringbank.infra.TestClock.NOW;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(classes = {AccountMapper.class})
@@ -20,6 +30,12 @@ class AccountMapperTest extends MapperTestBase {
 
     @Autowired
     private AccountMapper mapper;
+    @Autowired
+    private AccessMapper accessMapper;
+    @Autowired
+    private BalanceMapper balanceMapper;
+    @Autowired
+    private BalanceSlotMapper balanceSlotMapper;
 
     @Test
     void returns_empty_when_account_does_not_exist() {
@@ -65,4 +81,60 @@ class AccountMapperTest extends MapperTestBase {
 
         assertThat(accountsList).containsExactly(account1, account2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void returns_the_views_of_the_accounts_the_user_has_access_to() {
+        var userId = randomUserId();
+        var owned = dummyAccount().userId(userId).createdDate(NOW.plus(1, DAYS)).build();
+        var shared = dummyAccount().build();
+        var revoked = dummyAccount().build();
+        mapper.insert(owned);
+        mapper.insert(shared);
+        mapper.insert(revoked);
+        var ownedAccess = dummyAccountAccess().accountId(owned.getId()).userId(userId).build();
+        var sharedAccess = dummyAccountAccess().accountId(shared.getId()).userId(userId).type(VIEWER).build();
+        accessMapper.insert(ownedAccess);
+        accessMapper.insert(sharedAccess);
+        accessMapper.insert(dummyAccountAccess().accountId(revoked.getId()).userId(userId).build().revoke());
+        var ownedBalance = dummyBalance().accountId(owned.getId()).amount(eur(20)).build();
+        var sharedBalance = dummyBalance().accountId(shared.getId()).amount(eur(50)).build();
+        balanceMapper.insert(ownedBalance);
+        balanceMapper.insert(sharedBalance);
+        balanceMapper.insert(dummyBalance().accountId(revoked.getId()).build());
+
+        var views = mapper.findAccountViews(userId);
+
+        assertThat(views).containsExactly(
+                new AccountView(shared, sharedAccess, sharedBalance),
+                new AccountView(owned, ownedAccess, ownedBalance)
+        );
+    }
+
+    @Test
+    void adds_the_balance_slots_to_the_balance_of_the_view() {
+        var account = dummyAccount().build();
+        var access = dummyAccountAccess().accountId(account.getId()).userId(account.getUserId()).build();
+        mapper.insert(account);
+        accessMapper.insert(access);
+        balanceMapper.insert(dummyBalance().accountId(account.getId()).amount(eur(20)).build());
+        balanceSlotMapper.insertIfAbsent(new BalanceSlot(account.getId(), 1, eur(5)));
+        balanceSlotMapper.insertIfAbsent(new BalanceSlot(account.getId(), 2, eur(7)));
+
+        var view = mapper.findAccountView(account.getUserId(), account.getId());
+
+        assertThat(view)
+                .get()
+                .extracting(v -> v.getBalance().getAmount().intValue())
+                .isEqualTo(32);
+    }
+
+    @Test
+    void returns_no_view_when_the_user_has_no_access_to_the_account() {
+        var account = dummyAccount().build();
+        mapper.insert(account);
+        accessMapper.insert(dummyAccountAccess().accountId(account.getId()).userId(account.getUserId()).build());
+        balanceMapper.insert(dummyBalance().accountId(account.getId()).build());
+
+        assertThat(mapper.findAccountView(randomUserId(), account.getId())).isEmpty();
+    }
+}
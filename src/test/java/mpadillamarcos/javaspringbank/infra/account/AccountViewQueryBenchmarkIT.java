@@ -0,0 +1,134 @@
+package mpadillamarcos.javaspringbank.infra.account;
+
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.access.AccountAccess;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.domain.account.AccountView;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.user.UserId;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import mpadillamarcos.javaspringbank.infra.access.AccessMapper;
+import mpadillamarcos.javaspringbank.infra.balance.BalanceMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import static java.lang.System.nanoTime;
+import static java.util.Comparator.comparing;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares reading account views with one query per table, the way {@code AccountService} does
+ * with {@code bank.account.joined-views} unset, against the single joined query, each statement
+ * on its own pooled connection as outside a transaction. Tune it with system properties, for
+ * example {@code -Dviews.users=5000 -Dviews.accounts-per-user=5}.
+ */
+@Slf4j
+@SpringBootTest(classes = {AccountMapper.class})
+class AccountViewQueryBenchmarkIT extends MapperTestBase {
+
+    private static final int USERS = Integer.getInteger("views.users", 1_000);
+    private static final int ACCOUNTS_PER_USER = Integer.getInteger("views.accounts-per-user", 3);
+    private static final int ITERATIONS = Integer.getInteger("views.iterations", 5_000);
+
+    @Autowired
+    private AccountMapper accounts;
+    @Autowired
+    private AccessMapper accesses;
+    @Autowired
+    private BalanceMapper balances;
+
+    @Test
+    void compares_three_queries_and_the_joined_query() {
+        var granted = seed();
+
+        var listThree = measure(granted, access ->
+                assertThat(listWithThreeQueries(access.getUserId())).hasSize(ACCOUNTS_PER_USER));
+        var listJoined = measure(granted, access ->
+                assertThat(accounts.findAccountViews(access.getUserId())).hasSize(ACCOUNTS_PER_USER));
+        var findThree = measure(granted, access ->
+                assertThat(findWithThreeQueries(access.getUserId(), access.getAccountId())).isPresent());
+        var findJoined = measure(granted, access ->
+                assertThat(accounts.findAccountView(access.getUserId(), access.getAccountId())).isPresent());
+        report("listUserAccounts three", listThree);
+        report("listUserAccounts joined", listJoined);
+        report("findAccountView three", findThree);
+        report("findAccountView joined", findJoined);
+
+        // one round trip instead of three; the median, since a stray checkpoint can skew the mean either way
+        assertThat(listJoined.getValueAtPercentile(50)).isLessThan(listThree.getValueAtPercentile(50));
+        assertThat(findJoined.getValueAtPercentile(50)).isLessThan(findThree.getValueAtPercentile(50));
+    }
+
+    private List<AccountView> listWithThreeQueries(UserId userId) {
+        var accessesById = accesses.listGrantedAccountAccesses(userId).stream()
+                .collect(toMap(AccountAccess::getAccountId, identity()));
+        var balancesById = balances.findBalances(accessesById.keySet()).stream()
+                .collect(toMap(Balance::getAccountId, identity()));
+        return accounts.getAccounts(accessesById.keySet()).stream()
+                .map(account -> new AccountView(account, accessesById.get(account.getId()), balancesById.get(account.getId())))
+                .sorted(comparing(AccountView::getCreatedDate))
+                .toList();
+    }
+
+    private Optional<AccountView> findWithThreeQueries(UserId userId, AccountId accountId) {
+        var access = accesses.findGrantedAccountAccess(accountId, userId);
+        var account = accounts.findById(accountId);
+        var balance = balances.findBalance(accountId);
+        return access.map(granted -> new AccountView(account.orElseThrow(), granted, balance.orElseThrow()));
+    }
+
+    private List<AccountAccess> seed() {
+        var granted = new ArrayList<AccountAccess>();
+        for (int i = 0; i < USERS; i++) {
+            var userId = randomUserId();
+            for (int j = 0; j < ACCOUNTS_PER_USER; j++) {
+                var account = dummyAccount().userId(userId).build();
+                var access = dummyAccountAccess().accountId(account.getId()).userId(userId).build();
+                accounts.insert(account);
+                accesses.insert(access);
+                balances.insert(dummyBalance().accountId(account.getId()).amount(eur(100)).build());
+                granted.add(access);
+            }
+        }
+        return granted;
+    }
+
+    private Histogram measure(List<AccountAccess> granted, Consumer<AccountAccess> read) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            read.accept(randomAccess(granted));
+        }
+        var histogram = new Histogram(3);
+        for (int i = 0; i < ITERATIONS; i++) {
+            var access = randomAccess(granted);
+            var start = nanoTime();
+            read.accept(access);
+            histogram.recordValue(nanoTime() - start);
+        }
+        return histogram;
+    }
+
+    private static AccountAccess randomAccess(List<AccountAccess> granted) {
+        return granted.get(ThreadLocalRandom.current().nextInt(granted.size()));
+    }
+
+    private static void report(String read, Histogram histogram) {
+        log.info("{}: {}", read, "p50 %.2f ms, p99 %.2f ms, max %.2f ms, %.0f reads/s".formatted(
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getMaxValue() / 1e6,
+                1e9 / histogram.getMean()));
+    }
+}
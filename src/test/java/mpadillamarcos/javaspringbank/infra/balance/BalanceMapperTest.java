@@ -1,5 +1,6 @@
 package mpadillamarcos.javaspringbank.infra.balance;
 
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
 import mpadillamarcos.javaspringbank.domain.money.Money;
 import mpadillamarcos.javaspringbank.infra.MapperTestBase;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import java.util.Set;
 
 import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
 import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(classes = {BalanceMapper.class})
@@ -47,6 +49,78 @@ public class BalanceMapperTest extends MapperTestBase {
         assertThat(storedBalance).hasValue(updatedBalance);
     }
 
+    @Test
+    void updates_balance_when_version_matches() {
+        var balance = dummyBalance().build();
+        mapper.insert(balance);
+        var updatedBalance = balance.deposit(Money.eur(100));
+
+        assertThat(mapper.compareAndSet(balance.getVersion(), updatedBalance)).isTrue();
+
+        assertThat(mapper.findBalance(balance.getAccountId())).hasValue(updatedBalance);
+    }
+
+    @Test
+    void does_not_update_balance_when_version_does_not_match() {
+        var balance = dummyBalance().build();
+        mapper.insert(balance);
+        var concurrentBalance = balance.deposit(Money.eur(50));
+        mapper.update(concurrentBalance);
+
+        assertThat(mapper.compareAndSet(balance.getVersion(), balance.deposit(Money.eur(100)))).isFalse();
+
+        assertThat(mapper.findBalance(balance.getAccountId())).hasValue(concurrentBalance);
+    }
+
+    @Test
+    void debits_balance_when_amount_is_sufficient() {
+        var balance = dummyBalance().amount(Money.eur(100)).build();
+        mapper.insert(balance);
+
+        assertThat(mapper.debit(balance.getAccountId(), Money.eur(100))).isTrue();
+
+        assertThat(mapper.findBalance(balance.getAccountId())).get()
+                .returns(0, storedBalance -> storedBalance.getAmount().getAmount().signum())
+                .returns(1L, Balance::getVersion);
+    }
+
+    @Test
+    void does_not_debit_balance_when_amount_is_insufficient() {
+        var balance = dummyBalance().amount(Money.eur(100)).build();
+        mapper.insert(balance);
+
+        assertThat(mapper.debit(balance.getAccountId(), Money.eur(100.01))).isFalse();
+
+        assertThat(mapper.findBalance(balance.getAccountId())).hasValue(balance);
+    }
+
+    @Test
+    void credits_balance() {
+        var balance = dummyBalance().amount(Money.eur(100)).build();
+        mapper.insert(balance);
+
+        assertThat(mapper.credit(balance.getAccountId(), Money.eur(50))).isTrue();
+
+        assertThat(mapper.findBalance(balance.getAccountId())).hasValue(balance.deposit(Money.eur(50)));
+    }
+
+    @Test
+    void does_not_debit_or_credit_a_balance_in_another_currency() {
+        var balance = dummyBalance().amount(Money.eur(100)).build();
+        mapper.insert(balance);
+
+        assertThat(mapper.debit(balance.getAccountId(), Money.ofMinorUnits(100, JPY))).isFalse();
+        assertThat(mapper.credit(balance.getAccountId(), Money.ofMinorUnits(100, JPY))).isFalse();
+
+        assertThat(mapper.findBalance(balance.getAccountId())).hasValue(balance);
+    }
+
+    @Test
+    void does_not_debit_or_credit_missing_balances() {
+        assertThat(mapper.debit(randomAccountId(), Money.eur(10))).isFalse();
+        assertThat(mapper.credit(randomAccountId(), Money.eur(10))).isFalse();
+    }
+
     @Test
     void returns_a_list_of_balances_given_a_set_of_account_ids() {
         var balance1 = dummyBalance().build();
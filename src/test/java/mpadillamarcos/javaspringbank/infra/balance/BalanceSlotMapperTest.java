@@ -0,0 +1,95 @@
+package mpadillamarcos.javaspringbank.infra.balance;
+
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Set;
+
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Currency.JPY;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.money.Money.ofMinorUnits;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {BalanceSlotMapper.class})
+public class BalanceSlotMapperTest extends MapperTestBase {
+
+    @Autowired
+    private BalanceSlotMapper mapper;
+
+    @Test
+    void returns_inserted_slots() {
+        var accountId = randomAccountId();
+        var slot1 = new BalanceSlot(accountId, 1, eur(10));
+        var slot2 = new BalanceSlot(accountId, 2, eur(20));
+        mapper.insertIfAbsent(slot1);
+        mapper.insertIfAbsent(slot2);
+
+        assertThat(mapper.findSlots(Set.of(accountId))).containsExactly(slot1, slot2);
+    }
+
+    @Test
+    void keeps_the_existing_slot_when_inserted_twice() {
+        var accountId = randomAccountId();
+        var slot = new BalanceSlot(accountId, 1, eur(10));
+        mapper.insertIfAbsent(slot);
+        mapper.insertIfAbsent(new BalanceSlot(accountId, 1, eur(0)));
+
+        assertThat(mapper.findSlots(Set.of(accountId))).containsExactly(slot);
+    }
+
+    @Test
+    void debits_only_when_the_slot_covers_the_amount() {
+        var accountId = randomAccountId();
+        mapper.insertIfAbsent(new BalanceSlot(accountId, 1, eur(10)));
+
+        assertThat(mapper.debit(accountId, 1, eur(15))).isFalse();
+        assertThat(mapper.debit(accountId, 1, eur(4))).isTrue();
+
+        assertThat(mapper.findSlots(Set.of(accountId)))
+                .singleElement()
+                .extracting(slot -> slot.getAmount().getAmount().intValue())
+                .isEqualTo(6);
+    }
+
+    @Test
+    void credits_existing_slots_only() {
+        var accountId = randomAccountId();
+        mapper.insertIfAbsent(new BalanceSlot(accountId, 1, eur(10)));
+
+        assertThat(mapper.credit(accountId, 1, eur(5))).isTrue();
+        assertThat(mapper.credit(accountId, 2, eur(5))).isFalse();
+
+        assertThat(mapper.findSlots(Set.of(accountId)))
+                .singleElement()
+                .extracting(slot -> slot.getAmount().getAmount().intValue())
+                .isEqualTo(15);
+    }
+
+    @Test
+    void does_not_debit_or_credit_a_slot_in_another_currency() {
+        var accountId = randomAccountId();
+        var slot = new BalanceSlot(accountId, 1, eur(10));
+        mapper.insertIfAbsent(slot);
+
+        assertThat(mapper.debit(accountId, 1, ofMinorUnits(5, JPY))).isFalse();
+        assertThat(mapper.credit(accountId, 1, ofMinorUnits(5, JPY))).isFalse();
+
+        assertThat(mapper.findSlots(Set.of(accountId))).containsExactly(slot);
+    }
+
+    @Test
+    void lists_accounts_with_funded_slots() {
+        var fundedAccountId = randomAccountId();
+        var emptyAccountId = randomAccountId();
+        mapper.insertIfAbsent(new BalanceSlot(fundedAccountId, 1, eur(10)));
+        mapper.insertIfAbsent(new BalanceSlot(emptyAccountId, 1, eur(0)));
+
+        assertThat(mapper.findAccountIdsWithFundedSlots())
+                .contains(fundedAccountId)
+                .doesNotContain(emptyAccountId);
+    }
+}
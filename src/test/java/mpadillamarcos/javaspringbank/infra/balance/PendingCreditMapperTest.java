@@ -0,0 +1,42 @@
+package mpadillamarcos.javaspringbank.infra.balance;
+
+import mpadillamarcos.javaspringbank.domain.balance.PendingCredit;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {PendingCreditMapper.class})
+public class PendingCreditMapperTest extends MapperTestBase {
+
+    @Autowired
+    private PendingCreditMapper mapper;
+
+    @Test
+    void returns_the_accounts_with_pending_credits() {
+        var accountId = randomAccountId();
+        mapper.insert(new PendingCredit(accountId, eur(10)));
+        mapper.insert(new PendingCredit(accountId, eur(20)));
+
+        assertThat(mapper.findAccountIdsWithPendingCredits()).containsOnlyOnce(accountId);
+    }
+
+    @Test
+    void takes_the_sum_of_the_pending_credits_of_an_account() {
+        var accountId = randomAccountId();
+        var otherAccountId = randomAccountId();
+        mapper.insert(new PendingCredit(accountId, eur(10)));
+        mapper.insert(new PendingCredit(accountId, eur(20)));
+        mapper.insert(new PendingCredit(otherAccountId, eur(5)));
+
+        assertThat(mapper.takePendingCredits(accountId)).containsExactly(new PendingCredit(accountId, eur(30)));
+        assertThat(mapper.takePendingCredits(accountId)).isEmpty();
+        assertThat(mapper.findAccountIdsWithPendingCredits())
+                .contains(otherAccountId)
+                .doesNotContain(accountId);
+    }
+}
@@ -0,0 +1,56 @@
+package mpadillamarcos.javaspringbank.infra.idempotency;
+
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequest;
+import mpadillamarcos.javaspringbank.infra.MapperTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static mpadillamarcos.javaspringbank.infra.TestClock.NOW;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {IdempotentRequestMapper.class})
+public class IdempotentRequestMapperTest extends MapperTestBase {
+
+    @Autowired
+    private IdempotentRequestMapper mapper;
+
+    @Test
+    void returns_empty_when_key_was_not_used() {
+        assertThat(mapper.findRequest(randomUserId(), "key")).isEmpty();
+    }
+
+    @Test
+    void returns_inserted_request() {
+        var request = dummyRequest().build();
+
+        assertThat(mapper.insert(request)).isTrue();
+
+        assertThat(mapper.findRequest(request.getUserId(), request.getKey())).hasValue(request);
+    }
+
+    @Test
+    void does_not_overwrite_a_request_with_the_same_user_and_key() {
+        var request = dummyRequest().build();
+        mapper.insert(request);
+
+        assertThat(mapper.insert(request.toBuilder().transactionId(randomTransactionId()).build())).isFalse();
+
+        assertThat(mapper.findRequest(request.getUserId(), request.getKey())).hasValue(request);
+    }
+
+    private IdempotentRequest.IdempotentRequestBuilder dummyRequest() {
+        return IdempotentRequest.builder()
+                .userId(randomUserId())
+                .key("key")
+                .accountId(randomAccountId())
+                .type(TRANSFER)
+                .transactionId(randomTransactionId())
+                .createdDate(NOW)
+                .fingerprint("fingerprint");
+    }
+}
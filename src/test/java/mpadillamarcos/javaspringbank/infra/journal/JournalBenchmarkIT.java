@@ -0,0 +1,176 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.domain.account.AccountId;
+import mpadillamarcos.javaspringbank.infra.access.InMemoryAccountAccessRepository;
+import mpadillamarcos.javaspringbank.infra.account.InMemoryAccountRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
+import mpadillamarcos.javaspringbank.infra.idempotency.InMemoryIdempotentRequestRepository;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.BalanceDebited;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.TransactionStored;
+import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.round;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyTransfer;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.ASYNC;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.BATCHED;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.PER_OP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class JournalBenchmarkIT {
+
+    private static final int[] CLIENTS = {1, 8, 32};
+    private static final long DURATION_NANOS = SECONDS.toNanos(3);
+    private static final int REPLAYED_RECORDS = 1_000_000;
+    private static final int REGION_SIZE = 64 << 20;
+    private static final int ACCOUNTS = 10_000;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void measures_appends_per_second() throws Exception {
+        var perOperation = 0.0;
+        var batched = 0.0;
+        var async = 0.0;
+        for (int clients : CLIENTS) {
+            perOperation = appends(PER_OP, clients);
+            batched = appends(BATCHED, clients);
+            async = appends(ASYNC, clients);
+            log.info("{} clients: per-op {}, batched {}, async {} appends/s",
+                    clients, round(perOperation), round(batched), round(async));
+        }
+
+        // with the most clients one sync covers several appends, and async appends never wait for one
+        assertThat(batched).isGreaterThan(perOperation);
+        assertThat(async).isGreaterThan(batched);
+    }
+
+    @Test
+    void measures_replay_per_million_records() throws IOException {
+        var file = directory.resolve("replay.journal");
+        try (var journal = new MappedJournal(file, ASYNC, REGION_SIZE, 10)) {
+            for (int i = 0; i < REPLAYED_RECORDS / 2; i++) {
+                var transaction = dummyTransfer().build();
+                journal.append(List.of(
+                        new TransactionStored(transaction),
+                        new BalanceDebited(transaction.getAccountId(), eur(1))
+                ));
+            }
+        }
+
+        try (var journal = new MappedJournal(file, ASYNC, REGION_SIZE, 10)) {
+            var decodeStart = nanoTime();
+            var decoded = journal.replay(record -> {
+            });
+            var decodeNanos = nanoTime() - decodeStart;
+
+            var replayer = new JournalReplayer(
+                    new InMemoryAccountRepository(),
+                    new InMemoryAccountAccessRepository(),
+                    new InMemoryBalanceRepository(),
+                    new InMemoryBalanceSlotRepository(),
+                    new InMemoryPendingCreditRepository(),
+                    new InMemoryTransactionRepository(),
+                    new InMemoryIdempotentRequestRepository()
+            );
+            var replayStart = nanoTime();
+            var replayed = journal.replay(replayer::apply);
+            var replayNanos = nanoTime() - replayStart;
+
+            assertThat(decoded).isEqualTo(REPLAYED_RECORDS);
+            assertThat(replayed).isEqualTo(REPLAYED_RECORDS);
+            log.info("Journal of {} MB: {}", Files.size(file) >> 20,
+                    "decode %.0f ms, replay %.0f ms per million records".formatted(
+                            decodeNanos / 1e6 * 1_000_000 / decoded,
+                            replayNanos / 1e6 * 1_000_000 / replayed));
+        }
+    }
+
+    @Test
+    void measures_recovery_with_and_without_a_snapshot() throws IOException {
+        var journalFile = directory.resolve("recovery.journal");
+        var snapshotFile = new SnapshotFile(directory.resolve("recovery.snapshot"));
+        try (var journal = new MappedJournal(journalFile, ASYNC, REGION_SIZE, 10)) {
+            var balances = new InMemoryBalanceRepository(journal);
+            var accounts = new ArrayList<AccountId>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                var balance = dummyBalance().amount(eur(1_000_000)).build();
+                balances.insert(balance);
+                accounts.add(balance.getAccountId());
+            }
+            for (int i = 0; i < REPLAYED_RECORDS; i++) {
+                balances.debit(accounts.get(i % ACCOUNTS), eur(1));
+            }
+        }
+        try (var journal = new MappedJournal(journalFile, ASYNC, REGION_SIZE, 10)) {
+            new JournalSnapshotter(journal, snapshotFile, 0).snapshot();
+        }
+
+        var full = recover(journalFile, new SnapshotFile(directory.resolve("missing.snapshot")));
+        var fromSnapshot = recover(journalFile, snapshotFile);
+        log.info("Recovery from the full journal: {}, from a snapshot: {}", full, fromSnapshot);
+
+        assertThat(full.records()).isEqualTo(ACCOUNTS + REPLAYED_RECORDS);
+        assertThat(fromSnapshot.records()).isEqualTo(ACCOUNTS);
+        assertThat(fromSnapshot.millis()).isLessThan(full.millis());
+    }
+
+    private Recovery recover(Path journalFile, SnapshotFile snapshotFile) throws IOException {
+        var meterRegistry = new SimpleMeterRegistry();
+        try (var journal = new MappedJournal(journalFile, ASYNC, REGION_SIZE, 10)) {
+            var start = nanoTime();
+            new JournalRecovery(journal, snapshotFile, meterRegistry).recover(JournalReplayer.inMemory());
+            var records = meterRegistry.get("bank.recovery.records").gauges().stream()
+                    .mapToDouble(Gauge::value)
+                    .sum();
+            return new Recovery((long) records, (nanoTime() - start) / 1e6);
+        }
+    }
+
+    private double appends(JournalDurability durability, int clients) throws Exception {
+        var appends = new LongAdder();
+        var file = Files.createTempFile(directory, durability.name(), ".journal");
+        try (var journal = new MappedJournal(file, durability, REGION_SIZE, 10);
+             var executor = newFixedThreadPool(clients)) {
+            var record = List.<JournalRecord>of(new TransactionStored(dummyTransfer().build()));
+            var deadline = nanoTime() + DURATION_NANOS;
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (nanoTime() < deadline) {
+                        journal.append(record);
+                        appends.increment();
+                    }
+                });
+            }
+        }
+        return appends.sum() / (DURATION_NANOS / 1e9);
+    }
+
+    private record Recovery(long records, double millis) {
+
+        @Override
+        public String toString() {
+            return "%d records in %.0f ms".formatted(records, millis);
+        }
+    }
+}
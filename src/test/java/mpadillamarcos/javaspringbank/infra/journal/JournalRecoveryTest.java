@@ -0,0 +1,87 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyBalance;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.PER_OP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JournalRecoveryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void loads_the_snapshot_and_replays_the_journal_written_after_it() throws IOException {
+        var balance = dummyBalance().amount(eur(100)).build();
+        try (var journal = openJournal()) {
+            var balances = new InMemoryBalanceRepository(journal);
+            balances.insert(balance);
+            balances.debit(balance.getAccountId(), eur(10));
+            balances.debit(balance.getAccountId(), eur(20));
+            snapshotter(journal).snapshot();
+
+            balances.credit(balance.getAccountId(), eur(5));
+        }
+
+        var replayer = JournalReplayer.inMemory();
+        try (var journal = openJournal()) {
+            new JournalRecovery(journal, snapshotFile(), meterRegistry).recover(replayer);
+        }
+
+        assertThat(replayer.snapshot())
+                .containsExactly(new JournalRecord.BalanceStored(balance.toBuilder().amount(eur(75)).version(3).build()));
+        assertThat(recordsOf("snapshot")).isEqualTo(1);
+        assertThat(recordsOf("journal")).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.recovery.time").tag("phase", "journal").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void skips_the_snapshot_when_the_journal_did_not_grow() throws IOException {
+        try (var journal = openJournal()) {
+            new InMemoryBalanceRepository(journal).insert(dummyBalance().build());
+            var snapshotter = snapshotter(journal);
+
+            assertThat(snapshotter.snapshot()).isTrue();
+            assertThat(snapshotter.snapshot()).isFalse();
+        }
+    }
+
+    @Test
+    void fails_when_the_snapshot_is_ahead_of_the_journal() throws IOException {
+        snapshotFile().write(1_000, Stream.empty());
+
+        try (var journal = openJournal()) {
+            var recovery = new JournalRecovery(journal, snapshotFile(), meterRegistry);
+
+            assertThrows(IllegalStateException.class, () -> recovery.recover(JournalReplayer.inMemory()));
+        }
+    }
+
+    private double recordsOf(String phase) {
+        return meterRegistry.get("bank.recovery.records").tag("phase", phase).gauge().value();
+    }
+
+    private JournalSnapshotter snapshotter(MappedJournal journal) {
+        return new JournalSnapshotter(journal, snapshotFile(), 0);
+    }
+
+    private MappedJournal openJournal() throws IOException {
+        return new MappedJournal(directory.resolve("bank.journal"), PER_OP, 1 << 20, 1);
+    }
+
+    private SnapshotFile snapshotFile() {
+        return new SnapshotFile(directory.resolve("bank.snapshot"));
+    }
+}
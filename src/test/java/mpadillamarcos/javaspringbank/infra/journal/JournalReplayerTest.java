@@ -0,0 +1,195 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import mpadillamarcos.javaspringbank.infra.InMemoryTransactionManager;
+import mpadillamarcos.javaspringbank.infra.access.InMemoryAccountAccessRepository;
+import mpadillamarcos.javaspringbank.infra.account.InMemoryAccountRepository;
+import mpadillamarcos.javaspringbank.domain.balance.Balance;
+import mpadillamarcos.javaspringbank.domain.balance.BalanceSlot;
+import mpadillamarcos.javaspringbank.domain.balance.PendingCredit;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryBalanceSlotRepository;
+import mpadillamarcos.javaspringbank.infra.balance.InMemoryPendingCreditRepository;
+import mpadillamarcos.javaspringbank.infra.idempotency.InMemoryIdempotentRequestRepository;
+import mpadillamarcos.javaspringbank.infra.transaction.InMemoryTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.BATCHED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+class JournalReplayerTest {
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new InMemoryTransactionManager());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void rebuilds_the_committed_state() throws IOException {
+        var account = dummyAccount().build();
+        var accountAccess = dummyAccountAccess().accountId(account.getId()).build();
+        var balance = dummyBalance().accountId(account.getId()).amount(eur(100)).build();
+        var slot = new BalanceSlot(account.getId(), 1, eur(0));
+        var transaction = dummyWithdraw().accountId(account.getId()).build();
+        try (var journal = open()) {
+            var repositories = new Repositories(journal);
+            transactionTemplate.executeWithoutResult(status -> {
+                repositories.accounts.insert(account);
+                repositories.accountAccesses.insert(accountAccess);
+                repositories.balances.insert(balance);
+                repositories.balanceSlots.insertIfAbsent(slot);
+                repositories.transactions.insert(transaction);
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                repositories.balances.debit(account.getId(), eur(30));
+                repositories.balances.credit(account.getId(), eur(5));
+                repositories.balanceSlots.credit(account.getId(), 1, eur(20));
+                repositories.accounts.update(account.block());
+                repositories.transactions.update(transaction.confirm());
+            });
+            transactionTemplate.executeWithoutResult(status -> repositories.balanceSlots.debit(account.getId(), 1, eur(8)));
+        }
+
+        var restored = replay();
+
+        assertThat(restored.accounts.findById(account.getId())).hasValue(account.block());
+        assertThat(restored.accountAccesses.listGrantedAccountAccesses(accountAccess.getUserId()))
+                .containsExactly(accountAccess);
+        assertThat(restored.balances.findBalance(account.getId()).orElseThrow().getAmount()).isEqualTo(eur(75));
+        assertThat(restored.balanceSlots.findSlots(Set.of(account.getId())))
+                .singleElement()
+                .extracting(restoredSlot -> restoredSlot.getAmount().getAmount())
+                .isEqualTo(eur(12).getAmount());
+        assertThat(restored.transactions.findTransactionsByAccountId(account.getId()))
+                .containsExactly(transaction.confirm());
+        assertThat(restored.transactions.findTransactionsByGroupId(transaction.getGroupId()))
+                .containsExactly(transaction.confirm());
+    }
+
+    @Test
+    void skips_rolled_back_writes() throws IOException {
+        var balance = dummyBalance().amount(eur(100)).build();
+        var account = dummyAccount().build();
+        try (var journal = open()) {
+            var repositories = new Repositories(journal);
+            repositories.balances.insert(balance);
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                repositories.accounts.insert(account);
+                repositories.balances.debit(balance.getAccountId(), eur(30));
+                throw new IllegalStateException();
+            }));
+        }
+
+        var restored = replay();
+
+        assertThat(restored.accounts.findById(account.getId())).isEmpty();
+        assertThat(restored.balances.findBalance(balance.getAccountId())).hasValue(balance);
+    }
+
+    @Test
+    void replays_swaps_committed_in_another_order_than_they_were_made() throws IOException {
+        var balance = dummyBalance().amount(eur(100)).build();
+        var requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+        try (var journal = open()) {
+            var balances = new Repositories(journal).balances;
+            balances.insert(balance);
+            transactionTemplate.executeWithoutResult(status -> {
+                var withdrawn = balance.withdraw(eur(10));
+                balances.compareAndSet(balance.getVersion(), withdrawn);
+                requiresNew.executeWithoutResult(inner ->
+                        balances.compareAndSet(withdrawn.getVersion(), withdrawn.withdraw(eur(20))));
+            });
+        }
+
+        var restored = replay();
+
+        assertThat(restored.balances.findBalance(balance.getAccountId())).hasValue(balance.withdraw(eur(10)).withdraw(eur(20)));
+    }
+
+    @Test
+    void replays_updates_committed_after_a_later_debit() throws IOException {
+        var balance = dummyBalance().amount(eur(100)).build();
+        var requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+        InMemoryBalanceRepository balances;
+        try (var journal = open()) {
+            balances = new Repositories(journal).balances;
+            balances.insert(balance);
+            transactionTemplate.executeWithoutResult(status -> {
+                balances.update(balances.findBalanceForUpdate(balance.getAccountId()).orElseThrow().withdraw(eur(10)));
+                requiresNew.executeWithoutResult(inner -> balances.debit(balance.getAccountId(), eur(20)));
+            });
+        }
+
+        var restored = replay();
+
+        assertThat(restored.balances.findBalance(balance.getAccountId()))
+                .hasValue(balances.findBalance(balance.getAccountId()).orElseThrow())
+                .get()
+                .extracting(Balance::getAmount)
+                .isEqualTo(eur(70));
+    }
+
+    @Test
+    void replays_the_pending_credits_that_were_not_taken() throws IOException {
+        var accountId = dummyBalance().build().getAccountId();
+        try (var journal = open()) {
+            var pendingCredits = new Repositories(journal).pendingCredits;
+            transactionTemplate.executeWithoutResult(status -> pendingCredits.insert(new PendingCredit(accountId, eur(10))));
+            transactionTemplate.executeWithoutResult(status -> pendingCredits.takePendingCredits(accountId));
+            transactionTemplate.executeWithoutResult(status -> pendingCredits.insert(new PendingCredit(accountId, eur(20))));
+            transactionTemplate.executeWithoutResult(status -> pendingCredits.insert(new PendingCredit(accountId, eur(5))));
+        }
+
+        var restored = replay();
+
+        assertThat(restored.pendingCredits.takePendingCredits(accountId))
+                .singleElement()
+                .extracting(credit -> credit.getAmount().getAmount())
+                .isEqualTo(eur(25).getAmount());
+    }
+
+    private MappedJournal open() throws IOException {
+        return new MappedJournal(directory.resolve("bank.journal"), BATCHED, 1 << 20, 1);
+    }
+
+    private Repositories replay() throws IOException {
+        var repositories = new Repositories(Journal.DISABLED);
+        try (var journal = open()) {
+            journal.replay(repositories.replayer::apply);
+        }
+        return repositories;
+    }
+
+    private static class Repositories {
+
+        private final InMemoryAccountRepository accounts;
+        private final InMemoryAccountAccessRepository accountAccesses;
+        private final InMemoryBalanceRepository balances;
+        private final InMemoryBalanceSlotRepository balanceSlots;
+        private final InMemoryPendingCreditRepository pendingCredits;
+        private final InMemoryTransactionRepository transactions;
+        private final JournalReplayer replayer;
+
+        private Repositories(Journal journal) {
+            accounts = new InMemoryAccountRepository(journal);
+            accountAccesses = new InMemoryAccountAccessRepository(journal);
+            balances = new InMemoryBalanceRepository(journal);
+            balanceSlots = new InMemoryBalanceSlotRepository(journal);
+            pendingCredits = new InMemoryPendingCreditRepository(journal);
+            transactions = new InMemoryTransactionRepository(journal);
+            replayer = new JournalReplayer(accounts, accountAccesses, balances, balanceSlots, pendingCredits, transactions,
+                    new InMemoryIdempotentRequestRepository(journal));
+        }
+    }
+}
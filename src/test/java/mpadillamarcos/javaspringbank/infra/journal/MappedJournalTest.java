@@ -0,0 +1,160 @@
+package mpadillamarcos.javaspringbank.infra.journal;
+
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotentRequest;
+import mpadillamarcos.javaspringbank.infra.journal.JournalRecord.*;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static mpadillamarcos.javaspringbank.domain.Instances.*;
+import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.DEPOSIT;
+import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.BATCHED;
+import static mpadillamarcos.javaspringbank.infra.journal.JournalDurability.PER_OP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedJournalTest {
+
+    private static final int REGION_SIZE = 1 << 20;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replays_every_record_type() throws IOException {
+        var records = List.<JournalRecord>of(
+                new AccountStored(dummyAccount().build()),
+                new AccountAccessStored(dummyAccountAccess().build()),
+                new BalanceStored(dummyBalance().amount(eur(10.25)).version(3).build()),
+                new BalanceDebited(randomAccountId(), eur(0.01)),
+                new BalanceCredited(randomAccountId(), eur(1_000_000)),
+                new TransactionStored(dummyTransfer().concept("rent ✓").build()),
+                new TransactionStored(dummyDeposit().concept(null).build()),
+                new IdempotentRequestStored(dummyIdempotentRequest())
+        );
+        try (var journal = open(PER_OP, REGION_SIZE)) {
+            journal.append(records);
+        }
+
+        assertThat(replay(REGION_SIZE)).isEqualTo(records);
+    }
+
+    @ParameterizedTest
+    @EnumSource(JournalDurability.class)
+    void keeps_appends_of_every_durability_mode(JournalDurability durability) throws IOException {
+        var records = new ArrayList<JournalRecord>();
+        try (var journal = open(durability, REGION_SIZE)) {
+            for (int i = 0; i < 100; i++) {
+                var record = new BalanceCredited(randomAccountId(), eur(i));
+                journal.append(List.of(record));
+                records.add(record);
+            }
+        }
+
+        assertThat(replay(REGION_SIZE)).isEqualTo(records);
+    }
+
+    @Test
+    void continues_after_the_last_record_when_reopened() throws IOException {
+        var first = new BalanceCredited(randomAccountId(), eur(1));
+        var second = new BalanceCredited(randomAccountId(), eur(2));
+        try (var journal = open(BATCHED, REGION_SIZE)) {
+            journal.append(List.of(first));
+        }
+        try (var journal = open(BATCHED, REGION_SIZE)) {
+            journal.append(List.of(second));
+        }
+
+        assertThat(replay(REGION_SIZE)).containsExactly(first, second);
+    }
+
+    @Test
+    void moves_to_the_next_region_when_a_record_does_not_fit() throws IOException {
+        var records = new ArrayList<JournalRecord>();
+        try (var journal = open(BATCHED, 512)) {
+            for (int i = 0; i < 50; i++) {
+                var record = new AccountStored(dummyAccount().build());
+                journal.append(List.of(record));
+                records.add(record);
+            }
+        }
+
+        assertThat(replay(512)).isEqualTo(records);
+    }
+
+    @Test
+    void rejects_records_larger_than_a_region() throws IOException {
+        try (var journal = open(BATCHED, 32)) {
+            var record = new AccountStored(dummyAccount().build());
+
+            assertThrows(IllegalArgumentException.class, () -> journal.append(List.of(record)));
+        }
+    }
+
+    @Nested
+    class Recovery {
+
+        @Test
+        void discards_a_torn_record_and_appends_in_its_place() throws IOException {
+            var kept = new BalanceCredited(randomAccountId(), eur(1));
+            var torn = new BalanceCredited(randomAccountId(), eur(2));
+            var appended = new BalanceCredited(randomAccountId(), eur(3));
+            try (var journal = open(PER_OP, REGION_SIZE)) {
+                journal.append(List.of(kept, torn));
+            }
+            var tornPayloadStart = 2L * 8 + JournalCodec.encode(kept).length;
+            try (var channel = FileChannel.open(file(), WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), tornPayloadStart + 20);
+            }
+
+            try (var journal = open(PER_OP, REGION_SIZE)) {
+                journal.append(List.of(appended));
+            }
+
+            assertThat(replay(REGION_SIZE)).containsExactly(kept, appended);
+        }
+    }
+
+    private MappedJournal open(JournalDurability durability, int regionSize) throws IOException {
+        return new MappedJournal(file(), durability, regionSize, 1);
+    }
+
+    private List<JournalRecord> replay(int regionSize) throws IOException {
+        var records = new ArrayList<JournalRecord>();
+        try (var journal = open(PER_OP, regionSize)) {
+            journal.replay(records::add);
+        }
+        return records;
+    }
+
+    private Path file() {
+        return directory.resolve("bank.journal");
+    }
+
+    private static IdempotentRequest dummyIdempotentRequest() {
+        return IdempotentRequest.builder()
+                .userId(randomUserId())
+                .key("key-1")
+                .accountId(randomAccountId())
+                .type(DEPOSIT)
+                .transactionId(randomTransactionId())
+                .createdDate(Instant.parse("2024-03-01T10:15:30.123456Z"))
+                .fingerprint("fingerprint")
+                .build();
+    }
+}
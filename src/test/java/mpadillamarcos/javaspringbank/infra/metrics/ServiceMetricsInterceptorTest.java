@@ -0,0 +1,79 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mpadillamarcos.javaspringbank.domain.exception.AccessDeniedException;
+import mpadillamarcos.javaspringbank.domain.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeService service = proxy(new FakeService());
+
+    @Test
+    void times_successful_calls() {
+        service.succeed();
+        service.succeed();
+
+        assertThat(count("succeed", "success")).isEqualTo(2);
+    }
+
+    @Test
+    void tags_insufficient_balance() {
+        assertThatThrownBy(service::runOutOfMoney).isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(count("runOutOfMoney", "insufficient_balance")).isEqualTo(1);
+    }
+
+    @Test
+    void tags_access_denied() {
+        assertThatThrownBy(service::denyAccess).isInstanceOf(AccessDeniedException.class);
+
+        assertThat(count("denyAccess", "access_denied")).isEqualTo(1);
+    }
+
+    @Test
+    void tags_unexpected_exceptions_as_errors() {
+        assertThatThrownBy(service::fail).isInstanceOf(IllegalStateException.class);
+
+        assertThat(count("fail", "error")).isEqualTo(1);
+    }
+
+    private long count(String method, String outcome) {
+        return registry.get("bank.service")
+                .tag("service", "FakeService")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    private FakeService proxy(FakeService target) {
+        var factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new ServiceMetricsInterceptor(() -> registry));
+        return (FakeService) factory.getProxy();
+    }
+
+    static class FakeService {
+
+        public void succeed() {
+        }
+
+        public void runOutOfMoney() {
+            throw new InsufficientBalanceException("not enough money");
+        }
+
+        public void denyAccess() {
+            throw new AccessDeniedException("access denied");
+        }
+
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
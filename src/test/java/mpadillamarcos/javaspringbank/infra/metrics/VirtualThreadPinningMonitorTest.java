@@ -0,0 +1,43 @@
+package mpadillamarcos.javaspringbank.infra.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, 10);
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void records_virtual_threads_blocked_inside_synchronized_blocks() throws InterruptedException {
+        monitor.start();
+
+        Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+        for (int i = 0; i < 100 && registry.find("bank.virtual-threads.pinned").timer() == null; i++) {
+            Thread.sleep(100);
+        }
+        var timer = registry.get("bank.virtual-threads.pinned").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.getId().getTag("site")).startsWith(VirtualThreadPinningMonitorTest.class.getName());
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
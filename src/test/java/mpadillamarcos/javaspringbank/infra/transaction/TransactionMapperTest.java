@@ -4,10 +4,12 @@ import mpadillamarcos.javaspringbank.infra.MapperTestBase;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 import static mpadillamarcos.javaspringbank.domain.Instances.*;
 import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor.cursorOf;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDirection.INCOMING;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionGroupId.randomTransactionGroupId;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
@@ -19,6 +21,8 @@ public class TransactionMapperTest extends MapperTestBase {
 
     @Autowired
     private TransactionMapper mapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Test
     void returns_nothing_when_there_are_no_transactions() {
@@ -76,7 +80,7 @@ public class TransactionMapperTest extends MapperTestBase {
 
         var storedTransactions = mapper.findTransactionsByAccountId(accountId);
 
-        assertThat(storedTransactions).containsExactly(transaction1, transaction3);
+        assertThat(storedTransactions).containsExactlyInAnyOrder(transaction1, transaction3);
     }
 
     @Test
@@ -93,4 +97,48 @@ public class TransactionMapperTest extends MapperTestBase {
 
         assertThat(storedTransactions).containsExactly(transaction3, transaction1);
     }
+
+    @Test
+    void returns_pages_of_transactions_given_an_account_id() {
+        var accountId = randomAccountId();
+        var transaction1 = dummyTransfer().accountId(accountId).createdDate(NOW).build();
+        var transaction2 = dummyWithdraw().accountId(accountId).createdDate(NOW.plus(1, DAYS)).build();
+        var transaction3 = dummyWithdraw().accountId(accountId).createdDate(NOW.plus(1, DAYS)).build();
+        var transaction4 = dummyTransfer().accountId(accountId).createdDate(NOW.plus(2, DAYS)).build();
+        mapper.insert(transaction1);
+        mapper.insert(transaction2);
+        mapper.insert(transaction3);
+        mapper.insert(transaction4);
+        mapper.insert(dummyTransfer().build());
+
+        var firstPage = mapper.findTransactionPage(accountId, null, 2);
+        var secondPage = mapper.findTransactionPage(accountId, cursorOf(firstPage.getLast()), 2);
+        var lastPage = mapper.findTransactionPage(accountId, cursorOf(secondPage.getLast()), 2);
+
+        assertThat(firstPage).hasSize(2).first().isEqualTo(transaction4);
+        assertThat(secondPage).hasSize(2).last().isEqualTo(transaction1);
+        assertThat(lastPage).isEmpty();
+        assertThat(firstPage.getLast()).isIn(transaction2, transaction3);
+        assertThat(secondPage.getFirst()).isIn(transaction2, transaction3).isNotEqualTo(firstPage.getLast());
+    }
+
+    @Test
+    void streams_transactions_of_an_account_oldest_first() {
+        var accountId = randomAccountId();
+        var transaction1 = dummyTransfer().accountId(accountId).createdDate(NOW).build();
+        var transaction2 = dummyWithdraw().accountId(accountId).createdDate(NOW.plus(1, DAYS)).build();
+        var transaction3 = dummyDeposit().accountId(accountId).createdDate(NOW.plus(2, DAYS)).build();
+        mapper.insert(transaction3);
+        mapper.insert(transaction1);
+        mapper.insert(transaction2);
+        mapper.insert(dummyTransfer().build());
+
+        var storedTransactions = transactionTemplate.execute(status -> {
+            try (var transactions = mapper.streamTransactionsByAccountId(accountId)) {
+                return transactions.toList();
+            }
+        });
+
+        assertThat(storedTransactions).containsExactly(transaction1, transaction2, transaction3);
+    }
 }
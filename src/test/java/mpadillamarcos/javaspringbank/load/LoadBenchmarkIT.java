@@ -0,0 +1,218 @@
+package mpadillamarcos.javaspringbank.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.infra.DbTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static java.util.UUID.randomUUID;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Drives the REST API of an application started against the test Postgres container with an
+ * open-loop mix of requests, and writes the latency percentiles per endpoint to
+ * {@code target/load-test}. Tune it with system properties, for example
+ * {@code -Dload.rate=500 -Dload.duration-seconds=60 -Dload.mix=read:70,transfer:25,decision:5,access:0}.
+ * A decision looks up the latest pending transfer of an account and confirms or rejects it, and an
+ * access operation grants a viewer access and revokes it; both are recorded end to end.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+class LoadBenchmarkIT extends DbTestBase {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 20));
+    private static final int ACCOUNTS = Integer.getInteger("load.accounts", 100);
+    private static final String MIX = System.getProperty("load.mix", "read:70,transfer:25,decision:5");
+    private static final Path RESULTS = Path.of(System.getProperty("load.results", "target/load-test"));
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LoadGenerator generator = new LoadGenerator();
+    private final List<Account> accounts = new ArrayList<>();
+    private final Queue<Account> accountsWithTransfers = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void drives_the_rest_api_at_a_fixed_arrival_rate() throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(openAccount());
+        }
+        var mix = Mix.parse(MIX);
+
+        generator.run(RATE, DURATION, intendedStart -> switch (mix.next()) {
+            case "read" -> read(intendedStart);
+            case "transfer" -> transfer(intendedStart);
+            case "decision" -> decide(intendedStart);
+            case "access" -> grantAndRevokeAccess(intendedStart);
+            default -> throw new IllegalArgumentException("Unknown operation in " + MIX);
+        });
+
+        var file = RESULTS.resolve("load-" + LocalDateTime.now().format(ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+        generator.writeResults(file, "rate=%.0f/s duration=%ss accounts=%d mix=%s"
+                .formatted(RATE, DURATION.toSeconds(), ACCOUNTS, MIX));
+        log.info("Results written to {}", file.toAbsolutePath());
+        assertThat(generator.requests()).isGreaterThanOrEqualTo((long) (RATE * DURATION.toSeconds()));
+    }
+
+    private CompletableFuture<?> read(long intendedStart) {
+        var account = randomAccount();
+        return switch (ThreadLocalRandom.current().nextInt(3)) {
+            case 0 -> generator.send("get account", get("/users/%s/accounts/%s", account.userId, account.id), intendedStart);
+            case 1 -> generator.send("list accounts", get("/users/%s/accounts", account.userId), intendedStart);
+            default -> listTransactions(account, intendedStart);
+        };
+    }
+
+    private CompletableFuture<?> transfer(long intendedStart) {
+        var origin = randomAccount();
+        var destination = randomAccount();
+        var request = post("/users/%s/accounts/%s/transfer", Map.of(
+                "amount", eur(1),
+                "destinationAccountId", destination.id,
+                "concept", "load test"
+        ), origin.userId, origin.id);
+
+        return generator.send("transfer", request, intendedStart).thenAccept(response -> {
+            if (response.statusCode() == 200) {
+                accountsWithTransfers.add(origin);
+            }
+        });
+    }
+
+    private CompletableFuture<?> decide(long intendedStart) {
+        var account = accountsWithTransfers.poll();
+        if (account == null) {
+            return read(intendedStart);
+        }
+        return generator.record("decision", intendedStart, () ->
+                generator.sendStep(get("/accounts/%s/transactions?limit=20", account.id)).thenCompose(response -> {
+                    var pending = pendingTransfer(response);
+                    if (pending.isEmpty()) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    var decision = ThreadLocalRandom.current().nextBoolean() ? "confirm" : "reject";
+                    return generator.sendStep(post("/transactions/%s/" + decision, Map.of(), pending.get()));
+                }));
+    }
+
+    private CompletableFuture<?> grantAndRevokeAccess(long intendedStart) {
+        var account = randomAccount();
+        var userId = randomUUID();
+        var grant = post("/users/%s/accounts/%s/access", Map.of("type", "VIEWER"), userId, account.id);
+        var revoke = request("/users/%s/accounts/%s/access", userId, account.id).DELETE().build();
+        return generator.record("grant and revoke access", intendedStart, () ->
+                generator.sendStep(grant).thenCompose(response -> generator.sendStep(revoke)));
+    }
+
+    private CompletableFuture<HttpResponse<String>> listTransactions(Account account, long intendedStart) {
+        return generator.send("list transactions", get("/accounts/%s/transactions?limit=20", account.id), intendedStart);
+    }
+
+    private Optional<String> pendingTransfer(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return Optional.empty();
+        }
+        for (var transaction : readJson(response.body()).path("transactions")) {
+            if (transaction.path("state").asText().equals("PENDING")
+                    && transaction.path("direction").asText().equals("OUTGOING")
+                    && transaction.path("type").asText().equals("TRANSFER")) {
+                return Optional.of(transaction.path("id").asText());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Account openAccount() throws IOException, InterruptedException {
+        var userId = randomUUID();
+        var response = generator.sendAndWait(post("/users/%s/accounts", Map.of(), userId));
+        var account = new Account(userId, UUID.fromString(readJson(response.body()).path("id").asText()));
+        generator.sendAndWait(post("/users/%s/accounts/%s/deposit", Map.of("amount", eur(1_000_000)), userId, account.id));
+        return account;
+    }
+
+    private Account randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+    }
+
+    private HttpRequest get(String path, Object... arguments) {
+        return request(path, arguments).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body, Object... arguments) {
+        try {
+            return request(path, arguments)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, Object... arguments) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path.formatted(arguments)))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Account(UUID userId, UUID id) {
+    }
+
+    /**
+     * Weighted choice of operations, parsed from {@code name:weight,...}.
+     */
+    private record Mix(List<String> operations, int[] cumulativeWeights) {
+
+        static Mix parse(String mix) {
+            var operations = new ArrayList<String>();
+            var weights = new ArrayList<Integer>();
+            var total = 0;
+            for (var entry : mix.split(",")) {
+                var parts = entry.trim().split(":");
+                total += Integer.parseInt(parts[1]);
+                operations.add(parts[0]);
+                weights.add(total);
+            }
+            return new Mix(operations, weights.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        String next() {
+            var pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            var index = 0;
+            while (pick >= cumulativeWeights[index]) {
+                index++;
+            }
+            return operations.get(index);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package mpadillamarcos.javaspringbank.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import static java.lang.System.nanoTime;
+import static java.net.http.HttpClient.Version.HTTP_1_1;
+import static java.net.http.HttpResponse.BodyHandlers.ofString;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * Open-loop load generator: operations start on a fixed schedule whether or not earlier ones have
+ * completed, and every latency is measured from the moment its request was scheduled to start.
+ * A server that stalls therefore shows up in the percentiles instead of slowing the generator
+ * down, which is what closed-loop clients hide (coordinated omission). Operations made of several
+ * requests are recorded once, end to end. The latency measured from the moment the first request
+ * was actually sent is kept alongside for comparison.
+ */
+class LoadGenerator {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(newVirtualThreadPerTaskExecutor())
+            .version(HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    /**
+     * Sends a request and records its latency under the given endpoint name, counting it from
+     * {@code intendedStartNanos}.
+     */
+    CompletableFuture<HttpResponse<String>> send(String endpoint, HttpRequest request, long intendedStartNanos) {
+        return record(endpoint, intendedStartNanos, () -> sendStep(request));
+    }
+
+    /**
+     * Runs the requests of an operation and records its latency under the given name, counting it
+     * from {@code intendedStartNanos} until the last response. The operation fails when that
+     * response does.
+     */
+    CompletableFuture<HttpResponse<String>> record(
+            String endpoint, long intendedStartNanos, Supplier<CompletableFuture<HttpResponse<String>>> steps) {
+        var sentNanos = nanoTime();
+        return steps.get().whenComplete((response, error) -> {
+            var completedNanos = nanoTime();
+            var stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+            stats.corrected.recordValue(completedNanos - intendedStartNanos);
+            stats.uncorrected.recordValue(completedNanos - sentNanos);
+            if (error != null || response.statusCode() >= 400) {
+                stats.errors.increment();
+            }
+        });
+    }
+
+    /**
+     * Sends one request of an operation passed to {@link #record}, without recording it.
+     */
+    CompletableFuture<HttpResponse<String>> sendStep(HttpRequest request) {
+        return client.sendAsync(request, ofString());
+    }
+
+    HttpResponse<String> sendAndWait(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, ofString());
+    }
+
+    /**
+     * Starts {@code ratePerSecond} operations a second for the given duration, then waits for the
+     * outstanding ones. Each operation receives the time it was scheduled to start.
+     */
+    void run(double ratePerSecond, Duration duration, LongFunction<CompletableFuture<?>> operation) {
+        var intervalNanos = (long) (SECONDS.toNanos(1) / ratePerSecond);
+        var start = nanoTime();
+        var end = start + duration.toNanos();
+        Queue<CompletableFuture<?>> outstanding = new ConcurrentLinkedQueue<>();
+        for (long intendedStart = start; intendedStart < end; intendedStart += intervalNanos) {
+            var wait = intendedStart - nanoTime();
+            if (wait > 0) {
+                parkNanos(wait);
+            }
+            var future = operation.apply(intendedStart);
+            outstanding.add(future);
+            future.whenComplete((result, error) -> outstanding.remove(future));
+        }
+        CompletableFuture.allOf(outstanding.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+    }
+
+    long requests() {
+        return endpoints.values().stream()
+                .mapToLong(endpoint -> endpoint.corrected.getTotalCount())
+                .sum();
+    }
+
+    void writeResults(Path file, String description) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (var out = new PrintStream(Files.newOutputStream(file))) {
+            out.println(description);
+            out.println();
+            printSummary(out);
+            endpoints.forEach((name, endpoint) -> {
+                out.println();
+                out.println("# " + name + ", latency from the intended start (ms)");
+                endpoint.corrected.outputPercentileDistribution(out, 1e6);
+            });
+        }
+    }
+
+    private void printSummary(PrintStream out) {
+        out.printf("%-24s %8s %7s %9s %9s %9s %9s %9s %14s%n",
+                "endpoint", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 sent ms");
+        endpoints.forEach((name, endpoint) -> out.printf("%-24s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %14.2f%n",
+                name,
+                endpoint.corrected.getTotalCount(),
+                endpoint.errors.sum(),
+                millis(endpoint.corrected, 50),
+                millis(endpoint.corrected, 90),
+                millis(endpoint.corrected, 99),
+                millis(endpoint.corrected, 99.9),
+                endpoint.corrected.getMaxValue() / 1e6,
+                millis(endpoint.uncorrected, 99)));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static class Endpoint {
+
+        private final Histogram corrected = new ConcurrentHistogram(3);
+        private final Histogram uncorrected = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
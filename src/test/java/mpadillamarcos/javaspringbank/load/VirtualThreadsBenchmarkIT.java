@@ -0,0 +1,216 @@
+package mpadillamarcos.javaspringbank.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import mpadillamarcos.javaspringbank.JavaSpringBankApplication;
+import mpadillamarcos.javaspringbank.infra.DbTestBase;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.nanoTime;
+import static java.net.http.HttpClient.Version.HTTP_1_1;
+import static java.net.http.HttpRequest.BodyPublishers.ofString;
+import static java.net.http.HttpResponse.BodyHandlers.discarding;
+import static java.util.Objects.requireNonNullElse;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.NONE;
+
+/**
+ * Starts the application twice against the test Postgres container, once serving requests on
+ * Tomcat's platform-thread pool and once on virtual threads, with the same small connection pool,
+ * and drives both with an increasing number of closed-loop clients that read account views and
+ * transaction pages, each of which blocks on JDBC. Tune it with system properties, for example
+ * {@code -Dthreads.clients=100,1000 -Dthreads.pool-size=10 -Dthreads.tomcat-max=50}. Neither run may
+ * fail a request, the virtual run may not pin a carrier thread, and with the most clients it has to
+ * keep up with the platform run.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = NONE)
+@ImportAutoConfiguration(DataSourceAutoConfiguration.class)
+class VirtualThreadsBenchmarkIT extends DbTestBase {
+
+    private static final int[] CLIENTS = parseInts(System.getProperty("threads.clients", "50,200,800"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("threads.duration-seconds", 10));
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("threads.warm-up-seconds", 3));
+    private static final int POOL_SIZE = Integer.getInteger("threads.pool-size", 10);
+    private static final int TOMCAT_MAX_THREADS = Integer.getInteger("threads.tomcat-max", 50);
+    private static final int ACCOUNTS = Integer.getInteger("threads.accounts", 100);
+
+    @Autowired
+    private JdbcConnectionDetails database;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(newVirtualThreadPerTaskExecutor())
+            .version(HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void compares_platform_and_virtual_request_threads() throws Exception {
+        var platform = measure(false);
+        var virtual = measure(true);
+
+        // both runs share the connection pool, so virtual threads only have to keep up with the platform pool
+        assertThat(virtual.throughput()).isGreaterThan(0.9 * platform.throughput());
+    }
+
+    /**
+     * Drives each number of clients in turn and returns the result of the largest.
+     */
+    private Result measure(boolean virtual) throws Exception {
+        try (var application = start(virtual)) {
+            var port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            var accounts = openAccounts(port);
+            run(port, accounts, 50, WARM_UP);
+
+            Result result = null;
+            for (int clients : CLIENTS) {
+                result = run(port, accounts, clients, DURATION);
+                log.info("{} threads, {} clients: {}", virtual ? "virtual" : "platform", clients, result);
+                assertThat(result.requests()).isPositive();
+                assertThat(result.errors()).isZero();
+            }
+            if (virtual) {
+                var pinned = application.getBean(MeterRegistry.class).find("bank.virtual-threads.pinned").timers();
+                log.info("Pinned virtual threads: {}", pinned.stream()
+                        .map(timer -> timer.getId().getTag("site") + "=" + timer.count())
+                        .toList()
+                        .toString());
+                assertThat(pinned.stream().mapToLong(Timer::count).sum()).isZero();
+            }
+            return result;
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(JavaSpringBankApplication.class)
+                .properties(Map.<String, Object>of(
+                        "server.port", "0",
+                        "spring.datasource.url", database.getJdbcUrl(),
+                        "spring.datasource.username", database.getUsername(),
+                        "spring.datasource.password", requireNonNullElse(database.getPassword(), ""),
+                        "spring.datasource.hikari.maximum-pool-size", POOL_SIZE,
+                        "server.tomcat.threads.max", TOMCAT_MAX_THREADS,
+                        "server.tomcat.max-connections", 10_000,
+                        "spring.threads.virtual.enabled", virtual))
+                .run();
+    }
+
+    private Result run(int port, List<Account> accounts, int clients, Duration duration) throws InterruptedException {
+        var latencies = new ConcurrentHistogram(3);
+        var errors = new LongAdder();
+        var start = nanoTime();
+        var deadline = start + duration.toNanos();
+        try (var executor = newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (nanoTime() < deadline) {
+                        var request = randomRead(port, accounts);
+                        var sent = nanoTime();
+                        try {
+                            if (client.send(request, discarding()).statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        }
+                        latencies.recordValue(nanoTime() - sent);
+                    }
+                    return null;
+                });
+            }
+        }
+        return new Result(latencies, errors.sum(), nanoTime() - start);
+    }
+
+    private HttpRequest randomRead(int port, List<Account> accounts) {
+        var account = accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+        var path = ThreadLocalRandom.current().nextBoolean()
+                ? "/users/%s/accounts/%s".formatted(account.userId(), account.id())
+                : "/accounts/%s/transactions?limit=20".formatted(account.id());
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private List<Account> openAccounts(int port) throws IOException, InterruptedException {
+        var accounts = new ArrayList<Account>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            var userId = randomUUID();
+            var opened = client.send(post(port, "/users/%s/accounts".formatted(userId), Map.of()),
+                    HttpResponse.BodyHandlers.ofString());
+            var accountId = UUID.fromString(objectMapper.readTree(opened.body()).path("id").asText());
+            client.send(post(port, "/users/%s/accounts/%s/deposit".formatted(userId, accountId), Map.of("amount", eur(100))),
+                    discarding());
+            accounts.add(new Account(userId, accountId));
+        }
+        return accounts;
+    }
+
+    private HttpRequest post(int port, String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private static int[] parseInts(String values) {
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    private record Account(UUID userId, UUID id) {
+    }
+
+    private record Result(ConcurrentHistogram latencies, long errors, long elapsedNanos) {
+
+        long requests() {
+            return latencies.getTotalCount();
+        }
+
+        double throughput() {
+            return requests() * 1e9 / elapsedNanos;
+        }
+
+        double millis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return "%.0f req/s, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, %d errors"
+                    .formatted(throughput(), millis(50), millis(99), millis(99.9), errors);
+        }
+    }
+}
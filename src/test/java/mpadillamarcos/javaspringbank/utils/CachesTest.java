@@ -0,0 +1,80 @@
+package mpadillamarcos.javaspringbank.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachesTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void runs_the_loader_on_the_calling_thread() {
+        var caller = Thread.currentThread();
+
+        var value = Caches.get(cache, "key", key -> Thread.currentThread() == caller ? "loaded" : "elsewhere");
+
+        assertThat(value).isEqualTo("loaded");
+    }
+
+    @Test
+    void loads_a_key_once_for_concurrent_callers() throws Exception {
+        var loads = new AtomicInteger();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> Caches.get(cache, "key", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "value";
+            }));
+            loading.await();
+            var second = executor.submit(() -> Caches.get(cache, "key", key -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("value");
+            assertThat(second.get()).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void does_not_keep_a_value_invalidated_while_loading() {
+        var value = Caches.get(cache, "key", key -> {
+            cache.synchronous().invalidate(key);
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.getIfPresent("key")).isNull();
+    }
+
+    @Test
+    void does_not_cache_failed_loads() {
+        assertThrows(IllegalStateException.class, () -> Caches.get(cache, "key", key -> {
+            throw new IllegalStateException();
+        }));
+
+        assertThat(Caches.get(cache, "key", key -> "value")).isEqualTo("value");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
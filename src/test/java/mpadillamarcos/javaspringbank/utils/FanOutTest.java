@@ -0,0 +1,64 @@
+package mpadillamarcos.javaspringbank.utils;
+
+import mpadillamarcos.javaspringbank.infra.InMemoryTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FanOutTest {
+
+    @Test
+    void returns_the_result_of_every_fork() {
+        try (var scope = FanOut.open(true)) {
+            var first = scope.fork(() -> 1);
+            var second = scope.fork(() -> 2);
+            scope.join();
+
+            assertThat(first.get() + second.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void cancels_the_other_forks_when_one_fails() throws InterruptedException {
+        var interrupted = new CountDownLatch(1);
+
+        try (var scope = FanOut.open(true)) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("failed");
+            });
+
+            var error = assertThrows(IllegalStateException.class, scope::join);
+            assertThat(error).hasMessage("failed");
+        }
+        assertThat(interrupted.await(1, SECONDS)).isTrue();
+    }
+
+    @Test
+    void runs_forks_on_the_calling_thread_inside_a_transaction() {
+        var caller = Thread.currentThread();
+        var forkThread = new AtomicReference<Thread>();
+
+        new TransactionTemplate(new InMemoryTransactionManager()).executeWithoutResult(status -> {
+            try (var scope = FanOut.open(true)) {
+                scope.fork(() -> forkThread.getAndSet(Thread.currentThread()));
+                scope.join();
+            }
+        });
+
+        assertThat(forkThread).hasValue(caller);
+    }
+}
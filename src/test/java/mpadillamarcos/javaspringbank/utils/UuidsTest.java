@@ -0,0 +1,125 @@
+package mpadillamarcos.javaspringbank.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static mpadillamarcos.javaspringbank.utils.Uuids.timeOrderedUuid;
+import static mpadillamarcos.javaspringbank.utils.Uuids.unguessableTimeOrderedUuid;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidsTest {
+
+    @Test
+    void generates_version_7_uuids() {
+        var uuid = timeOrderedUuid();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void embeds_the_current_time_in_milliseconds() {
+        var before = System.currentTimeMillis();
+        var uuid = timeOrderedUuid();
+
+        assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    void generates_increasing_uuids() {
+        var uuids = new ArrayList<UUID>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(timeOrderedUuid());
+        }
+
+        assertThat(uuids).isSortedAccordingTo(UuidsTest::compareUnsigned);
+        assertThat(new HashSet<>(uuids)).hasSameSizeAs(uuids);
+    }
+
+    @Test
+    void generates_unique_increasing_uuids_from_many_threads() throws Exception {
+        var futures = new ArrayList<Future<List<UUID>>>();
+        try (var executor = newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    var uuids = new ArrayList<UUID>();
+                    for (int i = 0; i < 10_000; i++) {
+                        uuids.add(timeOrderedUuid());
+                    }
+                    return uuids;
+                }));
+            }
+        }
+
+        var all = new HashSet<UUID>();
+        for (var future : futures) {
+            assertThat(future.get()).isSortedAccordingTo(UuidsTest::compareUnsigned);
+            all.addAll(future.get());
+        }
+        assertThat(all).hasSize(80_000);
+    }
+
+    @Test
+    void fills_the_random_bits_with_different_values() {
+        var randomBits = new HashSet<Long>();
+        for (int i = 0; i < 1_000; i++) {
+            randomBits.add(timeOrderedUuid().getLeastSignificantBits());
+        }
+
+        assertThat(randomBits).hasSize(1_000);
+    }
+
+    @Test
+    void generates_version_7_unguessable_uuids() {
+        var uuid = unguessableTimeOrderedUuid();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void fills_the_unguessable_random_bits_with_different_values_beyond_one_buffer() {
+        var randomBits = new HashSet<Long>();
+        for (int i = 0; i < 1_000; i++) {
+            randomBits.add(unguessableTimeOrderedUuid().getLeastSignificantBits());
+        }
+
+        assertThat(randomBits).hasSize(1_000);
+    }
+
+    @Test
+    void generates_unique_increasing_unguessable_uuids_from_many_virtual_threads() throws Exception {
+        var futures = new ArrayList<Future<List<UUID>>>();
+        try (var executor = newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < 1_000; thread++) {
+                futures.add(executor.submit(() -> {
+                    var uuids = new ArrayList<UUID>();
+                    for (int i = 0; i < 100; i++) {
+                        uuids.add(unguessableTimeOrderedUuid());
+                    }
+                    return uuids;
+                }));
+            }
+        }
+
+        var all = new HashSet<UUID>();
+        for (var future : futures) {
+            assertThat(future.get()).isSortedAccordingTo(UuidsTest::compareUnsigned);
+            all.addAll(future.get());
+        }
+        assertThat(all).hasSize(100_000);
+    }
+
+    // same order as Postgres, which compares uuids byte by byte
+    private static int compareUnsigned(UUID a, UUID b) {
+        var result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -1,6 +1,18 @@
 package mpadillamarcos.javaspringbank.web.transaction;
 
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.ServletException;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionConflictException;
+import mpadillamarcos.javaspringbank.domain.exception.DecisionQueueFullException;
+import mpadillamarcos.javaspringbank.domain.exception.IdempotencyKeyConflictException;
+import mpadillamarcos.javaspringbank.domain.idempotency.IdempotencyService;
+import mpadillamarcos.javaspringbank.domain.transaction.BatchTransferService;
+import mpadillamarcos.javaspringbank.domain.transaction.DecisionStatus;
+import mpadillamarcos.javaspringbank.domain.transaction.Transaction;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionDecisionQueue;
+import mpadillamarcos.javaspringbank.domain.transaction.TransactionPage;
 import mpadillamarcos.javaspringbank.domain.transaction.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,21 +21,41 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import static mpadillamarcos.javaspringbank.domain.Instances.dummyDeposit;
 import static mpadillamarcos.javaspringbank.domain.Instances.dummyTransfer;
 import static mpadillamarcos.javaspringbank.domain.account.AccountId.randomAccountId;
 import static mpadillamarcos.javaspringbank.domain.money.Money.eur;
 import static mpadillamarcos.javaspringbank.domain.transaction.DepositRequest.depositRequest;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionCursor.cursorOf;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.CONFIRM;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionDecision.REJECT;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransactionId.randomTransactionId;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransactionType.TRANSFER;
 import static mpadillamarcos.javaspringbank.domain.transaction.TransferRequest.transferRequest;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferResult.failed;
+import static mpadillamarcos.javaspringbank.domain.transaction.TransferResult.transferred;
 import static mpadillamarcos.javaspringbank.domain.transaction.WithdrawRequest.withdrawRequest;
 import static mpadillamarcos.javaspringbank.domain.user.UserId.randomUserId;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = TransactionController.class)
@@ -33,6 +65,18 @@ class TransactionControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private TransactionService transactionService;
+    @MockBean
+    private BatchTransferService batchTransferService;
+    @MockBean
+    private IdempotencyService idempotencyService;
+    @MockBean
+    private TransactionDecisionQueue decisionQueue;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(5, Supplier.class).get());
+    }
 
     @Nested
     class Transfer {
@@ -125,6 +169,118 @@ class TransactionControllerTest {
         }
     }
 
+    @Nested
+    class Idempotency {
+
+        private final String requestBody = """
+                {
+                    "destinationAccountId": "e095d288-9456-491d-b3a2-94c6d2d79d9b",
+                    "amount": {
+                        "amount": 100,
+                        "currency": "EUR"
+                    }
+                }
+                """;
+
+        @Test
+        void passes_idempotency_key_header_to_idempotency_service() throws Exception {
+            var userId = randomUserId();
+            var originAccountId = randomAccountId();
+
+            mockMvc.perform(post(
+                            "/users/{userId}/accounts/{originAccountId}/transfer",
+                            userId.value(),
+                            originAccountId.value())
+                            .header("Idempotency-Key", "some-key")
+                            .content(requestBody)
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            verify(idempotencyService).execute(eq("some-key"), eq(userId), eq(originAccountId), eq(TRANSFER), any(), any());
+        }
+
+        @Test
+        void returns_conflict_when_idempotency_key_was_used_for_another_request() throws Exception {
+            doThrow(new IdempotencyKeyConflictException("conflict"))
+                    .when(idempotencyService).execute(any(), any(), any(), any(), any(), any());
+
+            mockMvc.perform(post(
+                            "/users/{userId}/accounts/{originAccountId}/transfer",
+                            randomUserId().value(),
+                            randomAccountId().value())
+                            .header("Idempotency-Key", "some-key")
+                            .content(requestBody)
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", equalTo("conflict")));
+        }
+    }
+
+    @Nested
+    class BatchTransfer {
+
+        @Test
+        void returns_bad_request_when_there_are_no_transfers() throws Exception {
+            mockMvc.perform(post("/transfers/batch")
+                            .content("{\"transfers\": []}")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void returns_bad_request_when_a_transfer_is_invalid() throws Exception {
+            mockMvc.perform(post("/transfers/batch")
+                            .content("{\"transfers\": [{}]}")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void returns_result_of_each_transfer() throws Exception {
+            var userId = randomUserId();
+            var originAccountId = randomAccountId();
+            var destinationAccountId = randomAccountId();
+            var transactionId = randomTransactionId();
+            var amount = eur(100);
+            var request = transferRequest()
+                    .amount(amount)
+                    .destinationAccountId(destinationAccountId)
+                    .originAccountId(originAccountId)
+                    .userId(userId)
+                    .build();
+
+            String transfer = String.format(
+                    """
+                            {
+                                "userId": "%s",
+                                "originAccountId": "%s",
+                                "destinationAccountId": "%s",
+                                "amount": {
+                                    "amount": %s,
+                                    "currency": "EUR"
+                                }
+                            }
+                            """,
+                    userId.value(),
+                    originAccountId.value(),
+                    destinationAccountId.value(),
+                    amount.getAmount()
+            );
+
+            when(batchTransferService.transfer(List.of(request, request)))
+                    .thenReturn(List.of(transferred(transactionId), failed("insufficient balance")));
+
+            mockMvc.perform(post("/transfers/batch")
+                            .content("{\"transfers\": [" + transfer + "," + transfer + "]}")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].transactionId", equalTo(transactionId.value().toString())))
+                    .andExpect(jsonPath("$[0].error").doesNotExist())
+                    .andExpect(jsonPath("$[1].transactionId").doesNotExist())
+                    .andExpect(jsonPath("$[1].error", equalTo("insufficient balance")));
+        }
+    }
+
     @Nested
     class Withdraw {
 
@@ -210,6 +366,38 @@ class TransactionControllerTest {
                     .andExpect(status().isBadRequest());
         }
 
+        @Test
+        void returns_bad_request_when_amount_has_more_decimals_than_its_currency() throws Exception {
+            mockMvc.perform(post("/users/f01f898b-82fc-4860-acc0-76b13dcd78c5/accounts/f01f898b-82fc-4860-acc0-76b13dcd78c5/deposit")
+                            .content("{\"amount\": {\"amount\": 0.005, \"currency\": \"EUR\"}}")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", equalTo("amount 0.005 has more decimals than EUR allows")));
+
+            verifyNoInteractions(transactionService);
+        }
+
+        @Test
+        void returns_bad_request_when_amount_does_not_fit_in_minor_units() throws Exception {
+            mockMvc.perform(post("/users/f01f898b-82fc-4860-acc0-76b13dcd78c5/accounts/f01f898b-82fc-4860-acc0-76b13dcd78c5/deposit")
+                            .content("{\"amount\": {\"amount\": 92233720368547758.08, \"currency\": \"EUR\"}}")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", equalTo("amount 92233720368547758.08 does not fit in EUR minor units")));
+
+            verifyNoInteractions(transactionService);
+        }
+
+        @Test
+        void does_not_blame_the_request_for_an_overflow_in_the_service() {
+            when(transactionService.deposit(any())).thenThrow(new ArithmeticException("long overflow"));
+
+            assertThrows(ServletException.class, () -> mockMvc.perform(
+                    post("/users/f01f898b-82fc-4860-acc0-76b13dcd78c5/accounts/f01f898b-82fc-4860-acc0-76b13dcd78c5/deposit")
+                            .content("{\"amount\": {\"amount\": 10, \"currency\": \"EUR\"}}")
+                            .contentType(APPLICATION_JSON)));
+        }
+
         @Test
         void returns_ok_when_all_required_parameters_are_valid() throws Exception {
             var userId = randomUserId();
@@ -270,6 +458,23 @@ class TransactionControllerTest {
             verify(transactionService, times(1))
                     .confirm(transactionId);
         }
+
+        @Test
+        void returns_accepted_and_queues_the_confirmation_when_decisions_are_async() throws Exception {
+            var transactionId = randomTransactionId();
+
+            when(decisionQueue.isEnabled()).thenReturn(true);
+            when(decisionQueue.submit(transactionId, CONFIRM)).thenReturn(DecisionStatus.pending(CONFIRM));
+
+            mockMvc.perform(post(
+                            "/transactions/{transactionId}/confirm", transactionId.value()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "http://localhost/transactions/" + transactionId.value() + "/decision"))
+                    .andExpect(jsonPath("$.decision", equalTo("CONFIRM")))
+                    .andExpect(jsonPath("$.state", equalTo("PENDING")));
+
+            verify(transactionService, never()).confirm(any());
+        }
     }
 
     @Nested
@@ -292,6 +497,71 @@ class TransactionControllerTest {
             verify(transactionService, times(1))
                     .reject(transactionId);
         }
+
+        @Test
+        void returns_accepted_and_queues_the_rejection_when_decisions_are_async() throws Exception {
+            var transactionId = randomTransactionId();
+
+            when(decisionQueue.isEnabled()).thenReturn(true);
+            when(decisionQueue.submit(transactionId, REJECT)).thenReturn(DecisionStatus.pending(REJECT));
+
+            mockMvc.perform(post(
+                            "/transactions/{transactionId}/reject", transactionId.value()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.decision", equalTo("REJECT")));
+
+            verify(transactionService, never()).reject(any());
+        }
+
+        @Test
+        void returns_conflict_when_the_opposite_decision_is_pending() throws Exception {
+            var transactionId = randomTransactionId();
+
+            when(decisionQueue.isEnabled()).thenReturn(true);
+            when(decisionQueue.submit(transactionId, REJECT))
+                    .thenThrow(new DecisionConflictException("Transaction ID " + transactionId.value() + " has a pending CONFIRM"));
+
+            mockMvc.perform(post(
+                            "/transactions/{transactionId}/reject", transactionId.value()))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        void returns_service_unavailable_when_the_decision_queue_is_full() throws Exception {
+            var transactionId = randomTransactionId();
+
+            when(decisionQueue.isEnabled()).thenReturn(true);
+            when(decisionQueue.submit(transactionId, REJECT))
+                    .thenThrow(new DecisionQueueFullException("Too many transaction decisions are waiting, try again later"));
+
+            mockMvc.perform(post(
+                            "/transactions/{transactionId}/reject", transactionId.value()))
+                    .andExpect(status().isServiceUnavailable());
+        }
+    }
+
+    @Nested
+    class GetDecision {
+
+        @Test
+        void returns_the_outcome_of_the_decision() throws Exception {
+            var transactionId = randomTransactionId();
+
+            when(decisionQueue.findStatus(transactionId))
+                    .thenReturn(Optional.of(DecisionStatus.failed(CONFIRM, "The account is BLOCKED")));
+
+            mockMvc.perform(get("/transactions/{transactionId}/decision", transactionId.value()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactionId", equalTo(transactionId.value().toString())))
+                    .andExpect(jsonPath("$.state", equalTo("FAILED")))
+                    .andExpect(jsonPath("$.error", equalTo("The account is BLOCKED")));
+        }
+
+        @Test
+        void returns_not_found_when_no_decision_was_submitted() throws Exception {
+            mockMvc.perform(get("/transactions/{transactionId}/decision", randomTransactionId().value()))
+                    .andExpect(status().isNotFound());
+        }
     }
 
     @Nested
@@ -304,16 +574,26 @@ class TransactionControllerTest {
         }
 
         @Test
-        void returns_transaction_list_when_all_parameters_are_valid() throws Exception {
+        void returns_bad_request_when_limit_is_out_of_range() throws Exception {
+            mockMvc.perform(get("/accounts/{accountId}/transactions", randomAccountId().value()).param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/accounts/{accountId}/transactions", randomAccountId().value()).param("limit", "501"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void returns_bad_request_when_next_token_is_invalid() throws Exception {
+            mockMvc.perform(get("/accounts/{accountId}/transactions", randomAccountId().value()).param("next", "not-a-token"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void returns_transaction_array_when_no_paging_parameters_are_sent() throws Exception {
             var transaction = dummyTransfer()
                     .amount(eur(100))
                     .build();
             var accountId = transaction.getAccountId();
 
-            mockMvc.perform(get(
-                            "/accounts/{accountId}/transactions", accountId.value()))
-                    .andExpect(status().isOk());
-
             when(transactionService.listTransactionsByAccountId(accountId))
                     .thenReturn(List.of(transaction));
 
@@ -329,6 +609,115 @@ class TransactionControllerTest {
                     .andExpect(jsonPath("$[0].direction", equalTo(transaction.getDirection().toString())))
                     .andExpect(jsonPath("$[0].type", equalTo(transaction.getType().toString())))
                     .andExpect(jsonPath("$[0].concept", equalTo(transaction.getConcept())));
+
+            verify(transactionService, never()).listTransactionsByAccountId(any(), any(), anyInt());
+        }
+
+        @Test
+        void returns_transaction_page_when_limit_is_sent() throws Exception {
+            var transaction = dummyTransfer()
+                    .amount(eur(100))
+                    .build();
+            var accountId = transaction.getAccountId();
+
+            when(transactionService.listTransactionsByAccountId(accountId, null, 50))
+                    .thenReturn(new TransactionPage(List.of(transaction), null));
+
+            mockMvc.perform(get("/accounts/{accountId}/transactions", accountId.value()).param("limit", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactions[0].id", equalTo(transaction.getId().value().toString())))
+                    .andExpect(jsonPath("$.transactions[0].userId", equalTo(transaction.getUserId().value().toString())))
+                    .andExpect(jsonPath("$.transactions[0].accountId", equalTo(accountId.value().toString())))
+                    .andExpect(jsonPath("$.transactions[0].amount.amount", equalTo(100.0D)))
+                    .andExpect(jsonPath("$.transactions[0].amount.currency", equalTo("EUR")))
+                    .andExpect(jsonPath("$.transactions[0].createdDate", equalTo(transaction.getCreatedDate().toString())))
+                    .andExpect(jsonPath("$.transactions[0].state", equalTo(transaction.getState().toString())))
+                    .andExpect(jsonPath("$.transactions[0].direction", equalTo(transaction.getDirection().toString())))
+                    .andExpect(jsonPath("$.transactions[0].type", equalTo(transaction.getType().toString())))
+                    .andExpect(jsonPath("$.transactions[0].concept", equalTo(transaction.getConcept())))
+                    .andExpect(jsonPath("$.next").doesNotExist());
+        }
+
+        @Test
+        void returns_transaction_page_of_the_default_size_when_only_next_is_sent() throws Exception {
+            var transaction = dummyTransfer().build();
+            var accountId = transaction.getAccountId();
+            var cursor = cursorOf(transaction);
+
+            when(transactionService.listTransactionsByAccountId(accountId, cursor, 50))
+                    .thenReturn(new TransactionPage(List.of(), null));
+
+            mockMvc.perform(get("/accounts/{accountId}/transactions", accountId.value())
+                            .param("next", TransactionPageToken.encode(cursor)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactions").isEmpty());
+        }
+
+        @Test
+        void returns_a_next_token_that_resumes_after_the_last_transaction() throws Exception {
+            var transaction = dummyTransfer().build();
+            var accountId = transaction.getAccountId();
+            var cursor = cursorOf(transaction);
+
+            when(transactionService.listTransactionsByAccountId(accountId, null, 1))
+                    .thenReturn(new TransactionPage(List.of(transaction), cursor));
+            when(transactionService.listTransactionsByAccountId(accountId, cursor, 1))
+                    .thenReturn(new TransactionPage(List.of(), null));
+
+            var next = JsonPath.<String>read(mockMvc.perform(get("/accounts/{accountId}/transactions", accountId.value())
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(), "$.next");
+
+            mockMvc.perform(get("/accounts/{accountId}/transactions", accountId.value())
+                            .param("limit", "1")
+                            .param("next", next))
+                    .andExpect(status().isOk());
+
+            verify(transactionService).listTransactionsByAccountId(accountId, cursor, 1);
+        }
+    }
+
+    @Nested
+    class ExportTransactions {
+
+        @Test
+        void returns_bad_request_when_account_id_is_not_uuid() throws Exception {
+            mockMvc.perform(get("/accounts/5/transactions/export"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void streams_one_json_document_per_line() throws Exception {
+            var transaction1 = dummyTransfer().amount(eur(100)).build();
+            var accountId = transaction1.getAccountId();
+            var transaction2 = dummyDeposit().accountId(accountId).build();
+
+            doAnswer(invocation -> {
+                Consumer<Transaction> consumer = invocation.getArgument(1);
+                consumer.accept(transaction1);
+                consumer.accept(transaction2);
+                return null;
+            }).when(transactionService).exportTransactionsByAccountId(eq(accountId), any());
+
+            var result = mockMvc.perform(get("/accounts/{accountId}/transactions/export", accountId.value()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            var lines = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(APPLICATION_NDJSON))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString()
+                    .split("\n");
+
+            assertThat(lines).hasSize(2);
+            assertThat(JsonPath.<String>read(lines[0], "$.id")).isEqualTo(transaction1.getId().value().toString());
+            assertThat(JsonPath.<Double>read(lines[0], "$.amount.amount")).isEqualTo(100.0D);
+            assertThat(JsonPath.<String>read(lines[0], "$.createdDate")).isEqualTo(transaction1.getCreatedDate().toString());
+            assertThat(JsonPath.<String>read(lines[1], "$.id")).isEqualTo(transaction2.getId().value().toString());
         }
     }
-}
\ No newline at end of file
+}